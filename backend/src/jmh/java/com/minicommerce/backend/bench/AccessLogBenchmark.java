@@ -0,0 +1,103 @@
+package com.minicommerce.backend.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.web.interceptor.AccessLogWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * Request-thread cost of access logging: the previous MDC + synchronous appender path versus
+ * enqueueing to {@link AccessLogWriter}. Both write to a temporary file with the same layout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessLogBenchmark {
+  private Path directory;
+  private Logger legacy;
+  private AccessLogWriter writer;
+
+  @Setup
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("access-log-bench");
+    var context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    legacy = attach(context, "bench.legacy", directory.resolve("legacy.log"),
+        "%d{yyyy-MM-dd HH:mm:ss.SSS} | %X{method:--} | %X{uri:--} | %X{startTime:--} | %X{endTime:--} | %X{duration:--}ms | %X{statusCode:--}%n");
+    attach(context, "ACCESS", directory.resolve("access.log"), "%msg%n");
+    writer = new AccessLogWriter(new MetricsRegistry(), 8192, 256);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    writer.close();
+  }
+
+  /**
+   * What the interceptor did per request before: two Instant strings, six MDC entries and a
+   * synchronous formatted write.
+   */
+  @Benchmark
+  public void legacyMdcLogging() {
+    Instant start = Instant.now();
+    MDC.put("method", "GET");
+    MDC.put("uri", "/products");
+    MDC.put("startTime", start.toString());
+    Instant end = Instant.now();
+    MDC.put("endTime", end.toString());
+    MDC.put("duration", String.valueOf(Duration.between(start, end).toMillis()));
+    MDC.put("statusCode", "200");
+    legacy.info("API Request completed: {} {} - Status: {} - Duration: {}ms", "GET", "/products", 200, 0);
+    MDC.clear();
+  }
+
+  @Benchmark
+  public boolean asyncAccessLog() {
+    long startNanos = System.nanoTime();
+    long startMillis = System.currentTimeMillis();
+    return writer.offer("GET", "/products", startMillis, System.nanoTime() - startNanos, 200);
+  }
+
+  private static Logger attach(LoggerContext context, String name, Path file, String pattern) {
+    var encoder = new PatternLayoutEncoder();
+    encoder.setContext(context);
+    encoder.setPattern(pattern);
+    encoder.start();
+    var appender = new FileAppender<ILoggingEvent>();
+    appender.setContext(context);
+    appender.setFile(file.toString());
+    appender.setEncoder(encoder);
+    appender.start();
+    Logger logger = context.getLogger(name);
+    logger.detachAndStopAllAppenders();
+    logger.setAdditive(false);
+    logger.setLevel(Level.INFO);
+    logger.addAppender(appender);
+    return logger;
+  }
+}
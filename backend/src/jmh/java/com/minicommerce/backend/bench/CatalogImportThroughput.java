@@ -0,0 +1,125 @@
+package com.minicommerce.backend.bench;
+
+import com.minicommerce.backend.config.InventoryConfig;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.InMemoryProductRepository;
+import com.minicommerce.backend.repository.catalog.CatalogFormat;
+import com.minicommerce.backend.repository.catalog.CatalogImportReport;
+import com.minicommerce.backend.service.CatalogImportService;
+import com.minicommerce.backend.service.CatalogReadModel;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Throughput and memory of a catalog import through {@link CatalogImportService}, as
+ * {@code POST /admin/catalog/import} runs it. Not a JMH benchmark: one import of a large file is
+ * the measurement. Generates the file on first use (names as in {@link ProductSearchBenchmark},
+ * one row in a thousand invalid), imports it into a repository holding the sample products, and
+ * reports rows/s, the time until the new catalog is live, the most heap left after any collection
+ * during the import and the heap the new catalog keeps:
+ *
+ * <pre>
+ * MAVEN_OPTS="-XX:+UseG1GC -Xmx3g" mvn -Pbench test-compile exec:java \
+ *     -Dexec.classpathScope=test -Dexec.mainClass=com.minicommerce.backend.bench.CatalogImportThroughput \
+ *     -Dexec.args="csv 5000000 target/catalog-5m.csv"
+ * </pre>
+ *
+ * Arguments: format ({@code csv} or {@code ndjson}), rows, file, parser threads (default 0, one per
+ * available processor).
+ */
+public final class CatalogImportThroughput {
+  private static final AtomicLong peakAfterGc = new AtomicLong();
+
+  private CatalogImportThroughput() {}
+
+  public static void main(String[] args) throws Exception {
+    CatalogFormat format = CatalogFormat.valueOf(args[0].toUpperCase(Locale.ROOT));
+    int rows = Integer.parseInt(args[1]);
+    Path file = Path.of(args[2]);
+    int parallelism = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+    if (Files.notExists(file)) generate(format, rows, file);
+
+    var metrics = new MetricsRegistry();
+    var repository = new InMemoryProductRepository();
+    var readModel = new CatalogReadModel(repository, metrics);
+    readModel.version();
+    var service = new CatalogImportService(repository, readModel, new InventoryConfig(repository), metrics, parallelism,
+        "memory");
+
+    long baseline = liveHeap();
+    listenForCollections();
+    long started = System.nanoTime();
+    CatalogImportReport report;
+    try (InputStream in = Files.newInputStream(file)) {
+      report = service.importCatalog(in, format);
+    }
+    double liveSeconds = (System.nanoTime() - started) / 1e9;
+    long peak = peakAfterGc.get() - baseline;
+    long retained = liveHeap() - baseline;
+
+    System.out.printf(Locale.ROOT, "%s, %,d rows (%,d MB): %,d imported, %,d rejected%n",
+        format, report.rows(), Files.size(file) >> 20, report.imported(), report.rejected());
+    System.out.printf(Locale.ROOT, "parse: %.1f s, %,d rows/s; live (swap and read model rebuild) after %.1f s%n",
+        report.elapsedMs() / 1e3, Math.round(report.rowsPerSecond()), liveSeconds);
+    System.out.printf(Locale.ROOT, "heap: peak live %,d MB, retained %,d MB (%.0f B/product)%n",
+        peak >> 20, retained >> 20, (double) retained / report.imported());
+  }
+
+  private static void generate(CatalogFormat format, int rows, Path file) throws IOException {
+    var random = new SplittableRandom(42);
+    try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      if (format == CatalogFormat.CSV) out.write("id,name,price,stock\n");
+      for (int id = 1; id <= rows; id++) {
+        String name = String.format(Locale.ROOT, "%s %s %s (%s)",
+            ProductSearchBenchmark.BRANDS[random.nextInt(ProductSearchBenchmark.BRANDS.length)],
+            ProductSearchBenchmark.ADJECTIVES[random.nextInt(ProductSearchBenchmark.ADJECTIVES.length)],
+            ProductSearchBenchmark.WORDS[random.nextInt(ProductSearchBenchmark.WORDS.length)],
+            ProductSearchBenchmark.SIZES[random.nextInt(ProductSearchBenchmark.SIZES.length)]);
+        long cents = 100 + random.nextInt(19_901);
+        String price = (cents / 100) + "." + (cents % 100 < 10 ? "0" : "") + cents % 100;
+        int stock = random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(100);
+        // One row in a thousand has a negative price
+        if (id % 1000 == 0) price = "-" + price;
+        out.write(format == CatalogFormat.CSV
+            ? id + "," + name + "," + price + "," + stock + "\n"
+            : "{\"id\":" + id + ",\"name\":\"" + name + "\",\"price\":" + price + ",\"stock\":" + stock + "}\n");
+      }
+    }
+  }
+
+  /**
+   * Tracks the heap left after each collection, i.e. what the import held at that moment.
+   */
+  private static void listenForCollections() {
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      ((NotificationEmitter) gc).addNotificationListener((notification, handback) -> {
+        if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+        var info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        if (info.getGcCause().equals("System.gc()")) return;
+        long used = info.getGcInfo().getMemoryUsageAfterGc().values().stream().mapToLong(MemoryUsage::getUsed).sum();
+        peakAfterGc.accumulateAndGet(used, Math::max);
+      }, null, null);
+    }
+  }
+
+  private static long liveHeap() throws InterruptedException {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      Thread.sleep(100);
+    }
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+}
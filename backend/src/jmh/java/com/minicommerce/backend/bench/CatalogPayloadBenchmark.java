@@ -0,0 +1,87 @@
+package com.minicommerce.backend.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.ProductRepository;
+import com.minicommerce.backend.service.CatalogReadModel;
+import com.minicommerce.backend.service.CatalogService;
+import com.minicommerce.backend.web.cache.CatalogPayloadCache;
+import com.minicommerce.backend.web.mapper.ProductMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of producing the {@code GET /products} body: map and serialize per request versus the
+ * pre-serialized payload. Run with {@code -prof gc} to compare allocation per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogPayloadBenchmark {
+
+  @Param({"5", "500"})
+  public int products;
+
+  private CatalogService catalogService;
+  private CatalogPayloadCache payloadCache;
+  private ProductMapper productMapper;
+  private ObjectMapper objectMapper;
+
+  @Setup
+  public void setUp() {
+    List<Product> catalog = new ArrayList<>();
+    for (long id = 1; id <= products; id++) {
+      catalog.add(new Product(id, "Product " + id, Money.of("19.99"), 1_000));
+    }
+    ProductRepository repository = new ProductRepository() {
+      @Override
+      public List<Product> findAll() {
+        return catalog;
+      }
+
+      @Override
+      public Optional<Product> findById(long id) {
+        return Optional.ofNullable(id >= 1 && id <= catalog.size() ? catalog.get((int) id - 1) : null);
+      }
+
+      @Override
+      public void replaceAll(List<Product> replacement) {
+        throw new UnsupportedOperationException();
+      }
+    };
+    var metrics = new MetricsRegistry();
+    catalogService = new CatalogService(new CatalogReadModel(repository, metrics));
+    productMapper = Mappers.getMapper(ProductMapper.class);
+    objectMapper = new ObjectMapper();
+    payloadCache = new CatalogPayloadCache(catalogService, productMapper, objectMapper, metrics);
+  }
+
+  @Benchmark
+  public byte[] mapAndSerialize() throws Exception {
+    return objectMapper.writeValueAsBytes(productMapper.toResponseList(catalogService.snapshot().products()));
+  }
+
+  @Benchmark
+  public byte[] preSerialized() {
+    return payloadCache.get(catalogService.version()).identity();
+  }
+}
@@ -0,0 +1,101 @@
+package com.minicommerce.backend.bench;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.domain.OrderLine;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.IdempotencyStore;
+import com.minicommerce.backend.repository.InMemoryIdempotencyStore;
+import com.minicommerce.backend.repository.InMemoryOrderRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of unrelated keys while other threads run slow order creations.
+ *
+ * <p>Compare {@code p0.99} of {@code contention:unrelatedKeys} between the in-flight-future store
+ * and {@code map-compute}, a copy of the previous implementation that ran the creator inside
+ * {@link ConcurrentHashMap#compute} and so held the bin lock (and stalled table resizes) for the
+ * whole creation.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdempotencyContentionBenchmark {
+
+  @Param({"inflight-futures", "map-compute"})
+  public String store;
+
+  private IdempotencyStore idempotencyStore;
+  private final AtomicLong keys = new AtomicLong();
+  private Order template;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    var price = Money.of("29.00");
+    template = new Order(0L, 4L, 1, price, price, Instant.now());
+    idempotencyStore = store.equals("map-compute")
+        ? new ComputeStore()
+        : new InMemoryIdempotencyStore(new InMemoryOrderRepository(), new MetricsRegistry(), 3600, 10_000_000);
+  }
+
+  @Benchmark
+  @Group("contention")
+  @GroupThreads(2)
+  public Order slowCreation() {
+    return idempotencyStore.getOrCreate("slow-" + keys.incrementAndGet(), 4L, 1, () -> {
+      // Stands in for a slow stock CAS / persistence round trip
+      LockSupport.parkNanos(1_000_000);
+      return template;
+    });
+  }
+
+  @Benchmark
+  @Group("contention")
+  @GroupThreads(6)
+  public Order unrelatedKeys() {
+    return idempotencyStore.getOrCreate("fast-" + keys.incrementAndGet(), 4L, 1, () -> template);
+  }
+
+  /**
+   * The pre-future implementation, kept here as the baseline.
+   */
+  static final class ComputeStore implements IdempotencyStore {
+    private record Entry(List<OrderLine> lines, List<Order> orders) {}
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public Order getOrCreate(String key, long productId, int quantity, Supplier<Order> creator) {
+      return getOrCreateBatch(key, List.of(new OrderLine(productId, quantity)), () -> List.of(creator.get())).get(0);
+    }
+
+    @Override
+    public List<Order> getOrCreateBatch(String key, List<OrderLine> lines, Supplier<List<Order>> creator) {
+      return entries.compute(key, (k, existing) ->
+          existing != null ? existing : new Entry(lines, creator.get())).orders();
+    }
+  }
+}
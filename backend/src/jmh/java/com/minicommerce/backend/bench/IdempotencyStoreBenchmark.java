@@ -0,0 +1,61 @@
+package com.minicommerce.backend.bench;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.InMemoryIdempotencyStore;
+import com.minicommerce.backend.repository.InMemoryOrderRepository;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link InMemoryIdempotencyStore#getOrCreate} on its two common paths: a first request with a new
+ * key, and a client retry that replays the stored order. {@link IdempotencyContentionBenchmark}
+ * covers slow creations blocking other keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdempotencyStoreBenchmark {
+
+  private InMemoryIdempotencyStore store;
+  private final AtomicLong keys = new AtomicLong();
+  private Order template;
+
+  @Setup
+  public void setUp() {
+    var price = Money.of("29.00");
+    var orders = new InMemoryOrderRepository();
+    // Replays look the stored order up by id, so it has to exist
+    template = orders.save(new Order(0L, 4L, 1, price, price, Instant.now()));
+    store = new InMemoryIdempotencyStore(orders, new MetricsRegistry(), 3600, 10_000_000);
+    store.getOrCreate("retry", 4L, 1, () -> template);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Order newKey() {
+    return store.getOrCreate("key-" + keys.incrementAndGet(), 4L, 1, () -> template);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Order replay() {
+    return store.getOrCreate("retry", 4L, 1, () -> template);
+  }
+}
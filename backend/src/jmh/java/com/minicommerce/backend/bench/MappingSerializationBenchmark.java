@@ -0,0 +1,109 @@
+package com.minicommerce.backend.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.web.dto.CreateBatchOrderResponse;
+import com.minicommerce.backend.web.dto.CreateOrderResponse;
+import com.minicommerce.backend.web.dto.OrderResponse;
+import com.minicommerce.backend.web.dto.ProductResponse;
+import com.minicommerce.backend.web.mapper.OrderMapper;
+import com.minicommerce.backend.web.mapper.ProductMapper;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MapStruct mapping and Jackson serialization of the order and product DTOs, separately, so a
+ * regression can be pinned on one or the other. The {@link ObjectMapper} is configured the way
+ * Spring Boot configures it (JSR-310 module, ISO dates). Run with {@code -prof gc} for allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingSerializationBenchmark {
+
+  private OrderMapper orderMapper;
+  private ProductMapper productMapper;
+  private ObjectMapper objectMapper;
+  private Order order;
+  private List<Order> batch;
+  private Product product;
+  private OrderResponse orderResponse;
+  private CreateBatchOrderResponse batchResponse;
+  private ProductResponse productResponse;
+
+  @Setup
+  public void setUp() {
+    orderMapper = Mappers.getMapper(OrderMapper.class);
+    productMapper = Mappers.getMapper(ProductMapper.class);
+    objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    var price = Money.of("29.00");
+    order = new Order(42L, 4L, 2, price, Money.of("58.00"), Instant.parse("2024-06-01T10:15:30.123Z"));
+    batch = new ArrayList<>();
+    for (long id = 1; id <= 5; id++) {
+      batch.add(new Order(id, id, 1, price, price, order.getCreatedAt()));
+    }
+    product = new Product(4L, "Gentle Foaming Cleanser", price, 10);
+
+    orderResponse = orderMapper.toResponse(order);
+    batchResponse = orderMapper.toCreateBatchResponse(batch);
+    productResponse = productMapper.toResponse(product);
+  }
+
+  @Benchmark
+  public OrderResponse mapOrder() {
+    return orderMapper.toResponse(order);
+  }
+
+  @Benchmark
+  public CreateOrderResponse mapCreateOrder() {
+    return orderMapper.toCreateResponse(order);
+  }
+
+  @Benchmark
+  public CreateBatchOrderResponse mapBatch() {
+    return orderMapper.toCreateBatchResponse(batch);
+  }
+
+  @Benchmark
+  public ProductResponse mapProduct() {
+    return productMapper.toResponse(product);
+  }
+
+  @Benchmark
+  public byte[] serializeOrder() throws Exception {
+    return objectMapper.writeValueAsBytes(orderResponse);
+  }
+
+  @Benchmark
+  public byte[] serializeBatch() throws Exception {
+    return objectMapper.writeValueAsBytes(batchResponse);
+  }
+
+  @Benchmark
+  public byte[] serializeProduct() throws Exception {
+    return objectMapper.writeValueAsBytes(productResponse);
+  }
+}
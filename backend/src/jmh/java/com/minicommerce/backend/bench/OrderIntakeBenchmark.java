@@ -0,0 +1,117 @@
+package com.minicommerce.backend.bench;
+
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.InMemoryOrderRepository;
+import com.minicommerce.backend.repository.InMemoryProductRepository;
+import com.minicommerce.backend.repository.JournaledOrderRepository;
+import com.minicommerce.backend.repository.OrderRepository;
+import com.minicommerce.backend.repository.journal.DurabilityMode;
+import com.minicommerce.backend.service.DirectOrderIntake;
+import com.minicommerce.backend.service.OrderIntake;
+import com.minicommerce.backend.service.SequencedOrderIntake;
+import com.minicommerce.backend.web.error.InsufficientStockException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single-product order placement on one hot product: request-thread reservation versus the
+ * per-shard sequencer, with in-memory storage and with the journal in sync mode (where the
+ * sequencer's batched saveAll shares one fsync).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderIntakeBenchmark {
+  private static final int RESTOCK = 1_000_000;
+
+  @Param({"direct", "sequencer"})
+  public String intake;
+
+  @Param({"memory", "journal-sync"})
+  public String store;
+
+  private OrderIntake orderIntake;
+  private OrderRepository repository;
+  private Product product;
+  private Path directory;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    var products = new InMemoryProductRepository();
+    product = products.findById(1L).orElseThrow();
+    product.increaseStock(RESTOCK);
+    if (store.equals("memory")) {
+      repository = new InMemoryOrderRepository();
+    } else {
+      directory = Files.createTempDirectory("order-intake-bench");
+      repository = new JournaledOrderRepository(
+          products, new MetricsRegistry(), directory.toString(), 64, DurabilityMode.SYNC, 50, 0, 1);
+    }
+    orderIntake = intake.equals("direct")
+        ? new DirectOrderIntake(products, repository)
+        : new SequencedOrderIntake(products, repository, new MetricsRegistry(), 1, 4096, 256, 5000);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    if (orderIntake instanceof SequencedOrderIntake sequenced) {
+      sequenced.close();
+    }
+    if (repository instanceof JournaledOrderRepository journaled) {
+      journaled.close();
+      try (Stream<Path> files = Files.walk(directory)) {
+        for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+      }
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Order place1Thread() {
+    return place();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Order place8Threads() {
+    return place();
+  }
+
+  @Benchmark
+  @Threads(64)
+  public Order place64Threads() {
+    return place();
+  }
+
+  private Order place() {
+    try {
+      return orderIntake.place(1L, 1);
+    } catch (InsufficientStockException e) {
+      product.increaseStock(RESTOCK);
+      return null;
+    }
+  }
+}
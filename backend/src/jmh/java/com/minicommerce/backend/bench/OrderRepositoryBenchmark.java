@@ -0,0 +1,86 @@
+package com.minicommerce.backend.bench;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.InMemoryOrderRepository;
+import com.minicommerce.backend.repository.InMemoryProductRepository;
+import com.minicommerce.backend.repository.JournaledOrderRepository;
+import com.minicommerce.backend.repository.OrderRepository;
+import com.minicommerce.backend.repository.journal.DurabilityMode;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Order save throughput: in-memory map versus the journal in each durability mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderRepositoryBenchmark {
+
+  @Param({"memory", "journal-none", "journal-interval", "journal-sync"})
+  public String store;
+
+  private OrderRepository repository;
+  private Path directory;
+  private Order template;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    var price = Money.of("115.00");
+    template = new Order(0L, 1L, 2, price, price.times(2), Instant.now());
+    if (store.equals("memory")) {
+      repository = new InMemoryOrderRepository();
+      return;
+    }
+    directory = Files.createTempDirectory("order-journal-bench");
+    var durability = DurabilityMode.valueOf(store.substring("journal-".length()).toUpperCase());
+    repository = new JournaledOrderRepository(
+        new InMemoryProductRepository(), new MetricsRegistry(), directory.toString(), 64, durability, 50, 0, 1);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    if (repository instanceof JournaledOrderRepository journaled) {
+      journaled.close();
+      try (Stream<Path> files = Files.walk(directory)) {
+        for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+      }
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Order save1Thread() {
+    return repository.save(template);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Order save8Threads() {
+    return repository.save(template);
+  }
+}
@@ -0,0 +1,126 @@
+package com.minicommerce.backend.bench;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.InMemoryOrderRepository;
+import com.minicommerce.backend.repository.OffHeapOrderRepository;
+import com.minicommerce.backend.repository.OrderQuery;
+import com.minicommerce.backend.repository.OrderRepository;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Heap footprint and GC pauses of an order store holding many orders. Not a JMH benchmark: it fills
+ * one store, reports live heap and direct memory per order, then serves random reads for a while
+ * and reports the pauses seen with that live set. Run in its own JVM per store and size:
+ *
+ * <pre>
+ * MAVEN_OPTS="-Xmx3g -XX:MaxDirectMemorySize=2500m" mvn -Pbench test-compile exec:java \
+ *     -Dexec.classpathScope=test -Dexec.mainClass=com.minicommerce.backend.bench.OrderStoreFootprint \
+ *     -Dexec.args="offheap 10000000 20"
+ * </pre>
+ *
+ * Arguments: store ({@code memory} or {@code offheap}), order count, seconds of reads (default 20).
+ */
+public final class OrderStoreFootprint {
+  private static final AtomicLong pauses = new AtomicLong();
+  private static final AtomicLong pauseMillis = new AtomicLong();
+  private static final AtomicLong maxPauseMillis = new AtomicLong();
+
+  private OrderStoreFootprint() {}
+
+  public static void main(String[] args) throws Exception {
+    String store = args[0];
+    long count = Long.parseLong(args[1]);
+    int readSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+    listenForPauses();
+
+    long baseline = liveHeap();
+    resetPauses();
+    OrderRepository repository = switch (store) {
+      case "memory" -> new InMemoryOrderRepository();
+      case "offheap" -> new OffHeapOrderRepository(new MetricsRegistry(), 1 << 20);
+      default -> throw new IllegalArgumentException("Unknown store: " + store);
+    };
+
+    // Priced the way the service does: quantity 1 shares the product's Money, others get a new total
+    Money price = Money.of("29.00");
+    long started = System.nanoTime();
+    for (long i = 0; i < count; i++) {
+      int quantity = 1 + (int) (i % 3);
+      repository.save(new Order(0L, 1 + i % 1000, quantity, price, price.times(quantity), Instant.now()));
+    }
+    double fillSeconds = (System.nanoTime() - started) / 1e9;
+    report(store, count, "fill", fillSeconds);
+
+    long heap = liveHeap() - baseline;
+    long direct = directMemory();
+    System.out.printf(Locale.ROOT, "%s %,d orders: live heap %,d MB (%.1f B/order), direct %,d MB (%.1f B/order)%n",
+        store, count, heap >> 20, (double) heap / count, direct >> 20, (double) direct / count);
+
+    resetPauses();
+    long reads = 0;
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(readSeconds);
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    while (System.nanoTime() < deadline) {
+      for (int i = 0; i < 1000; i++) {
+        if (repository.findById(1 + random.nextLong(count)).isEmpty()) throw new IllegalStateException();
+      }
+      repository.findPage(new OrderQuery(1 + random.nextLong(1000), null, null, random.nextLong(count), 50));
+      reads += 1001;
+    }
+    report(store, count, "reads (" + reads / readSeconds + "/s)", readSeconds);
+  }
+
+  private static void listenForPauses() {
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      ((NotificationEmitter) gc).addNotificationListener((notification, handback) -> {
+        if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+        var info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        // Notifications arrive asynchronously; leave out the collections forced to measure the heap
+        if (info.getGcCause().equals("System.gc()")) return;
+        // With G1 every collector bean, including "G1 Concurrent GC" (remark, cleanup), reports pauses
+        long millis = info.getGcInfo().getDuration();
+        pauses.incrementAndGet();
+        pauseMillis.addAndGet(millis);
+        maxPauseMillis.accumulateAndGet(millis, Math::max);
+      }, null, null);
+    }
+  }
+
+  private static void resetPauses() {
+    pauses.set(0);
+    pauseMillis.set(0);
+    maxPauseMillis.set(0);
+  }
+
+  private static void report(String store, long count, String phase, double seconds) {
+    System.out.printf(Locale.ROOT, "%s %,d orders, %s in %.1f s: %d GC pauses, %d ms total, %d ms max%n",
+        store, count, phase, seconds, pauses.get(), pauseMillis.get(), maxPauseMillis.get());
+  }
+
+  private static long liveHeap() throws InterruptedException {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      Thread.sleep(100);
+    }
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+  private static long directMemory() {
+    return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+        .filter(pool -> pool.getName().equals("direct"))
+        .mapToLong(BufferPoolMXBean::getMemoryUsed)
+        .sum();
+  }
+}
@@ -0,0 +1,74 @@
+package com.minicommerce.backend.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Pricing one order line and writing its total as JSON: {@link Money} versus the previous
+ * {@link BigDecimal} fields, kept here as {@link LegacyOrder}. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm} (bytes per order).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingBenchmark {
+
+  /**
+   * 1 is the common single-unit order; BigDecimal.valueOf caches 0..10, so 12 shows the uncached case.
+   */
+  @Param({"1", "12"})
+  public int quantity;
+
+  private record LegacyOrder(long id, long productId, int quantity, BigDecimal unitPrice, BigDecimal totalPrice, Instant createdAt) {}
+
+  private Money price;
+  private BigDecimal legacyPrice;
+  private Instant now;
+  private ObjectMapper objectMapper;
+
+  @Setup
+  public void setUp() {
+    price = Money.of("29.00");
+    legacyPrice = new BigDecimal("29.00");
+    now = Instant.now();
+    objectMapper = new ObjectMapper();
+  }
+
+  @Benchmark
+  public Order priceMoney() {
+    return new Order(0L, 4L, quantity, price, price.times(quantity), now);
+  }
+
+  @Benchmark
+  public LegacyOrder priceBigDecimal() {
+    return new LegacyOrder(0L, 4L, quantity, legacyPrice, legacyPrice.multiply(BigDecimal.valueOf(quantity)), now);
+  }
+
+  @Benchmark
+  public String serializeMoney() throws Exception {
+    return objectMapper.writeValueAsString(price.times(quantity));
+  }
+
+  @Benchmark
+  public String serializeBigDecimal() throws Exception {
+    return objectMapper.writeValueAsString(legacyPrice.multiply(BigDecimal.valueOf(quantity)));
+  }
+}
@@ -0,0 +1,67 @@
+package com.minicommerce.backend.bench;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.repository.InMemoryProductRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link InMemoryProductRepository#findAll()}, which a catalog rebuild calls. The repository now
+ * returns its immutable snapshot as is; it used to copy, sort and freeze the whole catalog.
+ *
+ * <p>The repository only holds its seeded products, so {@code findAllSeeded} ignores
+ * {@code products}; {@code copySortFreeze} is the earlier copy, sort and freeze over an unordered
+ * map of that size, to show how that cost grew with the catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductRepositoryBenchmark {
+
+  @Param({"5", "1000", "100000"})
+  public int products;
+
+  private InMemoryProductRepository repository;
+  private Map<Long, Product> catalog;
+
+  @Setup
+  public void setUp() {
+    repository = new InMemoryProductRepository();
+    catalog = new ConcurrentHashMap<>();
+    var price = Money.of("19.99");
+    for (long id = 1; id <= products; id++) {
+      catalog.put(id, new Product(id, "Product " + id, price, 100));
+    }
+  }
+
+  @Benchmark
+  public List<Product> findAllSeeded() {
+    return repository.findAll();
+  }
+
+  @Benchmark
+  public List<Product> copySortFreeze() {
+    var list = new ArrayList<>(catalog.values());
+    list.sort(Comparator.comparingLong(Product::getId));
+    return List.copyOf(list);
+  }
+}
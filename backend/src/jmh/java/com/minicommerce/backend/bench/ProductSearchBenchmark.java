@@ -0,0 +1,129 @@
+package com.minicommerce.backend.bench;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.ProductRepository;
+import com.minicommerce.backend.service.CatalogReadModel;
+import com.minicommerce.backend.service.CatalogReadModel.ProductView;
+import com.minicommerce.backend.service.ProductQuery;
+import com.minicommerce.backend.service.ProductQuery.Sort;
+import com.minicommerce.backend.service.ProductSearchPage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link CatalogReadModel#search} on generated catalogs of {@code products} SKUs, one page of 20.
+ * Names are a brand, an adjective, a product word and a size; prices run from 1.00 to 200.00 and a
+ * fifth of the products are out of stock. {@code scanBaseline} answers the {@code priceRange} query
+ * by filtering and sorting the full product list, as a caller without the index would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ProductSearchBenchmark {
+  static final String[] BRANDS = {"Lumiere", "Aster", "Velvet", "Nordic", "Solene", "Kaori", "Mira", "Orchid"};
+  static final String[] ADJECTIVES = {"Renewal", "Hydrating", "Firming", "Gentle", "Radiant", "Matte", "Longwear", "Night"};
+  static final String[] WORDS = {"Serum", "Moisturizer", "Cleanser", "Lipstick", "Foundation", "Toner", "Mask", "Oil",
+      "Balm", "Mist", "Primer", "Concealer"};
+  static final String[] SIZES = {"15ml", "30ml", "50ml", "100ml"};
+
+  @Param({"1000", "10000", "100000", "1000000"})
+  public int products;
+
+  private CatalogReadModel model;
+  private ProductQuery prefix;
+  private ProductQuery twoWordsByPrice;
+  private ProductQuery priceRange;
+  private ProductQuery deepPage;
+
+  @Setup
+  public void setUp() {
+    model = new CatalogReadModel(catalog(products), new MetricsRegistry());
+    model.version();
+    prefix = new ProductQuery("ser", null, null, false, Sort.ID, null, 20);
+    twoWordsByPrice = new ProductQuery("night ser", null, null, true, Sort.PRICE_ASC, null, 20);
+    priceRange = new ProductQuery(null, Money.of("40.00"), Money.of("60.00"), true, Sort.PRICE_ASC, null, 20);
+    // Resumes from the middle of the catalog, so no benchmark only ever reads the first slots
+    deepPage = new ProductQuery("ser", null, null, true, Sort.ID, Long.toString(products / 2), 20);
+  }
+
+  private static ProductRepository catalog(int size) {
+    var random = new SplittableRandom(42);
+    List<Product> list = new ArrayList<>(size);
+    for (long id = 1; id <= size; id++) {
+      String name = String.format(Locale.ROOT, "%s %s %s (%s)", BRANDS[random.nextInt(BRANDS.length)],
+          ADJECTIVES[random.nextInt(ADJECTIVES.length)], WORDS[random.nextInt(WORDS.length)],
+          SIZES[random.nextInt(SIZES.length)]);
+      int stock = random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(100);
+      list.add(new Product(id, name, Money.ofMinor(100 + random.nextInt(19_901), Money.DEFAULT_CURRENCY), stock));
+    }
+    List<Product> frozen = List.copyOf(list);
+    return new ProductRepository() {
+      @Override
+      public List<Product> findAll() {
+        return frozen;
+      }
+
+      @Override
+      public Optional<Product> findById(long id) {
+        return id >= 1 && id <= frozen.size() ? Optional.of(frozen.get((int) id - 1)) : Optional.empty();
+      }
+
+      @Override
+      public void replaceAll(List<Product> replacement) {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  @Benchmark
+  public ProductSearchPage prefix() {
+    return model.search(prefix);
+  }
+
+  @Benchmark
+  public ProductSearchPage twoWordsByPrice() {
+    return model.search(twoWordsByPrice);
+  }
+
+  @Benchmark
+  public ProductSearchPage priceRange() {
+    return model.search(priceRange);
+  }
+
+  @Benchmark
+  public ProductSearchPage deepPage() {
+    return model.search(deepPage);
+  }
+
+  @Benchmark
+  public List<ProductView> scanBaseline() {
+    long min = priceRange.minPrice().minorUnits();
+    long max = priceRange.maxPrice().minorUnits();
+    return model.list().stream()
+        .filter(v -> v.stock() > 0 && v.price().minorUnits() >= min && v.price().minorUnits() <= max)
+        .sorted(Comparator.comparing(ProductView::price).thenComparingLong(ProductView::id))
+        .limit(20)
+        .toList();
+  }
+}
@@ -0,0 +1,74 @@
+package com.minicommerce.backend.bench;
+
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.web.interceptor.RateLimitInterceptor;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Full {@link RateLimitInterceptor#preHandle} per request: path exclusions, client IP from
+ * {@code X-Forwarded-For}, route cost lookup and the limiter decision. The limit is high enough that
+ * every request is admitted; {@link RateLimiterBenchmark} covers the limiter alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitInterceptorBenchmark {
+
+  private RateLimitInterceptor interceptor;
+
+  @State(Scope.Thread)
+  public static class Client {
+    private static final AtomicInteger NEXT = new AtomicInteger();
+    MockHttpServletRequest request;
+    MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+      request = new MockHttpServletRequest("POST", "/orders");
+      request.addHeader("X-Forwarded-For", "10.0." + NEXT.getAndIncrement() + ".1, 172.16.0.1");
+      response = new MockHttpServletResponse();
+    }
+  }
+
+  @Setup
+  public void setUp() throws Exception {
+    interceptor = new RateLimitInterceptor(new MetricsRegistry());
+    interceptor.setRequestsPerMinute(600_000_000);
+    interceptor.setBurstSize(1_000);
+    interceptor.setRouteCosts(Map.of("POST /orders/batch", 5));
+    // Same call Spring makes after binding app.rate-limit.*
+    var init = RateLimitInterceptor.class.getDeclaredMethod("init");
+    init.setAccessible(true);
+    init.invoke(interceptor);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public boolean preHandle1Thread(Client client) throws Exception {
+    return interceptor.preHandle(client.request, client.response, null);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public boolean preHandle8Threads(Client client) throws Exception {
+    return interceptor.preHandle(client.request, client.response, null);
+  }
+}
@@ -0,0 +1,69 @@
+package com.minicommerce.backend.bench;
+
+import com.minicommerce.backend.support.RateLimiter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rate limiter decisions per second: every thread on one client key (one contended word) versus
+ * one key per thread. {@code rpm} selects a mostly-admitting or mostly-rejecting limit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+  @Param({"60", "600000000"})
+  public int rpm;
+
+  private RateLimiter limiter;
+
+  @State(Scope.Thread)
+  public static class ClientKey {
+    private static final AtomicInteger NEXT = new AtomicInteger();
+    String key;
+
+    @Setup
+    public void setUp() {
+      key = "10.0." + NEXT.getAndIncrement() + ".1";
+    }
+  }
+
+  @Setup
+  public void setUp() {
+    limiter = new RateLimiter(rpm, 1_000, 100_000);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public long sharedKey1Thread() {
+    return limiter.tryAcquire("10.0.0.1", 1);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public long sharedKey64Threads() {
+    return limiter.tryAcquire("10.0.0.1", 1);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public long keyPerThread64Threads(ClientKey client) {
+    return limiter.tryAcquire(client.key, 1);
+  }
+}
@@ -0,0 +1,105 @@
+package com.minicommerce.backend.bench;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.InMemoryIdempotencyStore;
+import com.minicommerce.backend.repository.InMemoryOrderRepository;
+import com.minicommerce.backend.repository.InMemoryProductRepository;
+import com.minicommerce.backend.service.CatalogReadModel;
+import com.minicommerce.backend.service.DirectOrderIntake;
+import com.minicommerce.backend.service.OrderService;
+import com.minicommerce.backend.service.SalesAnalytics;
+import com.minicommerce.backend.service.SalesAnalytics.ProductSales;
+import com.minicommerce.backend.service.SalesAnalytics.Rank;
+import com.minicommerce.backend.service.SalesAnalytics.Window;
+import com.minicommerce.backend.web.error.InsufficientStockException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The cost of {@link SalesAnalytics} on order creation: {@link OrderService#createOrderIdempotent}
+ * with the counters off and on, over one hot product or {@code products} products picked at
+ * random, with in-memory storage. {@code top5m} is the dashboard read over the same counters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SalesAnalyticsBenchmark {
+  private static final int RESTOCK = 1_000_000;
+
+  @Param({"false", "true"})
+  public boolean analytics;
+
+  @Param({"1", "1000"})
+  public int products;
+
+  private OrderService orderService;
+  private SalesAnalytics salesAnalytics;
+  private List<Product> catalog;
+  private final AtomicLong keys = new AtomicLong();
+
+  @Setup
+  public void setUp() {
+    var productRepository = new InMemoryProductRepository();
+    List<Product> list = new ArrayList<>(products);
+    for (long id = 1; id <= products; id++) {
+      list.add(new Product(id, "Product " + id, Money.of("12.50"), RESTOCK));
+    }
+    productRepository.replaceAll(list);
+    catalog = productRepository.findAll();
+    var metrics = new MetricsRegistry();
+    var orders = new InMemoryOrderRepository();
+    salesAnalytics = new SalesAnalytics(analytics, metrics);
+    orderService = new OrderService(productRepository, orders, new InMemoryIdempotencyStore(orders, metrics, 60, 100_000),
+        new CatalogReadModel(productRepository, metrics), new DirectOrderIntake(productRepository, orders),
+        salesAnalytics);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Order createOrder1Thread() {
+    return createOrder();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Order createOrder8Threads() {
+    return createOrder();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public List<ProductSales> top5m() {
+    return salesAnalytics.top(Window.FIVE_MINUTES, Rank.UNITS, 10);
+  }
+
+  private Order createOrder() {
+    long productId = products == 1 ? 1 : 1 + ThreadLocalRandom.current().nextInt(products);
+    try {
+      return orderService.createOrderIdempotent(Long.toString(keys.incrementAndGet()), productId, 1);
+    } catch (InsufficientStockException e) {
+      catalog.get((int) productId - 1).increaseStock(RESTOCK);
+      return null;
+    }
+  }
+}
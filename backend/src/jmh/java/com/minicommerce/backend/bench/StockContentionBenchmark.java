@@ -0,0 +1,76 @@
+package com.minicommerce.backend.bench;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Product;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Flash-sale contention on one product: the single CAS counter versus striped stock.
+ *
+ * <p>Stock is topped up whenever a reservation fails, so the measurement stays in the
+ * well-stocked regime both modes are built for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockContentionBenchmark {
+  private static final int RESTOCK = 1_000_000;
+
+  @Param({"cas", "striped"})
+  public String mode;
+
+  private Product product;
+
+  @Setup
+  public void setUp() {
+    product = new Product(1L, "Flash sale item", Money.of("9.99"), RESTOCK);
+    if (mode.equals("striped")) {
+      product.enableStriping(Runtime.getRuntime().availableProcessors(), 16);
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public boolean reserve1() {
+    return reserve();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean reserve4() {
+    return reserve();
+  }
+
+  @Benchmark
+  @Threads(16)
+  public boolean reserve16() {
+    return reserve();
+  }
+
+  @Benchmark
+  @Threads(64)
+  public boolean reserve64() {
+    return reserve();
+  }
+
+  private boolean reserve() {
+    if (product.tryDecreaseStock(1)) return true;
+    product.increaseStock(RESTOCK);
+    return false;
+  }
+}
@@ -0,0 +1,103 @@
+package com.minicommerce.backend.bench;
+
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.InMemoryProductRepository;
+import com.minicommerce.backend.repository.JournaledOrderRepository;
+import com.minicommerce.backend.repository.journal.DurabilityMode;
+import com.minicommerce.backend.service.DirectOrderIntake;
+import com.minicommerce.backend.service.OrderIntake;
+import com.minicommerce.backend.web.error.InsufficientStockException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A wave of {@code concurrency} simultaneous order requests, each waiting for its journal fsync,
+ * run on Tomcat's default pool size (200 platform threads) versus one virtual thread per request.
+ *
+ * <p>Concurrent saves share one fsync, so the more requests wait at once, the fewer fsyncs a wave
+ * needs. A platform pool caps the waiters at its size; virtual threads do not. Divide
+ * {@code concurrency} by the score for orders per millisecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadModelBenchmark {
+  private static final int RESTOCK = 1_000_000;
+  private static final int TOMCAT_MAX_THREADS = 200;
+
+  @Param({"platform", "virtual"})
+  public String threads;
+
+  @Param({"200", "2000"})
+  public int concurrency;
+
+  private ExecutorService executor;
+  private OrderIntake orderIntake;
+  private JournaledOrderRepository repository;
+  private Product product;
+  private Path directory;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    var products = new InMemoryProductRepository();
+    product = products.findById(1L).orElseThrow();
+    product.increaseStock(RESTOCK);
+    directory = Files.createTempDirectory("thread-model-bench");
+    repository = new JournaledOrderRepository(
+        products, new MetricsRegistry(), directory.toString(), 64, DurabilityMode.SYNC, 50, 0, 1);
+    orderIntake = new DirectOrderIntake(products, repository);
+    executor = threads.equals("virtual")
+        ? Executors.newVirtualThreadPerTaskExecutor()
+        : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    executor.shutdownNow();
+    repository.close();
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+    }
+  }
+
+  @Benchmark
+  public void wave() throws InterruptedException {
+    var done = new CountDownLatch(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      executor.execute(() -> {
+        try {
+          orderIntake.place(1L, 1);
+        } catch (InsufficientStockException e) {
+          product.increaseStock(RESTOCK);
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+    done.await();
+  }
+}
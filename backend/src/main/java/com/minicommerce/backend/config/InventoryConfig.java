@@ -0,0 +1,70 @@
+package com.minicommerce.backend.config;
+
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns on striped stock counters for the products listed in
+ * {@code app.inventory.striping.product-ids}, at startup and on every catalog import.
+ */
+@Slf4j
+@Configuration
+@ConfigurationProperties(prefix = "app.inventory.striping")
+public class InventoryConfig {
+
+  private final ProductRepository productRepository;
+
+  private List<Long> productIds = List.of();
+
+  /**
+   * 0 means one stripe per available processor.
+   */
+  private int stripes = 0;
+
+  private int chunk = 16;
+
+  public InventoryConfig(ProductRepository productRepository) {
+    this.productRepository = productRepository;
+  }
+
+  public void setProductIds(List<Long> productIds) {
+    this.productIds = productIds;
+  }
+
+  public void setStripes(int stripes) {
+    this.stripes = stripes;
+  }
+
+  public void setChunk(int chunk) {
+    this.chunk = chunk;
+  }
+
+  @PostConstruct
+  void enableStriping() {
+    enableStriping(productRepository.findAll());
+  }
+
+  /**
+   * Stripes the configured products among {@code products}. A catalog import calls this on the
+   * new products before swapping them in, since striping belongs to the product instances.
+   */
+  public void enableStriping(List<Product> products) {
+    if (productIds.isEmpty()) return;
+    int n = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+    Set<Long> unknown = new LinkedHashSet<>(productIds);
+    for (Product product : products) {
+      if (unknown.remove(product.getId())) product.enableStriping(n, chunk);
+    }
+    if (!unknown.isEmpty()) {
+      log.warn("Cannot stripe stock of unknown products {}", unknown);
+    }
+    log.info("Striped stock enabled for products {} ({} stripes, chunk {})", productIds, n, chunk);
+  }
+}
@@ -1,7 +1,9 @@
 package com.minicommerce.backend.config;
 
 import com.minicommerce.backend.web.interceptor.ApiLoggingInterceptor;
+import com.minicommerce.backend.web.interceptor.OrderAdmissionInterceptor;
 import com.minicommerce.backend.web.interceptor.RateLimitInterceptor;
+import com.minicommerce.backend.web.interceptor.StageTimingInterceptor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -11,19 +13,26 @@ public class WebMvcConfig implements WebMvcConfigurer {
 
   private final ApiLoggingInterceptor apiLoggingInterceptor;
   private final RateLimitInterceptor rateLimitInterceptor;
+  private final OrderAdmissionInterceptor orderAdmissionInterceptor;
+  private final StageTimingInterceptor stageTimingInterceptor;
 
   public WebMvcConfig(
       ApiLoggingInterceptor apiLoggingInterceptor,
-      RateLimitInterceptor rateLimitInterceptor
+      RateLimitInterceptor rateLimitInterceptor,
+      OrderAdmissionInterceptor orderAdmissionInterceptor,
+      StageTimingInterceptor stageTimingInterceptor
   ) {
     this.apiLoggingInterceptor = apiLoggingInterceptor;
     this.rateLimitInterceptor = rateLimitInterceptor;
+    this.orderAdmissionInterceptor = orderAdmissionInterceptor;
+    this.stageTimingInterceptor = stageTimingInterceptor;
   }
 
   @Override
   public void addInterceptors(InterceptorRegistry registry) {
-    // Rate limiting should be checked first
-    registry.addInterceptor(rateLimitInterceptor)
+    // API logging and latency histograms first: Spring only calls afterCompletion on interceptors
+    // whose preHandle ran, so anything ordered later would miss the 429s and 503s below
+    registry.addInterceptor(apiLoggingInterceptor)
         .addPathPatterns("/**")
         .excludePathPatterns(
             "/swagger-ui/**",
@@ -32,10 +41,10 @@ public class WebMvcConfig implements WebMvcConfigurer {
             "/error",
             "/favicon.ico"
         )
-        .order(0); // Higher priority
+        .order(0);
 
-    // API logging interceptor
-    registry.addInterceptor(apiLoggingInterceptor)
+    // Rate limiting before any work is admitted
+    registry.addInterceptor(rateLimitInterceptor)
         .addPathPatterns("/**")
         .excludePathPatterns(
             "/swagger-ui/**",
@@ -44,7 +53,18 @@ public class WebMvcConfig implements WebMvcConfigurer {
             "/error",
             "/favicon.ico"
         )
-        .order(1); // Lower priority
+        .order(1);
+
+    // Admission control for order writes, after rate limiting so abusive clients never queue
+    registry.addInterceptor(orderAdmissionInterceptor)
+        .addPathPatterns("/orders", "/orders/batch")
+        .order(2);
+
+    // Per-stage timing of order requests (no-op unless app.stage-timing.enabled)
+    registry.addInterceptor(stageTimingInterceptor)
+        .addPathPatterns("/orders/**")
+        .excludePathPatterns("/orders/export")
+        .order(3);
   }
 }
 
@@ -0,0 +1,195 @@
+package com.minicommerce.backend.domain;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An amount of money as a {@code long} count of the currency's minor units (cents for USD).
+ *
+ * <p>Arithmetic is exact and throws {@link ArithmeticException} on overflow instead of wrapping.
+ * In JSON a Money is the same plain decimal number a {@link BigDecimal} of the currency's scale
+ * would produce, e.g. {@code 115.00}.
+ */
+@JsonSerialize(using = Money.JsonSerializer.class)
+@Schema(type = "number", example = "29.00")
+public final class Money implements Comparable<Money> {
+  /**
+   * Currency of the catalog, used for amounts that arrive without one, such as price filters.
+   */
+  public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+
+  /**
+   * 19 digits, a leading zero, the point and the sign.
+   */
+  private static final int MAX_CHARS = 22;
+
+  private final long minorUnits;
+  private final Currency currency;
+
+  private Money(long minorUnits, Currency currency) {
+    this.minorUnits = minorUnits;
+    this.currency = Objects.requireNonNull(currency, "currency must not be null");
+  }
+
+  public static Money ofMinor(long minorUnits, Currency currency) {
+    return new Money(minorUnits, currency);
+  }
+
+  /**
+   * @throws IllegalArgumentException if {@code amount} has more decimals than the currency allows
+   *     or does not fit in a long of minor units
+   */
+  public static Money of(BigDecimal amount, Currency currency) {
+    try {
+      long minor = amount.setScale(scaleOf(currency), RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+      return new Money(minor, currency);
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("Amount " + amount.toPlainString() + " is not representable in " + currency, e);
+    }
+  }
+
+  /**
+   * Parses a decimal amount in {@link #DEFAULT_CURRENCY}, e.g. {@code "115.00"}.
+   */
+  public static Money of(String amount) {
+    return of(new BigDecimal(amount), DEFAULT_CURRENCY);
+  }
+
+  /**
+   * Converts an unscaled value and scale, as the order journal stores prices. The stored scale is
+   * the currency's when written; a different one is rescaled exactly or rejected like {@link #of}.
+   */
+  public static Money ofUnscaled(long unscaled, int scale, Currency currency) {
+    return scale == scaleOf(currency)
+        ? new Money(unscaled, currency)
+        : of(BigDecimal.valueOf(unscaled, scale), currency);
+  }
+
+  public static Money zero(Currency currency) {
+    return new Money(0, currency);
+  }
+
+  public long minorUnits() {
+    return minorUnits;
+  }
+
+  public Currency currency() {
+    return currency;
+  }
+
+  /**
+   * Decimal places of the currency, e.g. 2 for USD and 0 for JPY.
+   */
+  public int scale() {
+    return scaleOf(currency);
+  }
+
+  public int signum() {
+    return Long.signum(minorUnits);
+  }
+
+  /**
+   * @throws ArithmeticException on overflow
+   */
+  public Money times(int quantity) {
+    if (quantity == 1) return this;
+    return new Money(Math.multiplyExact(minorUnits, quantity), currency);
+  }
+
+  /**
+   * @throws ArithmeticException on overflow
+   * @throws IllegalArgumentException if the currencies differ
+   */
+  public Money plus(Money other) {
+    requireSameCurrency(other);
+    return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+  }
+
+  public BigDecimal toBigDecimal() {
+    return BigDecimal.valueOf(minorUnits, scale());
+  }
+
+  @Override
+  public int compareTo(Money other) {
+    requireSameCurrency(other);
+    return Long.compare(minorUnits, other.minorUnits);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof Money m && m.minorUnits == minorUnits && m.currency.equals(currency);
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(minorUnits) * 31 + currency.hashCode();
+  }
+
+  /**
+   * The plain decimal amount, without the currency, e.g. {@code 115.00}.
+   */
+  @Override
+  public String toString() {
+    char[] buf = new char[MAX_CHARS];
+    int start = format(buf);
+    return new String(buf, start, buf.length - start);
+  }
+
+  /**
+   * Writes the plain decimal amount right-aligned into {@code buf}.
+   *
+   * @return the index of the first character
+   */
+  private int format(char[] buf) {
+    // Work on the negative value so Long.MIN_VALUE needs no special case
+    long v = minorUnits < 0 ? minorUnits : -minorUnits;
+    int pos = buf.length;
+    int scale = scale();
+    for (int i = 0; i < scale; i++) {
+      buf[--pos] = (char) ('0' - v % 10);
+      v /= 10;
+    }
+    if (scale > 0) buf[--pos] = '.';
+    do {
+      buf[--pos] = (char) ('0' - v % 10);
+      v /= 10;
+    } while (v != 0);
+    if (minorUnits < 0) buf[--pos] = '-';
+    return pos;
+  }
+
+  private void requireSameCurrency(Money other) {
+    if (!currency.equals(other.currency)) {
+      throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+    }
+  }
+
+  private static int scaleOf(Currency currency) {
+    // Pseudo-currencies such as XXX report -1
+    return Math.max(0, currency.getDefaultFractionDigits());
+  }
+
+  /**
+   * Writes the amount as a JSON number straight from the minor units, without a BigDecimal.
+   */
+  static final class JsonSerializer extends StdSerializer<Money> {
+    JsonSerializer() {
+      super(Money.class);
+    }
+
+    @Override
+    public void serialize(Money value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      char[] buf = new char[MAX_CHARS];
+      int start = value.format(buf);
+      gen.writeNumber(buf, start, buf.length - start);
+    }
+  }
+}
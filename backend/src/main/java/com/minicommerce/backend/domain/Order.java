@@ -1,6 +1,5 @@
 package com.minicommerce.backend.domain;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -11,8 +10,8 @@ public class Order {
   private long id;
   private long productId;
   private int quantity;
-  private BigDecimal unitPrice;
-  private BigDecimal totalPrice;
+  private Money unitPrice;
+  private Money totalPrice;
   private Instant createdAt;
 }
 
@@ -0,0 +1,6 @@
+package com.minicommerce.backend.domain;
+
+/**
+ * A single cart line: how many units of which product to order.
+ */
+public record OrderLine(long productId, int quantity) {}
@@ -1,15 +1,15 @@
 package com.minicommerce.backend.domain;
 
-import java.math.BigDecimal;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public final class Product {
   private final long id;
   private final String name;
-  private final BigDecimal price;
+  private final Money price;
   private final AtomicInteger stock;
+  private volatile StripedStock striped;
 
-  public Product(long id, String name, BigDecimal price, int stock) {
+  public Product(long id, String name, Money price, int stock) {
     if (name == null || name.isBlank()) throw new IllegalArgumentException("name must not be blank");
     if (price == null || price.signum() < 0) throw new IllegalArgumentException("price must be >= 0");
     if (stock < 0) throw new IllegalArgumentException("stock must be >= 0");
@@ -27,12 +27,27 @@ public final class Product {
     return name;
   }
 
-  public BigDecimal getPrice() {
+  public Money getPrice() {
     return price;
   }
 
   public int getStock() {
-    return stock.get();
+    StripedStock s = striped;
+    return s == null ? stock.get() : s.total();
+  }
+
+  /**
+   * Spreads this product's stock over {@code stripes} counters for flash sales; see
+   * {@link StripedStock}. Safe to call while orders are being placed.
+   */
+  public synchronized void enableStriping(int stripes, int chunk) {
+    if (striped == null) {
+      striped = new StripedStock(stock, stripes, chunk);
+    }
+  }
+
+  public boolean isStriped() {
+    return striped != null;
   }
 
   /**
@@ -42,12 +57,24 @@ public final class Product {
    */
   public boolean tryDecreaseStock(int quantity) {
     if (quantity <= 0) return false;
+    StripedStock s = striped;
+    if (s != null) return s.tryDecrease(quantity);
     while (true) {
       int current = stock.get();
       if (current < quantity) return false;
       if (stock.compareAndSet(current, current - quantity)) return true;
     }
   }
+
+  /**
+   * Returns previously reserved units to stock, e.g. when a multi-line checkout is rolled back.
+   */
+  public void increaseStock(int quantity) {
+    if (quantity <= 0) throw new IllegalArgumentException("quantity must be > 0");
+    stock.addAndGet(quantity);
+    StripedStock s = striped;
+    if (s != null) s.onRestock();
+  }
 }
 
 
@@ -0,0 +1,159 @@
+package com.minicommerce.backend.domain;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stock split into per-thread stripes so concurrent buyers of one product CAS on different cache
+ * lines.
+ *
+ * <p>Every unit is in exactly one place: the product's central counter or one stripe. Stripes
+ * are refilled from the central counter in chunks, but only while it stays at or above the
+ * low-stock threshold ({@code stripes * chunk}), so at most that many units sit in stripes. A buyer
+ * whose stripe is short takes from the central counter, then steals from other stripes. When that
+ * still fails, all stripes are drained back and the product runs on the central counter alone
+ * until it is restocked.
+ *
+ * <p>Stock is never oversold, and a buyer is only told the product is short once no unit can be in
+ * a stripe or on its way to one. After the drain, buyers of a sold-out product fail on the central
+ * counter alone, without taking the drain lock or scanning the stripes.
+ */
+final class StripedStock {
+  /**
+   * 16 ints = 64 bytes between stripes, so no two stripes share a cache line.
+   */
+  private static final int PAD = 16;
+
+  private final AtomicInteger central;
+  private final AtomicIntegerArray cells;
+  private final int mask;
+  private final int chunk;
+  private final int lowStockThreshold;
+  private final ReentrantLock drainLock = new ReentrantLock();
+  // Refills whose chunk has left the central counter and may not have reached its stripe yet
+  private final AtomicInteger refillsInTransit = new AtomicInteger();
+  private volatile boolean drained;
+  // Set by refills, cleared by the drain before it empties the stripes
+  private volatile boolean stripesMayHoldUnits;
+
+  /**
+   * @param stripes rounded up to a power of two
+   * @param chunk units moved from the central counter to a stripe per refill
+   */
+  StripedStock(AtomicInteger central, int stripes, int chunk) {
+    int n = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+    this.central = central;
+    // One extra slot of padding in front keeps stripe 0 off the array header's line
+    this.cells = new AtomicIntegerArray((n + 1) * PAD);
+    this.mask = n - 1;
+    this.chunk = Math.max(1, chunk);
+    this.lowStockThreshold = n * this.chunk;
+  }
+
+  int stripes() {
+    return mask + 1;
+  }
+
+  int total() {
+    int sum = central.get();
+    for (int i = 0; i <= mask; i++) {
+      sum += cells.get(slot(i));
+    }
+    return sum;
+  }
+
+  boolean tryDecrease(int quantity) {
+    if (!drained) {
+      int home = stripe();
+      if (takeFromCell(slot(home), quantity)) return true;
+      if (takeFromCentral(quantity, home)) return true;
+      for (int i = 1; i <= mask; i++) {
+        if (takeFromCell(slot((home + i) & mask), quantity)) return true;
+      }
+    } else if (takeFromCentral(quantity, -1)) {
+      return true;
+    }
+    while (true) {
+      // In-transit first: a refill marks the stripes before it stops counting as in transit
+      if (refillsInTransit.get() == 0 && !stripesMayHoldUnits) return false;
+      // Units may still sit in stripes: this is the first shortfall, or a refill landed after a drain
+      drain();
+      if (takeFromCentral(quantity, -1)) return true;
+      // A refill is between the central CAS and its stripe; it is a few instructions from done
+      if (refillsInTransit.get() > 0) Thread.onSpinWait();
+    }
+  }
+
+  /**
+   * Called after units were added to the central counter; striping resumes once stock is
+   * comfortably above the low-stock threshold again.
+   */
+  void onRestock() {
+    if (drained && central.get() >= 2 * lowStockThreshold) {
+      drained = false;
+    }
+  }
+
+  /**
+   * Takes {@code quantity} from the central counter; when {@code refill} names a stripe and the
+   * counter is well stocked, a chunk for that stripe is taken in the same CAS.
+   */
+  private boolean takeFromCentral(int quantity, int refill) {
+    while (true) {
+      int current = central.get();
+      if (current < quantity) return false;
+      if (refill < 0 || current - quantity < lowStockThreshold) {
+        if (central.compareAndSet(current, current - quantity)) return true;
+        continue;
+      }
+      refillsInTransit.incrementAndGet();
+      try {
+        if (central.compareAndSet(current, current - quantity - chunk)) {
+          cells.addAndGet(slot(refill), chunk);
+          if (!stripesMayHoldUnits) stripesMayHoldUnits = true;
+          return true;
+        }
+      } finally {
+        refillsInTransit.decrementAndGet();
+      }
+    }
+  }
+
+  private boolean takeFromCell(int slot, int quantity) {
+    while (true) {
+      int current = cells.get(slot);
+      if (current < quantity) return false;
+      if (cells.compareAndSet(slot, current, current - quantity)) return true;
+    }
+  }
+
+  /**
+   * Moves every stripe back to the central counter. Serialized so that buyers failing together
+   * wait for the drain in progress rather than each scanning the stripes; units still in transit
+   * from a refill are waited for by {@link #tryDecrease}.
+   */
+  private void drain() {
+    drainLock.lock();
+    try {
+      // Cleared before the scan: a refill landing after its stripe was scanned marks them again
+      stripesMayHoldUnits = false;
+      for (int i = 0; i <= mask; i++) {
+        int units = cells.getAndSet(slot(i), 0);
+        if (units > 0) central.addAndGet(units);
+      }
+      drained = true;
+    } finally {
+      drainLock.unlock();
+    }
+  }
+
+  private int stripe() {
+    long h = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+    return (int) (h >>> 32) & mask;
+  }
+
+  private static int slot(int stripe) {
+    return (stripe + 1) * PAD;
+  }
+}
@@ -0,0 +1,23 @@
+package com.minicommerce.backend.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.Map;
+
+/**
+ * Publishes a Caffeine cache's {@code recordStats()} counters and size under a {@code cache} label.
+ */
+public final class CacheMetrics {
+  private CacheMetrics() {}
+
+  public static void register(MetricsRegistry metrics, String cacheName, Cache<?, ?> cache) {
+    Map<String, String> labels = Map.of("cache", cacheName);
+    metrics.collector(sink -> {
+      CacheStats stats = cache.stats();
+      sink.accept("cache_hits_total", labels, stats.hitCount());
+      sink.accept("cache_misses_total", labels, stats.missCount());
+      sink.accept("cache_evictions_total", labels, stats.evictionCount());
+      sink.accept("cache_size", labels, cache.estimatedSize());
+    });
+  }
+}
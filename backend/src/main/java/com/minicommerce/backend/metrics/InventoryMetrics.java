@@ -0,0 +1,27 @@
+package com.minicommerce.backend.metrics;
+
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.repository.ProductRepository;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+
+/**
+ * Live stock per product as {@code product_stock{product_id="..."}}, for catalogs of up to
+ * {@value #MAX_PRODUCTS} products; an imported catalog of millions would otherwise add a series
+ * per product to every scrape.
+ */
+@Component
+public class InventoryMetrics {
+  static final int MAX_PRODUCTS = 1000;
+
+  public InventoryMetrics(ProductRepository productRepository, MetricsRegistry metrics) {
+    metrics.collector(sink -> {
+      List<Product> products = productRepository.findAll();
+      if (products.size() > MAX_PRODUCTS) return;
+      for (Product product : products) {
+        sink.accept("product_stock", Map.of("product_id", String.valueOf(product.getId())), product.getStock());
+      }
+    });
+  }
+}
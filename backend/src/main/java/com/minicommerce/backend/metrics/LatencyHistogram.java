@@ -0,0 +1,75 @@
+package com.minicommerce.backend.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, lock-free log-linear histogram of nanosecond latencies.
+ *
+ * <p>Each power of two is split into {@code 2^SUB_BITS} linear buckets, so any recorded value is
+ * reported within about 6% (one sub-bucket) of its true value. Values from 1 ns to about 18
+ * minutes fit in 5 KB; larger values land in the last bucket. Recording is one atomic increment.
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BITS;
+  private static final int MAX_EXPONENT = 40;
+  private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder sum = new LongAdder();
+
+  public void record(long nanos) {
+    counts.incrementAndGet(bucket(Math.max(0, nanos)));
+    sum.add(Math.max(0, nanos));
+  }
+
+  public long count() {
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      total += counts.get(i);
+    }
+    return total;
+  }
+
+  public long sumNanos() {
+    return sum.sum();
+  }
+
+  /**
+   * Value at {@code quantile} (0..1), reported as the upper edge of its bucket; 0 when empty.
+   * Concurrent recording may be partly included.
+   */
+  public long valueAt(double quantile) {
+    long[] snapshot = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0) return 0;
+    long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) return upperBound(i);
+    }
+    return upperBound(BUCKETS - 1);
+  }
+
+  static int bucket(long value) {
+    if (value < SUB_BUCKETS) return (int) value;
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    if (exponent > MAX_EXPONENT) return BUCKETS - 1;
+    // The top SUB_BITS bits below the leading one pick the linear bucket inside [2^e, 2^(e+1))
+    int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+  }
+
+  static long upperBound(int bucket) {
+    if (bucket < SUB_BUCKETS) return bucket;
+    int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+    int sub = bucket % SUB_BUCKETS;
+    return ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+  }
+}
@@ -0,0 +1,201 @@
+package com.minicommerce.backend.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Minimal in-process metrics: named counters, gauges and latency histograms, read via
+ * {@code GET /metrics} (JSON) and {@code GET /metrics/prometheus}.
+ *
+ * <p>Names use Prometheus conventions ({@code snake_case}, unit suffix). A series is identified by
+ * its name plus optional labels, rendered as {@code name{key="value",...}} with keys sorted.
+ */
+@Component
+public class MetricsRegistry {
+  static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+  /**
+   * Produces a variable set of series at read time, e.g. one gauge per product. Series named
+   * {@code *_total} are published as counters, everything else as gauges.
+   */
+  @FunctionalInterface
+  public interface Collector {
+    void collect(Sink sink);
+  }
+
+  @FunctionalInterface
+  public interface Sink {
+    void accept(String name, Map<String, String> labels, Number value);
+  }
+
+  private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+  private final Map<String, Supplier<? extends Number>> gauges = new ConcurrentHashMap<>();
+  private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+  private final List<Collector> collectors = new CopyOnWriteArrayList<>();
+
+  public LongAdder counter(String name) {
+    return counters.computeIfAbsent(name, k -> new LongAdder());
+  }
+
+  public LongAdder counter(String name, Map<String, String> labels) {
+    return counter(seriesId(name, labels));
+  }
+
+  /**
+   * Registers (or replaces) a gauge; {@code value} is called on every read. A gauge named
+   * {@code *_total} is published as a counter.
+   */
+  public void gauge(String name, Supplier<? extends Number> value) {
+    gauges.put(name, value);
+  }
+
+  public void gauge(String name, Map<String, String> labels, Supplier<? extends Number> value) {
+    gauge(seriesId(name, labels), value);
+  }
+
+  /**
+   * Histogram of nanosecond latencies, published in seconds as quantiles plus
+   * {@code _sum}/{@code _count}.
+   */
+  public LatencyHistogram histogram(String name, Map<String, String> labels) {
+    String id = seriesId(name, labels);
+    LatencyHistogram histogram = histograms.get(id);
+    return histogram != null ? histogram : histograms.computeIfAbsent(id, k -> new LatencyHistogram());
+  }
+
+  public void collector(Collector collector) {
+    collectors.add(collector);
+  }
+
+  public Map<String, Number> snapshot() {
+    Map<String, Number> values = new TreeMap<>();
+    counters.forEach((name, counter) -> values.put(name, counter.sum()));
+    gauges.forEach((name, gauge) -> values.put(name, gauge.get()));
+    histograms.forEach((id, histogram) -> {
+      String name = nameOf(id);
+      Map<String, String> labels = labelsOf(id);
+      for (double q : QUANTILES) {
+        values.put(seriesId(name, withLabel(labels, "quantile", String.valueOf(q))),
+            toSeconds(histogram.valueAt(q)));
+      }
+      values.put(seriesId(name + "_sum", labels), toSeconds(histogram.sumNanos()));
+      values.put(seriesId(name + "_count", labels), histogram.count());
+    });
+    for (Collector collector : collectors) {
+      collector.collect((name, labels, value) -> values.put(seriesId(name, labels), value));
+    }
+    return values;
+  }
+
+  /**
+   * All series in the Prometheus text exposition format (version 0.0.4).
+   */
+  public String prometheus() {
+    Map<String, String> types = new TreeMap<>();
+    Map<String, StringBuilder> series = new TreeMap<>();
+    Sink collectorSink = (name, labels, value) -> line(types, series, name, typeOf(name), seriesId(name, labels), value);
+    counters.forEach((id, counter) -> line(types, series, nameOf(id), "counter", id, counter.sum()));
+    gauges.forEach((id, gauge) -> line(types, series, nameOf(id), typeOf(nameOf(id)), id, gauge.get()));
+    for (Collector collector : collectors) {
+      collector.collect(collectorSink);
+    }
+    histograms.forEach((id, histogram) -> {
+      String name = nameOf(id);
+      Map<String, String> labels = labelsOf(id);
+      for (double q : QUANTILES) {
+        line(types, series, name, "summary",
+            seriesId(name, withLabel(labels, "quantile", String.valueOf(q))), toSeconds(histogram.valueAt(q)));
+      }
+      line(types, series, name, "summary", seriesId(name + "_sum", labels), toSeconds(histogram.sumNanos()));
+      line(types, series, name, "summary", seriesId(name + "_count", labels), histogram.count());
+    });
+
+    StringBuilder out = new StringBuilder(4096);
+    series.forEach((name, lines) ->
+        out.append("# TYPE ").append(name).append(' ').append(types.get(name)).append('\n').append(lines));
+    return out.toString();
+  }
+
+  /**
+   * Gauges and collected series that only ever grow are named {@code *_total}; publish those as counters.
+   */
+  private static String typeOf(String name) {
+    return name.endsWith("_total") ? "counter" : "gauge";
+  }
+
+  private static void line(
+      Map<String, String> types,
+      Map<String, StringBuilder> series,
+      String name,
+      String type,
+      String id,
+      Number value
+  ) {
+    types.putIfAbsent(name, type);
+    series.computeIfAbsent(name, k -> new StringBuilder()).append(id).append(' ').append(value).append('\n');
+  }
+
+  static String seriesId(String name, Map<String, String> labels) {
+    if (labels == null || labels.isEmpty()) return name;
+    StringBuilder id = new StringBuilder(name).append('{');
+    new TreeMap<>(labels).forEach((key, value) -> {
+      if (id.charAt(id.length() - 1) != '{') id.append(',');
+      id.append(key).append("=\"").append(escape(value)).append('"');
+    });
+    return id.append('}').toString();
+  }
+
+  static String nameOf(String seriesId) {
+    int brace = seriesId.indexOf('{');
+    return brace < 0 ? seriesId : seriesId.substring(0, brace);
+  }
+
+  /**
+   * Inverse of {@link #seriesId} for ids built by it.
+   */
+  static Map<String, String> labelsOf(String seriesId) {
+    Map<String, String> labels = new TreeMap<>();
+    int i = seriesId.indexOf('{');
+    if (i < 0) return labels;
+    i++;
+    while (i < seriesId.length() - 1) {
+      int eq = seriesId.indexOf("=\"", i);
+      String key = seriesId.substring(i, eq);
+      StringBuilder value = new StringBuilder();
+      int j = eq + 2;
+      for (; seriesId.charAt(j) != '"'; j++) {
+        char c = seriesId.charAt(j);
+        if (c == '\\') {
+          c = seriesId.charAt(++j);
+          value.append(c == 'n' ? '\n' : c);
+        } else {
+          value.append(c);
+        }
+      }
+      labels.put(key, value.toString());
+      i = j + 2;
+    }
+    return labels;
+  }
+
+  private static Map<String, String> withLabel(Map<String, String> labels, String key, String value) {
+    Map<String, String> copy = new TreeMap<>(labels);
+    copy.put(key, value);
+    return copy;
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  static double toSeconds(long nanos) {
+    return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+  }
+}
@@ -0,0 +1,156 @@
+package com.minicommerce.backend.metrics;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Per-request stage timings, e.g. how much of {@code POST /orders} went to the idempotency
+ * lookup, the stock reservation and the save.
+ *
+ * <p>A request opts in with {@link #begin()}; code on the request thread brackets a stage with
+ * {@link #start()} / {@link #stop}. When timing is switched off, or the current thread has no
+ * open timeline, {@code start()} is a single volatile read and {@code stop} a comparison.
+ */
+public final class StageTimer {
+  private static final ThreadLocal<Timeline> CURRENT = new ThreadLocal<>();
+  private static volatile boolean enabled;
+
+  private StageTimer() {}
+
+  public static void setEnabled(boolean on) {
+    enabled = on;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static void begin() {
+    if (enabled) CURRENT.set(new Timeline(System.nanoTime()));
+  }
+
+  /**
+   * Closes the current thread's timeline.
+   *
+   * @return the timeline, or null if none was open
+   */
+  public static Timeline end() {
+    Timeline timeline = CURRENT.get();
+    if (timeline != null) CURRENT.remove();
+    return timeline;
+  }
+
+  public static Timeline current() {
+    return enabled ? CURRENT.get() : null;
+  }
+
+  /**
+   * @return a start token for {@link #stop}, 0 when nothing is being timed
+   */
+  public static long start() {
+    return enabled && CURRENT.get() != null ? System.nanoTime() : 0;
+  }
+
+  public static void stop(String stage, long start) {
+    if (start == 0) return;
+    Timeline timeline = CURRENT.get();
+    if (timeline != null) timeline.add(stage, System.nanoTime() - start);
+  }
+
+  /**
+   * Total of all stages recorded so far on this thread; pass to {@link #stopExclusive}.
+   */
+  public static long recorded() {
+    Timeline timeline = current();
+    return timeline == null ? 0 : timeline.recordedNanos;
+  }
+
+  /**
+   * Like {@link #stop}, minus the stages recorded since {@code recordedAtStart} was read, so a
+   * wrapper (e.g. the idempotency lookup around order creation) only reports its own time.
+   */
+  public static void stopExclusive(String stage, long start, long recordedAtStart) {
+    if (start == 0) return;
+    Timeline timeline = CURRENT.get();
+    if (timeline != null) {
+      long nested = timeline.recordedNanos - recordedAtStart;
+      timeline.add(stage, Math.max(0, System.nanoTime() - start - nested));
+    }
+  }
+
+  /**
+   * Records the time from {@link #begin()} to now as {@code stage}.
+   */
+  public static void sinceBegin(String stage) {
+    Timeline timeline = current();
+    if (timeline != null) timeline.add(stage, System.nanoTime() - timeline.beganAt);
+  }
+
+  /**
+   * Stages recorded for one request, in the order they finished. A stage recorded twice (e.g.
+   * per checkout line) is summed.
+   */
+  public static final class Timeline {
+    private final long beganAt;
+    private long bodyWriteAt;
+    private long recordedNanos;
+    private String[] stages = new String[8];
+    private long[] nanos = new long[8];
+    private int size;
+
+    Timeline(long beganAt) {
+      this.beganAt = beganAt;
+    }
+
+    public void add(String stage, long durationNanos) {
+      recordedNanos += durationNanos;
+      for (int i = 0; i < size; i++) {
+        if (stages[i].equals(stage)) {
+          nanos[i] += durationNanos;
+          return;
+        }
+      }
+      if (size == stages.length) {
+        stages = Arrays.copyOf(stages, size * 2);
+        nanos = Arrays.copyOf(nanos, size * 2);
+      }
+      stages[size] = stage;
+      nanos[size++] = durationNanos;
+    }
+
+    /**
+     * Marks the start of response serialization, which is recorded after the header is sent.
+     */
+    public void markBodyWrite() {
+      bodyWriteAt = System.nanoTime();
+    }
+
+    public long bodyWriteAt() {
+      return bodyWriteAt;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public String stage(int i) {
+      return stages[i];
+    }
+
+    public long nanos(int i) {
+      return nanos[i];
+    }
+
+    /**
+     * {@code Server-Timing} header value, durations in milliseconds.
+     */
+    public String serverTiming() {
+      StringBuilder header = new StringBuilder(size * 24);
+      for (int i = 0; i < size; i++) {
+        if (i > 0) header.append(", ");
+        header.append(stages[i]).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos[i] / 1_000_000.0));
+      }
+      return header.toString();
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.minicommerce.backend.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records how long the JVM took to become ready to serve traffic, including state recovery.
+ */
+@Slf4j
+@Component
+public class StartupMetrics {
+  private final AtomicLong timeToReadyMs = new AtomicLong(-1);
+
+  public StartupMetrics(MetricsRegistry metrics) {
+    metrics.gauge("app_time_to_ready_ms", timeToReadyMs::get);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onReady() {
+    long startedAt = ManagementFactory.getRuntimeMXBean().getStartTime();
+    timeToReadyMs.set(System.currentTimeMillis() - startedAt);
+    log.info("Application ready {} ms after JVM start", timeToReadyMs.get());
+  }
+}
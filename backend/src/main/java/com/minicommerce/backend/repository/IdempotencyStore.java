@@ -1,6 +1,8 @@
 package com.minicommerce.backend.repository;
 
 import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.domain.OrderLine;
+import java.util.List;
 import java.util.function.Supplier;
 
 /**
@@ -10,6 +12,10 @@ import java.util.function.Supplier;
  */
 public interface IdempotencyStore {
   Order getOrCreate(String key, long productId, int quantity, Supplier<Order> creator);
-}
-
 
+  /**
+   * Same as {@link #getOrCreate} for a multi-line checkout: all orders created for the cart are
+   * remembered under one key, and a retry must carry exactly the same lines.
+   */
+  List<Order> getOrCreateBatch(String key, List<OrderLine> lines, Supplier<List<Order>> creator);
+}
@@ -1,38 +1,163 @@
 package com.minicommerce.backend.repository;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.domain.OrderLine;
+import com.minicommerce.backend.metrics.CacheMetrics;
+import com.minicommerce.backend.metrics.MetricsRegistry;
 import com.minicommerce.backend.web.constants.ErrorMessages;
 import com.minicommerce.backend.web.error.IdempotencyKeyConflictException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+/**
+ * Bounded idempotency store: entries expire {@code ttl-seconds} after creation and the least
+ * valuable ones are evicted beyond {@code max-size}. A retry arriving after its entry is gone is
+ * treated as a new request.
+ *
+ * <p>Creation runs outside any map lock. The first request for a key publishes an in-flight future
+ * and runs the creator on its own thread; concurrent duplicates wait on that future, while other
+ * keys are never blocked. A failed creation is removed before its future completes, so it is not
+ * cached and the next retry starts afresh.
+ *
+ * <p>Entries are compact: a 128-bit hash of the key, the requested lines as primitives and the
+ * created order ids. The orders themselves are looked up in the {@link OrderRepository} on a hit.
+ */
 @Repository
 public class InMemoryIdempotencyStore implements IdempotencyStore {
 
-  private record Entry(long productId, int quantity, Order order) {}
+  /**
+   * Rough retained size of a single-line entry (cache node, key hash, entry and its two arrays),
+   * used for the footprint gauge.
+   */
+  static final int ESTIMATED_ENTRY_BYTES = 224;
 
-  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private record KeyHash(long high, long low) {}
+
+  /**
+   * {@code lines} holds productId/quantity pairs.
+   */
+  private record Entry(long[] lines, long[] orderIds) {}
+
+  private final OrderRepository orderRepository;
+  private final AsyncCache<KeyHash, Entry> entries;
+  private final LongAdder inFlightWaits;
+
+  public InMemoryIdempotencyStore(
+      OrderRepository orderRepository,
+      MetricsRegistry metrics,
+      @Value("${app.idempotency.ttl-seconds:86400}") long ttlSeconds,
+      @Value("${app.idempotency.max-size:1000000}") long maxSize
+  ) {
+    this.orderRepository = orderRepository;
+    this.entries = Caffeine.newBuilder()
+        .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+        .maximumSize(maxSize)
+        .recordStats()
+        .buildAsync();
+    this.inFlightWaits = metrics.counter("idempotency_inflight_waits_total");
+    Cache<KeyHash, Entry> view = entries.synchronous();
+    metrics.gauge("idempotency_entries", view::estimatedSize);
+    metrics.gauge("idempotency_evictions_total", () -> view.stats().evictionCount());
+    metrics.gauge("idempotency_estimated_bytes", () -> view.estimatedSize() * ESTIMATED_ENTRY_BYTES);
+    CacheMetrics.register(metrics, "idempotency", view);
+  }
 
   @Override
   public Order getOrCreate(String key, long productId, int quantity, Supplier<Order> creator) {
+    return getOrCreateBatch(key, List.of(new OrderLine(productId, quantity)), () -> List.of(creator.get()))
+        .get(0);
+  }
+
+  @Override
+  public List<Order> getOrCreateBatch(String key, List<OrderLine> lines, Supplier<List<Order>> creator) {
     Objects.requireNonNull(key, "key must not be null");
     if (key.isBlank()) throw new IllegalArgumentException(ErrorMessages.IDEMPOTENCY_KEY_BLANK);
 
-    Entry entry = entries.compute(key, (k, existing) -> {
-      if (existing != null) {
-        if (existing.productId() != productId || existing.quantity() != quantity) {
-          throw new IdempotencyKeyConflictException(
-              ErrorMessages.IDEMPOTENCY_KEY_REUSED_DIFFERENT_PAYLOAD);
-        }
-        return existing;
-      }
-      Order order = creator.get();
-      return new Entry(productId, quantity, order);
-    });
-    return entry.order();
+    long[] payload = encode(lines);
+    KeyHash hash = hash(key);
+    var mine = new CompletableFuture<Entry>();
+    CompletableFuture<Entry> existing = entries.asMap().putIfAbsent(hash, mine);
+    if (existing == null) {
+      return create(hash, mine, payload, creator);
+    }
+
+    if (!existing.isDone()) inFlightWaits.increment();
+    Entry entry = await(existing);
+    if (!Arrays.equals(entry.lines(), payload)) {
+      throw new IdempotencyKeyConflictException(ErrorMessages.IDEMPOTENCY_KEY_REUSED_DIFFERENT_PAYLOAD);
+    }
+    return resolve(entry);
   }
-}
 
+  private List<Order> create(
+      KeyHash hash,
+      CompletableFuture<Entry> mine,
+      long[] payload,
+      Supplier<List<Order>> creator
+  ) {
+    List<Order> orders;
+    try {
+      orders = creator.get();
+    } catch (RuntimeException | Error e) {
+      entries.asMap().remove(hash, mine);
+      mine.completeExceptionally(e);
+      throw e;
+    }
+    mine.complete(new Entry(payload, orders.stream().mapToLong(Order::getId).toArray()));
+    return orders;
+  }
+
+  /**
+   * Waits for an in-flight creation and rethrows its failure unwrapped, so a duplicate sees the
+   * same error as the original request.
+   */
+  private static Entry await(CompletableFuture<Entry> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) throw cause;
+      throw e;
+    }
+  }
+
+  private List<Order> resolve(Entry entry) {
+    return Arrays.stream(entry.orderIds())
+        .mapToObj(id -> orderRepository.findById(id)
+            .orElseThrow(() -> new IllegalStateException("Order " + id + " referenced by idempotency key is missing")))
+        .toList();
+  }
 
+  private static long[] encode(List<OrderLine> lines) {
+    long[] payload = new long[lines.size() * 2];
+    for (int i = 0; i < lines.size(); i++) {
+      payload[2 * i] = lines.get(i).productId();
+      payload[2 * i + 1] = lines.get(i).quantity();
+    }
+    return payload;
+  }
+
+  private static KeyHash hash(String key) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+      ByteBuffer buf = ByteBuffer.wrap(digest);
+      return new KeyHash(buf.getLong(), buf.getLong());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
@@ -1,36 +1,57 @@
 package com.minicommerce.backend.repository;
 
 import com.minicommerce.backend.domain.Order;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 @Repository
+@ConditionalOnProperty(name = "app.orders.store", havingValue = "memory", matchIfMissing = true)
 public class InMemoryOrderRepository implements OrderRepository {
   private final Map<Long, Order> orders = new ConcurrentHashMap<>();
-  private final AtomicLong idSeq = new AtomicLong(0);
+  private final OrderIndex index = new OrderIndex();
+  // The index is appended in id order, so id assignment and indexing happen together
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private long idSeq;
 
   @Override
   public Order save(Order order) {
-    long id = idSeq.incrementAndGet();
-    var stored = new Order(
-        id,
-        order.getProductId(),
-        order.getQuantity(),
-        order.getUnitPrice(),
-        order.getTotalPrice(),
-        order.getCreatedAt()
-    );
-    orders.put(id, stored);
-    return stored;
+    writeLock.lock();
+    try {
+      var stored = new Order(
+          ++idSeq,
+          order.getProductId(),
+          order.getQuantity(),
+          order.getUnitPrice(),
+          order.getTotalPrice(),
+          order.getCreatedAt()
+      );
+      orders.put(stored.getId(), stored);
+      index.add(stored);
+      return stored;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public List<Order> saveAll(List<Order> orders) {
+    return orders.stream().map(this::save).toList();
   }
 
   @Override
   public Optional<Order> findById(long id) {
     return Optional.ofNullable(orders.get(id));
   }
+
+  @Override
+  public OrderPage findPage(OrderQuery query) {
+    return index.find(query, this::findById);
+  }
 }
 
 
@@ -1,39 +1,94 @@
 package com.minicommerce.backend.repository;
 
+import com.minicommerce.backend.domain.Money;
 import com.minicommerce.backend.domain.Product;
-import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.Comparator;
+import com.minicommerce.backend.repository.catalog.CatalogImportReport;
+import com.minicommerce.backend.repository.catalog.CatalogImporter;
+import com.minicommerce.backend.repository.catalog.CatalogImporter.CatalogImport;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+/**
+ * The catalog as one immutable snapshot: products in id order and their sorted ids, swapped as a
+ * whole by {@link #replaceAll}. Stock lives in the products and changes in place.
+ *
+ * <p>With {@code app.catalog.import-file} set, the catalog is read from that file when the
+ * repository is created, before any order store recovers stock on top of it; otherwise it holds
+ * the sample products.
+ */
+@Slf4j
 @Repository
 public class InMemoryProductRepository implements ProductRepository {
-  private final Map<Long, Product> products = new ConcurrentHashMap<>();
+
+  private record Catalog(long[] ids, List<Product> products) {}
+
+  private volatile Catalog catalog;
 
   public InMemoryProductRepository() {
-    // Seed some sample products
-    products.put(1L, new Product(1L, "Renewal Night Serum (50ml)", new BigDecimal("115.00"), 12));
-    products.put(2L, new Product(2L, "Longwear Foundation (30ml)", new BigDecimal("52.00"), 9));
-    products.put(3L, new Product(3L, "Firming Moisturizer (50ml)", new BigDecimal("105.00"), 7));
-    products.put(4L, new Product(4L, "Gentle Foaming Cleanser", new BigDecimal("29.00"), 10));
-    products.put(5L, new Product(5L, "Sculpting Lipstick", new BigDecimal("34.00"), 6));
+    replaceAll(List.of(
+        new Product(1L, "Renewal Night Serum (50ml)", Money.of("115.00"), 12),
+        new Product(2L, "Longwear Foundation (30ml)", Money.of("52.00"), 9),
+        new Product(3L, "Firming Moisturizer (50ml)", Money.of("105.00"), 7),
+        new Product(4L, "Gentle Foaming Cleanser", Money.of("29.00"), 10),
+        new Product(5L, "Sculpting Lipstick", Money.of("34.00"), 6)));
+  }
+
+  @Autowired
+  public InMemoryProductRepository(
+      @Value("${app.catalog.import-file:}") String importFile,
+      @Value("${app.catalog.import-parallelism:0}") int parallelism
+  ) {
+    this();
+    if (importFile.isBlank()) return;
+    CatalogImport result;
+    try {
+      result = new CatalogImporter(parallelism).read(Path.of(importFile));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot read catalog " + importFile, e);
+    }
+    CatalogImportReport report = result.report();
+    if (result.products().isEmpty()) {
+      throw new IllegalStateException("Catalog " + importFile + " has no valid rows (" + report.rejected() + " rejected)");
+    }
+    replaceAll(result.products());
+    log.info("Imported {} products from {} in {} ms ({} rows/s), {} rows rejected",
+        report.imported(), importFile, report.elapsedMs(), Math.round(report.rowsPerSecond()), report.rejected());
+    report.errors().stream().limit(10).forEach(error ->
+        log.warn("Rejected catalog row {}: {}", error.line(), error.reason()));
   }
 
   @Override
   public List<Product> findAll() {
-    var list = new ArrayList<>(products.values());
-    list.sort(Comparator.comparingLong(Product::getId));
-    return List.copyOf(list);
+    return catalog.products();
   }
 
   @Override
   public Optional<Product> findById(long id) {
-    return Optional.ofNullable(products.get(id));
+    Catalog c = catalog;
+    int i = Arrays.binarySearch(c.ids(), id);
+    return i >= 0 ? Optional.of(c.products().get(i)) : Optional.empty();
   }
-}
-
 
+  /**
+   * @param products in strictly ascending id order
+   */
+  @Override
+  public void replaceAll(List<Product> products) {
+    long[] ids = new long[products.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = products.get(i).getId();
+      if (i > 0 && ids[i] <= ids[i - 1]) {
+        throw new IllegalArgumentException("products must be in strictly ascending id order");
+      }
+    }
+    catalog = new Catalog(ids, List.copyOf(products));
+  }
+}
@@ -0,0 +1,306 @@
+package com.minicommerce.backend.repository;
+
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.journal.DurabilityMode;
+import com.minicommerce.backend.repository.journal.JournalVisitor;
+import com.minicommerce.backend.repository.journal.OrderJournal;
+import com.minicommerce.backend.repository.journal.SnapshotStore;
+import com.minicommerce.backend.repository.journal.SnapshotStore.ProductState;
+import jakarta.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Durable order repository: every save is appended to an {@link OrderJournal} before it becomes
+ * visible, and on startup orders, the id sequence and product stock are rebuilt from the newest
+ * snapshot plus the journal written after it.
+ *
+ * <p>Enabled with {@code app.orders.store=journal}.
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "app.orders.store", havingValue = "journal")
+public class JournaledOrderRepository implements OrderRepository {
+  private final Map<Long, Order> orders = new ConcurrentHashMap<>();
+  private final AtomicLong idSeq = new AtomicLong(0);
+  // Appended under writeLock, and during recovery in journal order
+  private final OrderIndex index = new OrderIndex();
+  // Ids are assigned in journal order, so the journal never holds id n+1 before id n
+  private final ReentrantLock writeLock = new ReentrantLock();
+  // Stock as the journal knows it; live stock also includes reservations not saved yet. Guarded by writeLock
+  private final Map<Long, Integer> journaledStock = new HashMap<>();
+  private final ProductRepository productRepository;
+  private final SnapshotStore snapshots;
+  private final OrderJournal journal;
+  private final ScheduledExecutorService snapshotter;
+  // One snapshot at a time: they share the temp file and prune the same segments
+  private final ReentrantLock snapshotLock = new ReentrantLock();
+
+  private final AtomicLong lastSnapshotPosition = new AtomicLong(-1);
+  private final AtomicLong lastSnapshotDurationMs = new AtomicLong();
+  private final AtomicLong lastSnapshotSizeBytes = new AtomicLong();
+  private final AtomicLong snapshotLoadMs = new AtomicLong();
+  private final AtomicLong recoveryMs = new AtomicLong();
+  private final AtomicLong recoveryReplayedRecords = new AtomicLong();
+
+  public JournaledOrderRepository(
+      ProductRepository productRepository,
+      MetricsRegistry metrics,
+      @Value("${app.orders.journal.directory:data/journal}") String directory,
+      @Value("${app.orders.journal.segment-size-mb:64}") int segmentSizeMb,
+      @Value("${app.orders.journal.durability:INTERVAL}") DurabilityMode durability,
+      @Value("${app.orders.journal.flush-interval-ms:50}") long flushIntervalMs,
+      @Value("${app.orders.snapshot.interval-seconds:300}") long snapshotIntervalSeconds,
+      @Value("${app.orders.snapshot.retain:2}") int snapshotRetain
+  ) {
+    this.productRepository = productRepository;
+    long started = System.nanoTime();
+
+    var recovery = new Recovery();
+    this.snapshots = new SnapshotStore(Path.of(directory), snapshotRetain);
+    this.journal = OrderJournal.open(
+        Path.of(directory),
+        Math.multiplyExact(segmentSizeMb, 1024 * 1024),
+        durability,
+        flushIntervalMs,
+        recovery.loadSnapshot(),
+        recovery
+    );
+    productRepository.findAll().forEach(p -> journaledStock.put(p.getId(), p.getStock()));
+    if (recovery.skippedDeltas > 0) {
+      log.warn("{} journaled stock deltas could not be applied (unknown product or stock below seed)",
+          recovery.skippedDeltas);
+    }
+    recoveryMs.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    recoveryReplayedRecords.set(recovery.replayedRecords);
+    log.info("Order store recovered in {} ms: {} orders, {} journal records replayed, durability {}",
+        recoveryMs.get(), orders.size(), recovery.replayedRecords, durability);
+
+    metrics.gauge("order_store_recovery_ms", recoveryMs::get);
+    metrics.gauge("order_snapshot_load_ms", snapshotLoadMs::get);
+    metrics.gauge("order_store_recovery_replayed_records", recoveryReplayedRecords::get);
+    metrics.gauge("order_snapshot_last_duration_ms", lastSnapshotDurationMs::get);
+    metrics.gauge("order_snapshot_last_size_bytes", lastSnapshotSizeBytes::get);
+    metrics.gauge("order_snapshot_last_position", lastSnapshotPosition::get);
+    metrics.gauge("order_journal_position", journal::position);
+
+    if (snapshotIntervalSeconds > 0) {
+      this.snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "order-snapshotter");
+        t.setDaemon(true);
+        return t;
+      });
+      snapshotter.scheduleWithFixedDelay(
+          this::snapshotQuietly, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+    } else {
+      this.snapshotter = null;
+    }
+  }
+
+  @Override
+  public Order save(Order order) {
+    return saveAll(List.of(order)).get(0);
+  }
+
+  @Override
+  public List<Order> saveAll(List<Order> batch) {
+    List<Order> stored = new ArrayList<>(batch.size());
+    long end;
+    writeLock.lock();
+    try {
+      for (Order order : batch) {
+        stored.add(new Order(
+            idSeq.incrementAndGet(),
+            order.getProductId(),
+            order.getQuantity(),
+            order.getUnitPrice(),
+            order.getTotalPrice(),
+            order.getCreatedAt()
+        ));
+      }
+      end = journal.append(stored);
+      for (Order o : stored) {
+        orders.put(o.getId(), o);
+        index.add(o);
+        journaledStock.computeIfPresent(o.getProductId(), (id, stock) -> stock - o.getQuantity());
+      }
+    } finally {
+      writeLock.unlock();
+    }
+    // Outside the lock, so writers queued behind an fsync share the next one
+    journal.awaitDurable(end);
+    return stored;
+  }
+
+  @Override
+  public Optional<Order> findById(long id) {
+    return Optional.ofNullable(orders.get(id));
+  }
+
+  @Override
+  public OrderPage findPage(OrderQuery query) {
+    return index.find(query, this::findById);
+  }
+
+  /**
+   * Writes a snapshot of stock and orders, then drops snapshots and journal segments that are no
+   * longer needed. Saves are blocked only while the cut (journal position, last id, stock) is taken;
+   * a concurrent snapshot waits for this one to finish.
+   *
+   * @return false if nothing changed since the last snapshot
+   */
+  public boolean snapshot() {
+    snapshotLock.lock();
+    try {
+      return snapshotLocked();
+    } finally {
+      snapshotLock.unlock();
+    }
+  }
+
+  private boolean snapshotLocked() {
+    long position;
+    long lastId;
+    List<ProductState> products = new ArrayList<>();
+    writeLock.lock();
+    try {
+      position = journal.position();
+      if (position == lastSnapshotPosition.get()) return false;
+      lastId = idSeq.get();
+      for (Product p : productRepository.findAll()) {
+        products.add(new ProductState(p.getId(), p.getName(), p.getPrice(),
+            journaledStock.getOrDefault(p.getId(), p.getStock())));
+      }
+    } finally {
+      writeLock.unlock();
+    }
+
+    long started = System.nanoTime();
+    long size = snapshots.write(position, lastId, products, orders::get);
+    lastSnapshotDurationMs.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    lastSnapshotSizeBytes.set(size);
+    lastSnapshotPosition.set(position);
+    snapshots.prune().ifPresent(journal::deleteSegmentsBefore);
+    log.info("Snapshot of {} orders at journal position {} written in {} ms ({} bytes)",
+        lastId, position, lastSnapshotDurationMs.get(), size);
+    return true;
+  }
+
+  private void snapshotQuietly() {
+    try {
+      snapshot();
+    } catch (RuntimeException e) {
+      log.error("Order snapshot failed", e);
+    }
+  }
+
+  @PreDestroy
+  public void close() {
+    if (snapshotter != null) {
+      // Let a running snapshot finish: interrupting it would abandon its temp file mid-write
+      snapshotter.shutdown();
+      try {
+        if (!snapshotter.awaitTermination(30, TimeUnit.SECONDS)) {
+          log.warn("Order snapshot still running at shutdown");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      // A final snapshot makes the next startup replay (almost) nothing
+      snapshotQuietly();
+    }
+    // Taken so a snapshot that outlived the wait above is not pruning segments as the journal closes
+    snapshotLock.lock();
+    try {
+      journal.close();
+    } finally {
+      snapshotLock.unlock();
+    }
+  }
+
+  private final class Recovery implements JournalVisitor {
+    private long skippedDeltas;
+    private long replayedRecords;
+
+    /**
+     * Loads the newest snapshot, if any.
+     *
+     * @return the journal position to replay from
+     */
+    long loadSnapshot() {
+      long started = System.nanoTime();
+      OptionalLong position = snapshots.loadLatest(new SnapshotStore.Visitor() {
+        @Override
+        public void onProduct(ProductState state) {
+          Optional<Product> product = productRepository.findById(state.id());
+          if (product.isEmpty()) {
+            skippedDeltas++;
+          } else {
+            applyDelta(product.get(), state.stock() - product.get().getStock());
+          }
+        }
+
+        @Override
+        public void onOrder(Order order) {
+          restore(order);
+        }
+      });
+      snapshotLoadMs.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+      position.ifPresent(p -> {
+        lastSnapshotPosition.set(p);
+        log.info("Loaded snapshot at journal position {} ({} orders) in {} ms", p, orders.size(), snapshotLoadMs.get());
+      });
+      return position.orElse(0L);
+    }
+
+    @Override
+    public void onOrder(Order order) {
+      replayedRecords++;
+      restore(order);
+    }
+
+    @Override
+    public void onStockDelta(long productId, int delta) {
+      replayedRecords++;
+      Optional<Product> product = productRepository.findById(productId);
+      if (product.isEmpty()) {
+        skippedDeltas++;
+      } else {
+        applyDelta(product.get(), delta);
+      }
+    }
+
+    private void restore(Order order) {
+      // A record replayed twice is stored again but indexed once
+      boolean next = order.getId() > idSeq.get();
+      orders.put(order.getId(), order);
+      if (next) index.add(order);
+      idSeq.accumulateAndGet(order.getId(), Math::max);
+    }
+
+    private void applyDelta(Product product, int delta) {
+      if (delta > 0) {
+        product.increaseStock(delta);
+      } else if (delta < 0 && !product.tryDecreaseStock(-delta)) {
+        skippedDeltas++;
+      }
+    }
+  }
+}
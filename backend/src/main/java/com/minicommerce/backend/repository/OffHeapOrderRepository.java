@@ -0,0 +1,219 @@
+package com.minicommerce.backend.repository;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * In-memory order repository for very large order counts: each order is a fixed-width 40-byte
+ * record in direct (off-heap) buffers, addressed by its dense id. {@link Order} objects are only
+ * built for the orders a read returns, so the heap holds little more than the query indexes and
+ * the garbage collector has almost nothing to trace.
+ *
+ * <p>Record layout: product id, unit price and total in minor units, creation time in epoch
+ * nanoseconds (all longs), quantity (int) and a currency number (short). Records live in chunks of
+ * {@code chunk-records}; a chunk is allocated when the first order lands in it.
+ *
+ * <p>Saves hold a lock; reads never do. A record is written before the size that covers it is
+ * published, and readers check the size first.
+ *
+ * <p>Enabled with {@code app.orders.store=offheap}. Like the map store, orders are lost on restart.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.orders.store", havingValue = "offheap")
+public class OffHeapOrderRepository implements OrderRepository {
+  static final int RECORD_BYTES = 40;
+  /** The largest power of two whose chunk, {@code RECORD_BYTES} times it, still fits in an int. */
+  static final int MAX_CHUNK_RECORDS = 1 << 25;
+
+  private static final int PRODUCT_ID = 0;
+  private static final int UNIT_PRICE = 8;
+  private static final int TOTAL_PRICE = 16;
+  private static final int CREATED_AT = 24;
+  private static final int QUANTITY = 32;
+  private static final int CURRENCY = 36;
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private final int chunkShift;
+  private final OrderIndex index = new OrderIndex();
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+  private volatile Currency[] currencies = new Currency[0];
+  private volatile long size;
+
+  /**
+   * @param chunkRecords records per off-heap chunk, rounded up to a power of two; at most
+   *     {@link #MAX_CHUNK_RECORDS}
+   */
+  public OffHeapOrderRepository(
+      MetricsRegistry metrics,
+      @Value("${app.orders.offheap.chunk-records:1048576}") int chunkRecords
+  ) {
+    // Checked before rounding up, which must not leave the range
+    if (chunkRecords <= 0 || chunkRecords > MAX_CHUNK_RECORDS) {
+      throw new IllegalArgumentException("chunk-records must be between 1 and " + MAX_CHUNK_RECORDS);
+    }
+    this.chunkShift = 32 - Integer.numberOfLeadingZeros(chunkRecords - 1);
+    metrics.gauge("order_store_orders", () -> size);
+    metrics.gauge("order_store_offheap_bytes", () -> (long) chunks.length * RECORD_BYTES << chunkShift);
+  }
+
+  @Override
+  public Order save(Order order) {
+    writeLock.lock();
+    try {
+      validate(order);
+      Currency[] table = currencyTable(List.of(order));
+      ensureChunks(size + 1);
+      currencies = table;
+      return append(order, table);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Stores the whole batch or, if any order is rejected, none of it: every check and allocation
+   * that can fail runs before the first record is written.
+   */
+  @Override
+  public List<Order> saveAll(List<Order> orders) {
+    List<Order> stored = new ArrayList<>(orders.size());
+    writeLock.lock();
+    try {
+      for (Order order : orders) validate(order);
+      Currency[] table = currencyTable(orders);
+      ensureChunks(size + orders.size());
+      currencies = table;
+      for (Order order : orders) stored.add(append(order, table));
+    } finally {
+      writeLock.unlock();
+    }
+    return stored;
+  }
+
+  @Override
+  public Optional<Order> findById(long id) {
+    if (id <= 0 || id > size) return Optional.empty();
+    return Optional.of(read(id));
+  }
+
+  @Override
+  public OrderPage findPage(OrderQuery query) {
+    return index.find(query, this::findById);
+  }
+
+  /**
+   * Checks that {@code order} can be stored.
+   */
+  private void validate(Order order) {
+    if (!order.getTotalPrice().currency().equals(order.getUnitPrice().currency())) {
+      throw new IllegalArgumentException("Unit price and total must share a currency");
+    }
+    toNanos(order.getCreatedAt());
+  }
+
+  /**
+   * The currency table extended with the currencies of {@code orders} it does not hold yet. It is
+   * not published here: the caller stores it once nothing else can fail.
+   */
+  private Currency[] currencyTable(List<Order> orders) {
+    Currency[] table = currencies;
+    for (Order order : orders) {
+      Currency currency = order.getUnitPrice().currency();
+      if (currencyNumber(table, currency) >= 0) continue;
+      if (table.length == Short.MAX_VALUE) throw new IllegalStateException("Too many currencies");
+      table = Arrays.copyOf(table, table.length + 1);
+      table[table.length - 1] = currency;
+    }
+    return table;
+  }
+
+  /**
+   * Writes the next record into an already allocated chunk. Called with the write lock held,
+   * after {@link #validate}, with the published currency table.
+   */
+  private Order append(Order order, Currency[] table) {
+    long id = size + 1;
+    ByteBuffer chunk = chunks[(int) ((id - 1) >>> chunkShift)];
+    int offset = offset(id);
+    chunk.putLong(offset + PRODUCT_ID, order.getProductId());
+    chunk.putLong(offset + UNIT_PRICE, order.getUnitPrice().minorUnits());
+    chunk.putLong(offset + TOTAL_PRICE, order.getTotalPrice().minorUnits());
+    chunk.putLong(offset + CREATED_AT, toNanos(order.getCreatedAt()));
+    chunk.putInt(offset + QUANTITY, order.getQuantity());
+    chunk.putShort(offset + CURRENCY, currencyNumber(table, order.getUnitPrice().currency()));
+    var stored = new Order(id, order.getProductId(), order.getQuantity(), order.getUnitPrice(),
+        order.getTotalPrice(), order.getCreatedAt());
+    size = id;
+    index.add(stored);
+    return stored;
+  }
+
+  private Order read(long id) {
+    ByteBuffer chunk = chunks[(int) ((id - 1) >>> chunkShift)];
+    int offset = offset(id);
+    Currency currency = currencies[chunk.getShort(offset + CURRENCY)];
+    long createdNanos = chunk.getLong(offset + CREATED_AT);
+    return new Order(
+        id,
+        chunk.getLong(offset + PRODUCT_ID),
+        chunk.getInt(offset + QUANTITY),
+        Money.ofMinor(chunk.getLong(offset + UNIT_PRICE), currency),
+        Money.ofMinor(chunk.getLong(offset + TOTAL_PRICE), currency),
+        Instant.ofEpochSecond(Math.floorDiv(createdNanos, NANOS_PER_SECOND), Math.floorMod(createdNanos, NANOS_PER_SECOND))
+    );
+  }
+
+  /**
+   * Allocates every chunk needed to hold ids up to {@code lastId}. Chunks are published only once
+   * all of them are allocated, so a failed allocation leaves nothing behind.
+   */
+  private void ensureChunks(long lastId) {
+    int needed = lastId == 0 ? 0 : (int) ((lastId - 1) >>> chunkShift) + 1;
+    ByteBuffer[] current = chunks;
+    if (needed <= current.length) return;
+    ByteBuffer[] grown = Arrays.copyOf(current, needed);
+    for (int i = current.length; i < needed; i++) {
+      grown[i] = ByteBuffer.allocateDirect(RECORD_BYTES << chunkShift).order(ByteOrder.nativeOrder());
+    }
+    chunks = grown;
+  }
+
+  private int offset(long id) {
+    return (int) ((id - 1) & ((1L << chunkShift) - 1)) * RECORD_BYTES;
+  }
+
+  /**
+   * @return the currency's position in {@code table}, or -1
+   */
+  private static short currencyNumber(Currency[] table, Currency currency) {
+    for (int i = 0; i < table.length; i++) {
+      if (table[i].equals(currency)) return (short) i;
+    }
+    return -1;
+  }
+
+  /**
+   * @throws IllegalArgumentException outside the years 1677 to 2262
+   */
+  private static long toNanos(Instant t) {
+    try {
+      return Math.addExact(Math.multiplyExact(t.getEpochSecond(), NANOS_PER_SECOND), t.getNano());
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("Order time out of range: " + t, e);
+    }
+  }
+}
@@ -0,0 +1,259 @@
+package com.minicommerce.backend.repository;
+
+import com.minicommerce.backend.domain.Order;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * Secondary indexes over orders by product and by creation time, behind
+ * {@link OrderRepository#findPage}.
+ *
+ * <p>Orders are added by one writer at a time, in id order. Readers never lock: every order up to
+ * the {@code visible} watermark is indexed, and a query only looks at ids up to the watermark it
+ * read first, so a page taken during concurrent inserts never skips an order that a later page
+ * would then return.
+ *
+ * <p>Both indexes are primitive arrays. The time index is a paged {@code long[]} addressed by id
+ * holding the latest creation time up to each id, which never decreases, so a time range is found by
+ * binary search. Orders keep their own creation times: one saved with an earlier time than the order
+ * before it (a concurrent saver took its timestamp first, or the clock stepped back) widens the
+ * searched id range by the largest such step seen, and each order in the range is checked against
+ * the query. Each product has an ascending paged {@code long[]} of its order ids, reached through an
+ * open-addressing table keyed by product id. That is about 16 bytes per order.
+ */
+final class OrderIndex {
+  private static final int PAGE_BITS = 12;
+  private static final int PAGE_SIZE = 1 << PAGE_BITS;
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  /**
+   * Order ids of one product, ascending, in pages of {@code PAGE_SIZE}. The first page starts small
+   * and doubles, so products with few orders stay cheap; later pages are allocated full, so no array
+   * is ever copied or large enough to be a humongous G1 object. Written by the indexing thread only;
+   * a changed page table is published before {@code size}, and {@code size} after the slot it covers.
+   */
+  private static final class Postings {
+    private volatile long[][] pages = {new long[4]};
+    private volatile int size;
+
+    void add(long id) {
+      int n = size;
+      long[][] p = pages;
+      int page = n >>> PAGE_BITS;
+      int slot = n & (PAGE_SIZE - 1);
+      if (page == p.length) {
+        p = Arrays.copyOf(p, page + 1);
+        p[page] = new long[PAGE_SIZE];
+        pages = p;
+      } else if (slot == p[page].length) {
+        p = p.clone();
+        p[page] = Arrays.copyOf(p[page], Math.min(slot * 2, PAGE_SIZE));
+        pages = p;
+      }
+      p[page][slot] = id;
+      size = n + 1;
+    }
+
+    static long get(long[][] pages, int i) {
+      return pages[i >>> PAGE_BITS][i & (PAGE_SIZE - 1)];
+    }
+  }
+
+  /**
+   * Open-addressing table from product id to postings. A slot's key is written before its value,
+   * and readers read the value first, so a non-null value always comes with its key.
+   */
+  private record ProductTable(long[] keys, AtomicReferenceArray<Postings> values) {
+    static ProductTable withCapacity(int capacity) {
+      return new ProductTable(new long[capacity], new AtomicReferenceArray<>(capacity));
+    }
+
+    Postings get(long productId) {
+      int mask = keys.length - 1;
+      for (int i = slot(productId, mask); ; i = (i + 1) & mask) {
+        Postings p = values.get(i);
+        if (p == null) return null;
+        if (keys[i] == productId) return p;
+      }
+    }
+
+    void put(long productId, Postings postings) {
+      int mask = keys.length - 1;
+      int i = slot(productId, mask);
+      while (values.get(i) != null) i = (i + 1) & mask;
+      keys[i] = productId;
+      values.set(i, postings);
+    }
+
+    private static int slot(long key, int mask) {
+      long h = key * 0x9E3779B97F4A7C15L;
+      return (int) (h ^ (h >>> 32)) & mask;
+    }
+  }
+
+  private volatile long[][] timePages = new long[0][];
+  private volatile ProductTable products = ProductTable.withCapacity(16);
+  private volatile long visible;
+  // How far an order's creation time has fallen behind the latest before it; only grows
+  private volatile long maxSkewNanos;
+
+  // Indexing thread only
+  private int productCount;
+  private long lastIndexedNanos = Long.MIN_VALUE;
+
+  /**
+   * Indexes the next order. Ids skipped since the previous one (e.g. a batch whose journal write
+   * failed) are left empty.
+   */
+  void add(Order order) {
+    long id = order.getId();
+    long last = visible;
+    if (id <= last) throw new IllegalStateException("Order " + id + " indexed out of order after " + last);
+    long createdNanos = toNanos(order.getCreatedAt());
+    if (createdNanos < lastIndexedNanos) {
+      long skew = lastIndexedNanos - createdNanos;
+      // Negative only on overflow between saturated times
+      maxSkewNanos = Math.max(maxSkewNanos, skew < 0 ? Long.MAX_VALUE : skew);
+    }
+    long nanos = Math.max(createdNanos, lastIndexedNanos);
+    for (long gap = last + 1; gap < id; gap++) setTime(gap, lastIndexedNanos);
+    setTime(id, nanos);
+    lastIndexedNanos = nanos;
+    postingsFor(order.getProductId()).add(id);
+    // Published after the skew, so a reader that sees this id also sees any skew it brought
+    visible = id;
+  }
+
+  /**
+   * Resolves one page through {@code lookup}. Ids the lookup does not find (gaps) are skipped.
+   */
+  OrderPage find(OrderQuery query, LongFunction<Optional<Order>> lookup) {
+    long watermark = visible;
+    long skew = maxSkewNanos;
+    long[][] pages = timePages;
+    long from = query.from() == null ? Long.MIN_VALUE : toNanos(query.from());
+    long to = query.to() == null ? Long.MAX_VALUE : toNanos(query.to());
+    long lo = query.after() + 1;
+    if (query.from() != null) lo = Math.max(lo, firstAtOrAfter(from, watermark, pages));
+    // An order created before `to` has a latest-time entry below `to + skew`
+    long hi = query.to() == null ? watermark : firstAtOrAfter(saturatedAdd(to, skew), watermark, pages) - 1;
+
+    List<Order> orders = new ArrayList<>(Math.min(query.limit(), 256));
+    Long nextAfter = null;
+    if (query.productId() == null) {
+      for (long id = lo; id <= hi; id++) {
+        Optional<Order> order = lookup.apply(id);
+        if (order.isEmpty() || !createdWithin(order.get(), from, to)) continue;
+        if (orders.size() == query.limit()) {
+          nextAfter = orders.get(orders.size() - 1).getId();
+          break;
+        }
+        orders.add(order.get());
+      }
+    } else {
+      Postings postings = products.get(query.productId());
+      if (postings != null) {
+        int size = postings.size;
+        long[][] ids = postings.pages;
+        for (int i = lowerBound(ids, size, lo); i < size && Postings.get(ids, i) <= hi; i++) {
+          Optional<Order> order = lookup.apply(Postings.get(ids, i));
+          if (order.isEmpty() || !createdWithin(order.get(), from, to)) continue;
+          if (orders.size() == query.limit()) {
+            nextAfter = orders.get(orders.size() - 1).getId();
+            break;
+          }
+          orders.add(order.get());
+        }
+      }
+    }
+    return new OrderPage(orders, nextAfter);
+  }
+
+  private static boolean createdWithin(Order order, long from, long to) {
+    long nanos = toNanos(order.getCreatedAt());
+    return nanos >= from && nanos < to;
+  }
+
+  private static long saturatedAdd(long a, long b) {
+    long sum = a + b;
+    return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+  }
+
+  private void setTime(long id, long nanos) {
+    int page = (int) ((id - 1) >>> PAGE_BITS);
+    long[][] pages = timePages;
+    if (page >= pages.length) {
+      pages = Arrays.copyOf(pages, page + 1);
+      pages[page] = new long[PAGE_SIZE];
+      timePages = pages;
+    }
+    pages[page][(int) ((id - 1) & (PAGE_SIZE - 1))] = nanos;
+  }
+
+  private Postings postingsFor(long productId) {
+    ProductTable table = products;
+    Postings postings = table.get(productId);
+    if (postings != null) return postings;
+    if ((productCount + 1) * 2 > table.keys().length) {
+      // Rehash into a new table and publish it whole; readers keep using the old one meanwhile
+      ProductTable bigger = ProductTable.withCapacity(table.keys().length * 2);
+      for (int i = 0; i < table.keys().length; i++) {
+        Postings p = table.values().get(i);
+        if (p != null) bigger.put(table.keys()[i], p);
+      }
+      products = bigger;
+      table = bigger;
+    }
+    postings = new Postings();
+    table.put(productId, postings);
+    productCount++;
+    return postings;
+  }
+
+  /**
+   * The first id in {@code [1, watermark]} created at or after {@code nanos}, or {@code watermark + 1}.
+   */
+  private static long firstAtOrAfter(long nanos, long watermark, long[][] pages) {
+    long lo = 1;
+    long hi = watermark + 1;
+    while (lo < hi) {
+      long mid = (lo + hi) >>> 1;
+      long t = pages[(int) ((mid - 1) >>> PAGE_BITS)][(int) ((mid - 1) & (PAGE_SIZE - 1))];
+      if (t < nanos) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  private static int lowerBound(long[][] ids, int size, long id) {
+    int lo = 0;
+    int hi = size;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (Postings.get(ids, mid) < id) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  /**
+   * Epoch nanoseconds, saturated at the long range (years 1677 to 2262).
+   */
+  private static long toNanos(Instant t) {
+    long seconds = t.getEpochSecond();
+    if (seconds >= Long.MAX_VALUE / NANOS_PER_SECOND) return Long.MAX_VALUE;
+    if (seconds <= Long.MIN_VALUE / NANOS_PER_SECOND) return Long.MIN_VALUE;
+    return seconds * NANOS_PER_SECOND + t.getNano();
+  }
+}
@@ -0,0 +1,11 @@
+package com.minicommerce.backend.repository;
+
+import com.minicommerce.backend.domain.Order;
+import java.util.List;
+
+/**
+ * One page of {@link OrderRepository#findPage} results.
+ *
+ * @param nextAfter cursor for the next page, or null if this is the last one
+ */
+public record OrderPage(List<Order> orders, Long nextAfter) {}
@@ -0,0 +1,25 @@
+package com.minicommerce.backend.repository;
+
+import java.time.Instant;
+
+/**
+ * Filter and keyset cursor for {@link OrderRepository#findPage}. Results are in id order, the order
+ * they were saved in; {@code from} and {@code to} filter on each order's own createdAt.
+ *
+ * @param productId only orders of this product; null for all
+ * @param from inclusive lower bound on createdAt; null for none
+ * @param to exclusive upper bound on createdAt; null for none
+ * @param after only ids greater than this, i.e. the previous page's {@link OrderPage#nextAfter()}; 0
+ *     for the first page
+ * @param limit page size
+ */
+public record OrderQuery(Long productId, Instant from, Instant to, long after, int limit) {
+
+  public OrderQuery {
+    if (limit <= 0) throw new IllegalArgumentException("limit must be > 0");
+    if (after < 0) throw new IllegalArgumentException("after must be >= 0");
+    if (from != null && to != null && from.isAfter(to)) {
+      throw new IllegalArgumentException("from must not be after to");
+    }
+  }
+}
@@ -1,11 +1,22 @@
 package com.minicommerce.backend.repository;
 
 import com.minicommerce.backend.domain.Order;
+import java.util.List;
 import java.util.Optional;
 
 public interface OrderRepository {
   Order save(Order order);
-  Optional<Order> findById(long id);
-}
 
+  /**
+   * Saves several orders in one call; ids are assigned in list order.
+   */
+  List<Order> saveAll(List<Order> orders);
 
+  Optional<Order> findById(long id);
+
+  /**
+   * Returns orders matching {@code query} in ascending id order. A page reflects the store at
+   * one point in time: orders saved concurrently are either on it or come after it.
+   */
+  OrderPage findPage(OrderQuery query);
+}
@@ -7,6 +7,11 @@ import java.util.Optional;
 public interface ProductRepository {
   List<Product> findAll();
   Optional<Product> findById(long id);
-}
-
 
+  /**
+   * Swaps in a whole new catalog at once; readers see either the old products or the new ones.
+   *
+   * @param products in strictly ascending id order
+   */
+  void replaceAll(List<Product> products);
+}
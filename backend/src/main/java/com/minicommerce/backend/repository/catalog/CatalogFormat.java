@@ -0,0 +1,37 @@
+package com.minicommerce.backend.repository.catalog;
+
+import java.util.Locale;
+
+/**
+ * File formats {@link CatalogImporter} reads. Both carry one product per line with the fields of
+ * the {@code Product} constructor.
+ */
+public enum CatalogFormat {
+  /**
+   * {@code id,name,price,stock}, an optional header line with those names, RFC 4180 quoting for
+   * names with commas or quotes; a quoted name cannot span lines.
+   */
+  CSV,
+  /** One JSON object per line, e.g. {@code {"id":1,"name":"Serum","price":"29.00","stock":10}}. */
+  NDJSON;
+
+  /**
+   * From a file extension: {@code .csv}, {@code .ndjson} or {@code .jsonl}.
+   */
+  public static CatalogFormat fromFileName(String fileName) {
+    String name = fileName.toLowerCase(Locale.ROOT);
+    if (name.endsWith(".csv")) return CSV;
+    if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) return NDJSON;
+    throw new IllegalArgumentException("Cannot tell the catalog format of " + fileName + " (expected .csv or .ndjson)");
+  }
+
+  /**
+   * From a request {@code Content-Type}: {@code text/csv} or {@code application/x-ndjson}.
+   */
+  public static CatalogFormat fromContentType(String contentType) {
+    String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+    if (type.startsWith("text/csv")) return CSV;
+    if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) return NDJSON;
+    throw new IllegalArgumentException("Content-Type must be text/csv or application/x-ndjson");
+  }
+}
@@ -0,0 +1,31 @@
+package com.minicommerce.backend.repository.catalog;
+
+import java.util.List;
+
+/**
+ * Outcome of one {@link CatalogImporter#read}.
+ *
+ * @param rows data lines read, not counting a CSV header or blank lines
+ * @param imported rows that became products
+ * @param rejected rows that did not; {@code errors} lists the first
+ *     {@link CatalogImporter#MAX_REPORTED_ERRORS} of them by line
+ */
+public record CatalogImportReport(
+    CatalogFormat format,
+    long rows,
+    long imported,
+    long rejected,
+    List<RowError> errors,
+    long elapsedMs
+) {
+
+  /**
+   * @param line 1-based line number in the file
+   * @param row the line as read, cut to 200 characters
+   */
+  public record RowError(long line, String reason, String row) {}
+
+  public double rowsPerSecond() {
+    return elapsedMs == 0 ? rows : rows * 1000.0 / elapsedMs;
+  }
+}
@@ -0,0 +1,433 @@
+package com.minicommerce.backend.repository.catalog;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.repository.catalog.CatalogImportReport.RowError;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads a catalog file into products, in parallel.
+ *
+ * <p>One thread reads lines and hands them out in chunks of {@value #CHUNK_LINES}; worker threads
+ * parse and validate each chunk with the same rules as the {@link Product} constructor, plus a
+ * positive id. At most two chunks per worker are in flight, so a file is never held in memory as
+ * text. Once every chunk is parsed the products are ordered by id; a file already in id order is
+ * only checked, not sorted. A repeated id keeps its first row and rejects the later ones.
+ *
+ * <p>Bad rows never fail the import: they are counted and the first
+ * {@value #MAX_REPORTED_ERRORS} are listed in the {@link CatalogImportReport}. Parsed chunks hand
+ * their errors to one {@link ErrorBudget} in line order as soon as they finish; once it is full,
+ * later chunks only count their bad rows, so a mostly-bad file never keeps more than a few chunks'
+ * worth of row text.
+ */
+public final class CatalogImporter {
+  public static final int MAX_REPORTED_ERRORS = 1000;
+
+  private static final int CHUNK_LINES = 4096;
+  private static final int MAX_ROW_CHARS = 200;
+  private static final String CSV_HEADER = "id,name,price,stock";
+  private static final JsonFactory JSON = new JsonFactory();
+
+  /**
+   * The products of one file, in id order, and the report.
+   */
+  public record CatalogImport(List<Product> products, CatalogImportReport report) {}
+
+  private final int parallelism;
+
+  /**
+   * @param parallelism worker threads; 0 = one per available processor
+   */
+  public CatalogImporter(int parallelism) {
+    if (parallelism < 0) throw new IllegalArgumentException("parallelism must be >= 0");
+    this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+  }
+
+  public CatalogImport read(Path file) throws IOException {
+    try (InputStream in = Files.newInputStream(file)) {
+      return read(in, CatalogFormat.fromFileName(file.getFileName().toString()));
+    }
+  }
+
+  /**
+   * Reads UTF-8 lines from {@code in} until it ends; the caller closes it.
+   *
+   * @throws IOException if reading fails; rows already parsed are dropped
+   */
+  public CatalogImport read(InputStream in, CatalogFormat format) throws IOException {
+    long started = System.nanoTime();
+    var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+    var threadId = new AtomicInteger();
+    ExecutorService workers = Executors.newFixedThreadPool(parallelism, r -> {
+      Thread t = new Thread(r, "catalog-import-" + threadId.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+    var inFlight = new Semaphore(2 * parallelism);
+    var errors = new ErrorBudget();
+    List<Future<Chunk>> chunks = new ArrayList<>();
+    int folded = 0;
+    long rows = 0;
+    try {
+      long lineNumber = 0;
+      String[] lines = new String[CHUNK_LINES];
+      long[] lineNumbers = new long[CHUNK_LINES];
+      int count = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) continue;
+        if (lineNumber == 1 && format == CatalogFormat.CSV && isCsvHeader(line)) continue;
+        lines[count] = line;
+        lineNumbers[count++] = lineNumber;
+        rows++;
+        if (count == CHUNK_LINES) {
+          chunks.add(submit(workers, inFlight, errors, format, lines, lineNumbers, count));
+          while (folded < chunks.size() && chunks.get(folded).isDone()) errors.fold(get(chunks.get(folded++)));
+          lines = new String[CHUNK_LINES];
+          lineNumbers = new long[CHUNK_LINES];
+          count = 0;
+        }
+      }
+      if (count > 0) chunks.add(submit(workers, inFlight, errors, format, lines, lineNumbers, count));
+      List<Chunk> parsed = new ArrayList<>(chunks.size());
+      for (int i = 0; i < chunks.size(); i++) {
+        Chunk chunk = get(chunks.get(i));
+        if (i >= folded) errors.fold(chunk);
+        parsed.add(chunk);
+      }
+      return merge(format, rows, parsed, errors.reported(), started);
+    } finally {
+      workers.shutdownNow();
+    }
+  }
+
+  private static Future<Chunk> submit(
+      ExecutorService workers,
+      Semaphore inFlight,
+      ErrorBudget errors,
+      CatalogFormat format,
+      String[] lines,
+      long[] lineNumbers,
+      int count
+  ) throws InterruptedIOException {
+    try {
+      inFlight.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Catalog import interrupted");
+    }
+    return workers.submit(() -> {
+      try {
+        return parse(format, errors, lines, lineNumbers, count);
+      } finally {
+        inFlight.release();
+      }
+    });
+  }
+
+  private static Chunk get(Future<Chunk> future) throws InterruptedIOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Catalog import interrupted");
+    } catch (ExecutionException e) {
+      // parse() reports row problems as RowErrors; anything else is a bug
+      throw new IllegalStateException("Catalog import failed", e.getCause());
+    }
+  }
+
+  private static Chunk parse(CatalogFormat format, ErrorBudget errors, String[] lines, long[] lineNumbers, int count) {
+    var chunk = new Chunk(count, errors);
+    for (int i = 0; i < count; i++) {
+      try {
+        Product product = format == CatalogFormat.CSV ? parseCsv(lines[i]) : parseJson(lines[i]);
+        chunk.add(product, lineNumbers[i]);
+      } catch (IllegalArgumentException e) {
+        chunk.reject(lineNumbers[i], e.getMessage(), lines[i]);
+      }
+    }
+    return chunk;
+  }
+
+  /**
+   * Orders all chunks' products by id and drops repeated ids.
+   *
+   * @param reported the first parse errors, in line order
+   */
+  private static CatalogImport merge(
+      CatalogFormat format,
+      long rows,
+      List<Chunk> chunks,
+      List<RowError> reported,
+      long started
+  ) {
+    int total = 0;
+    for (Chunk chunk : chunks) total += chunk.size;
+    long[] ids = new long[total];
+    long[] lines = new long[total];
+    Product[] products = new Product[total];
+    int n = 0;
+    for (Chunk chunk : chunks) {
+      System.arraycopy(chunk.ids, 0, ids, n, chunk.size);
+      System.arraycopy(chunk.lines, 0, lines, n, chunk.size);
+      System.arraycopy(chunk.products, 0, products, n, chunk.size);
+      n += chunk.size;
+    }
+
+    int[] order = new int[total];
+    for (int i = 0; i < total; i++) order[i] = i;
+    if (!strictlyAscending(ids)) sortById(order, ids);
+
+    Product[] unique = new Product[total];
+    int count = 0;
+    // Repeats as (position << 32 | position of the first row); positions follow line order
+    long[] repeats = new long[16];
+    int repeatCount = 0;
+    int first = -1;
+    for (int position : order) {
+      if (first >= 0 && ids[position] == ids[first]) {
+        if (repeatCount == repeats.length) repeats = Arrays.copyOf(repeats, repeatCount * 2);
+        repeats[repeatCount++] = (long) position << 32 | first;
+        continue;
+      }
+      unique[count++] = products[position];
+      first = position;
+    }
+    Arrays.sort(repeats, 0, repeatCount);
+    // Both lists are in line order; merge them up to the reporting limit
+    List<RowError> errors = new ArrayList<>(Math.min(reported.size() + repeatCount, MAX_REPORTED_ERRORS));
+    int parseError = 0;
+    int repeat = 0;
+    while (errors.size() < MAX_REPORTED_ERRORS && (parseError < reported.size() || repeat < repeatCount)) {
+      int position = repeat < repeatCount ? (int) (repeats[repeat] >>> 32) : -1;
+      if (parseError < reported.size() && (position < 0 || reported.get(parseError).line() < lines[position])) {
+        errors.add(reported.get(parseError++));
+      } else {
+        int firstPosition = (int) repeats[repeat++];
+        errors.add(new RowError(lines[position],
+            "duplicate id " + ids[position] + " (first on line " + lines[firstPosition] + ")", null));
+      }
+    }
+    long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+    var report = new CatalogImportReport(format, rows, count, rows - count, List.copyOf(errors), elapsedMs);
+    return new CatalogImport(Collections.unmodifiableList(Arrays.asList(unique).subList(0, count)), report);
+  }
+
+  static Product parseCsv(String line) {
+    String[] fields = new String[4];
+    int field = 0;
+    int i = 0;
+    int length = line.length();
+    while (true) {
+      if (field == fields.length) throw new IllegalArgumentException("expected 4 fields, got more");
+      String value;
+      if (i < length && line.charAt(i) == '"') {
+        var sb = new StringBuilder();
+        i++;
+        while (true) {
+          if (i == length) throw new IllegalArgumentException("unterminated quote");
+          char c = line.charAt(i++);
+          if (c != '"') {
+            sb.append(c);
+          } else if (i < length && line.charAt(i) == '"') {
+            sb.append('"');
+            i++;
+          } else {
+            break;
+          }
+        }
+        if (i < length && line.charAt(i) != ',') throw new IllegalArgumentException("text after closing quote");
+        value = sb.toString();
+      } else {
+        int comma = line.indexOf(',', i);
+        int end = comma < 0 ? length : comma;
+        value = line.substring(i, end).trim();
+        i = end;
+      }
+      fields[field++] = value;
+      if (i == length) break;
+      i++; // the comma
+    }
+    if (field < fields.length) throw new IllegalArgumentException("expected 4 fields, got " + field);
+    return product(parseLong(fields[0], "id"), fields[1], fields[2], parseInt(fields[3], "stock"));
+  }
+
+  static Product parseJson(String line) {
+    Long id = null;
+    String name = null;
+    String price = null;
+    Integer stock = null;
+    try (JsonParser parser = JSON.createParser(line)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) throw new IllegalArgumentException("not a JSON object");
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        JsonToken token = parser.nextToken();
+        switch (field) {
+          case "id" -> id = token == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : parseLong(parser.getText(), "id");
+          case "name" -> name = scalar(parser, token, "name");
+          // Kept as text, so "12.50" and 12.50 parse exactly the same
+          case "price" -> price = scalar(parser, token, "price");
+          case "stock" -> stock = token == JsonToken.VALUE_NUMBER_INT ? parser.getIntValue() : parseInt(parser.getText(), "stock");
+          default -> parser.skipChildren();
+        }
+      }
+      if (parser.currentToken() != JsonToken.END_OBJECT || parser.nextToken() != null) {
+        throw new IllegalArgumentException("malformed JSON");
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("malformed JSON");
+    }
+    if (id == null) throw new IllegalArgumentException("id is missing");
+    if (price == null) throw new IllegalArgumentException("price is missing");
+    if (stock == null) throw new IllegalArgumentException("stock is missing");
+    return product(id, name, price, stock);
+  }
+
+  private static String scalar(JsonParser parser, JsonToken token, String field) throws IOException {
+    if (token == JsonToken.VALUE_NULL) return null;
+    if (token.isStructStart()) throw new IllegalArgumentException(field + " must be a string or number");
+    return parser.getText();
+  }
+
+  private static Product product(long id, String name, String price, int stock) {
+    if (id <= 0) throw new IllegalArgumentException("id must be > 0");
+    Money amount;
+    try {
+      amount = Money.of(price);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("price is not a number");
+    }
+    return new Product(id, name, amount, stock);
+  }
+
+  private static long parseLong(String value, String field) {
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(field + " is not an integer");
+    }
+  }
+
+  private static int parseInt(String value, String field) {
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(field + " is not an integer");
+    }
+  }
+
+  private static boolean isCsvHeader(String line) {
+    return line.replace(" ", "").equalsIgnoreCase(CSV_HEADER);
+  }
+
+  private static boolean strictlyAscending(long[] ids) {
+    for (int i = 1; i < ids.length; i++) {
+      if (ids[i] <= ids[i - 1]) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Stable merge sort of positions by id, so a repeated id's first row comes first.
+   */
+  private static void sortById(int[] positions, long[] ids) {
+    int[] buffer = new int[positions.length];
+    for (int width = 1; width < positions.length; width *= 2) {
+      for (int lo = 0; lo < positions.length; lo += 2 * width) {
+        int mid = Math.min(lo + width, positions.length);
+        int hi = Math.min(lo + 2 * width, positions.length);
+        int i = lo;
+        int j = mid;
+        int k = lo;
+        while (i < mid && j < hi) buffer[k++] = ids[positions[j]] < ids[positions[i]] ? positions[j++] : positions[i++];
+        while (i < mid) buffer[k++] = positions[i++];
+        while (j < hi) buffer[k++] = positions[j++];
+      }
+      System.arraycopy(buffer, 0, positions, 0, positions.length);
+    }
+  }
+
+  /**
+   * The first {@value #MAX_REPORTED_ERRORS} parse errors of the file. Chunks are folded in line
+   * order, so once it is full no later row can make the list and workers stop keeping row text.
+   */
+  private static final class ErrorBudget {
+    private final List<RowError> reported = new ArrayList<>();
+    private volatile boolean full;
+
+    boolean full() {
+      return full;
+    }
+
+    /**
+     * Called on the reading thread, once per chunk, in chunk order.
+     */
+    void fold(Chunk chunk) {
+      for (RowError error : chunk.errors) {
+        if (reported.size() == MAX_REPORTED_ERRORS) break;
+        reported.add(error);
+      }
+      chunk.errors.clear();
+      if (reported.size() == MAX_REPORTED_ERRORS) full = true;
+    }
+
+    List<RowError> reported() {
+      return reported;
+    }
+  }
+
+  /**
+   * Parsed products of one chunk, parallel arrays in line order.
+   */
+  private static final class Chunk {
+    final long[] ids;
+    final long[] lines;
+    final Product[] products;
+    final List<RowError> errors = new ArrayList<>();
+    private final ErrorBudget budget;
+    int size;
+
+    Chunk(int capacity, ErrorBudget budget) {
+      this.ids = new long[capacity];
+      this.lines = new long[capacity];
+      this.products = new Product[capacity];
+      this.budget = budget;
+    }
+
+    void add(Product product, long line) {
+      ids[size] = product.getId();
+      lines[size] = line;
+      products[size++] = product;
+    }
+
+    void reject(long line, String reason, String row) {
+      // Only the first MAX_REPORTED_ERRORS of the whole file are reported; no chunk needs more, and
+      // none at all once earlier chunks have filled the budget. The row is counted either way.
+      if (!budget.full() && errors.size() < MAX_REPORTED_ERRORS) {
+        errors.add(new RowError(line, reason, row.length() > MAX_ROW_CHARS ? row.substring(0, MAX_ROW_CHARS) : row));
+      }
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package com.minicommerce.backend.repository.journal;
+
+/**
+ * When journal writes are forced from the page cache to disk.
+ */
+public enum DurabilityMode {
+  /** Never fsync explicitly (only on rotation and shutdown); survives a process crash, not power loss. */
+  NONE,
+  /** A background thread fsyncs every flush interval; a power loss can lose up to one interval. */
+  INTERVAL,
+  /** Writers wait until their records are fsynced; concurrent writers share one fsync (group commit). */
+  SYNC
+}
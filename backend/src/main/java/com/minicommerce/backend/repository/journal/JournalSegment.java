@@ -0,0 +1,89 @@
+package com.minicommerce.backend.repository.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped, fixed-size journal file. The file name is the global position of its first
+ * byte, so positions stay comparable across segments.
+ */
+final class JournalSegment {
+  private static final String SUFFIX = ".journal";
+
+  private final Path path;
+  private final long basePosition;
+  private final MappedByteBuffer buffer;
+
+  private JournalSegment(Path path, long basePosition, MappedByteBuffer buffer) {
+    this.path = path;
+    this.basePosition = basePosition;
+    this.buffer = buffer;
+  }
+
+  static JournalSegment create(Path directory, long basePosition, int size) {
+    return map(directory.resolve(fileName(basePosition)), basePosition, size);
+  }
+
+  static JournalSegment open(Path path) {
+    try {
+      return map(path, parseBasePosition(path), Math.toIntExact(Files.size(path)));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot open journal segment " + path, e);
+    }
+  }
+
+  private static JournalSegment map(Path path, long basePosition, int size) {
+    try (FileChannel channel = FileChannel.open(
+        path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      // The mapping stays valid after the channel is closed
+      return new JournalSegment(path, basePosition, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot map journal segment " + path, e);
+    }
+  }
+
+  static boolean isSegment(Path path) {
+    return path.getFileName().toString().endsWith(SUFFIX);
+  }
+
+  static long parseBasePosition(Path path) {
+    String name = path.getFileName().toString();
+    return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+  }
+
+  private static String fileName(long basePosition) {
+    return String.format("%020d%s", basePosition, SUFFIX);
+  }
+
+  Path path() {
+    return path;
+  }
+
+  long basePosition() {
+    return basePosition;
+  }
+
+  long endPosition() {
+    return basePosition + buffer.capacity();
+  }
+
+  int capacity() {
+    return buffer.capacity();
+  }
+
+  /**
+   * The mapped memory; callers only use absolute get/put so concurrent readers never share a cursor.
+   */
+  MappedByteBuffer buffer() {
+    return buffer;
+  }
+
+  void force() {
+    buffer.force();
+  }
+}
@@ -0,0 +1,12 @@
+package com.minicommerce.backend.repository.journal;
+
+import com.minicommerce.backend.domain.Order;
+
+/**
+ * Receives journal records in append order during replay.
+ */
+public interface JournalVisitor {
+  void onOrder(Order order);
+
+  void onStockDelta(long productId, int delta);
+}
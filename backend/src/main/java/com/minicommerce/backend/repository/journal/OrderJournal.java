@@ -0,0 +1,408 @@
+package com.minicommerce.backend.repository.journal;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only order journal on memory-mapped, size-rotated segment files.
+ *
+ * <p>Every saved order is written as two fixed-layout 64-byte records: the order itself and the
+ * stock delta it caused. Records of one {@link #append} call form a batch; only the last record of
+ * a batch carries the end-of-batch flag, so replay drops a batch torn by a crash as a whole.
+ *
+ * <p>Record layout (big-endian):
+ * <pre>
+ *  0 type (1 = order, 2 = stock delta)   1 unit price scale   2 total price scale   3 flags
+ *  4 CRC32C of all other bytes            8 order id          16 product id
+ * 24 quantity / stock delta              28 createdAt nanos   32 createdAt epoch seconds
+ * 40 unit price minor units              48 total price minor units
+ * 56 currency code (3 ASCII bytes)       59 reserved
+ * </pre>
+ * The price scales are the currency's decimal places.
+ */
+@Slf4j
+public final class OrderJournal implements Closeable {
+  static final int RECORD_SIZE = 64;
+
+  private static final byte TYPE_ORDER = 1;
+  private static final byte TYPE_STOCK_DELTA = 2;
+  private static final byte FLAG_END_OF_BATCH = 1;
+
+  private final Path directory;
+  private final int segmentSize;
+  private final DurabilityMode durability;
+  private final ReentrantLock appendLock = new ReentrantLock();
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private final AtomicLong durablePosition = new AtomicLong();
+  private final ScheduledExecutorService flusher;
+
+  // Guarded by appendLock
+  private JournalSegment current;
+  private int writeOffset;
+  private long position;
+  private boolean closed;
+
+  private OrderJournal(
+      Path directory,
+      int segmentSize,
+      DurabilityMode durability,
+      long flushIntervalMs,
+      JournalSegment current,
+      int writeOffset
+  ) {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.durability = durability;
+    this.current = current;
+    this.writeOffset = writeOffset;
+    this.position = current.basePosition() + writeOffset;
+    this.durablePosition.set(position);
+    if (durability == DurabilityMode.INTERVAL) {
+      this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "order-journal-flusher");
+        t.setDaemon(true);
+        return t;
+      });
+      flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    } else {
+      this.flusher = null;
+    }
+  }
+
+  /**
+   * Opens (or creates) the journal in {@code directory}, replaying every committed batch at or
+   * after {@code fromPosition} into {@code visitor} before returning. A torn batch at the tail is
+   * discarded and overwritten.
+   *
+   * @param fromPosition where replay starts, e.g. the position covered by a snapshot; 0 for all
+   */
+  public static OrderJournal open(
+      Path directory,
+      int segmentSize,
+      DurabilityMode durability,
+      long flushIntervalMs,
+      long fromPosition,
+      JournalVisitor visitor
+  ) {
+    if (segmentSize < RECORD_SIZE * 1024) {
+      throw new IllegalArgumentException("segment size must be at least " + RECORD_SIZE * 1024 + " bytes");
+    }
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot create journal directory " + directory, e);
+    }
+
+    List<Path> paths = listSegments(directory).stream()
+        .filter(p -> JournalSegment.parseBasePosition(p) + sizeOf(p) > fromPosition)
+        .toList();
+    if (paths.isEmpty()) {
+      JournalSegment first = JournalSegment.create(directory, fromPosition, segmentSize);
+      return new OrderJournal(directory, segmentSize, durability, flushIntervalMs, first, 0);
+    }
+
+    JournalSegment segment = null;
+    int end = 0;
+    for (int i = 0; i < paths.size(); i++) {
+      segment = JournalSegment.open(paths.get(i));
+      int startOffset = (int) Math.max(0, fromPosition - segment.basePosition());
+      boolean last = i == paths.size() - 1;
+      end = replaySegment(segment, startOffset, last, visitor);
+    }
+    log.info("Replayed order journal in {} from position {} up to {}",
+        directory, fromPosition, segment.basePosition() + end);
+    return new OrderJournal(directory, segmentSize, durability, flushIntervalMs, segment, end);
+  }
+
+  /**
+   * The position just past the last appended batch. Read it while appends are excluded (e.g.
+   * under the caller's write lock) to get a consistent cut for a snapshot.
+   */
+  public long position() {
+    appendLock.lock();
+    try {
+      return position;
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  /**
+   * Deletes segment files that lie entirely before {@code position}; the active segment is kept.
+   */
+  public void deleteSegmentsBefore(long position) {
+    long activeBase;
+    appendLock.lock();
+    try {
+      activeBase = current.basePosition();
+    } finally {
+      appendLock.unlock();
+    }
+    for (Path path : listSegments(directory)) {
+      long base = JournalSegment.parseBasePosition(path);
+      if (base == activeBase || base + sizeOf(path) > position) continue;
+      try {
+        Files.deleteIfExists(path);
+        log.info("Deleted order journal segment {} covered by snapshot", path);
+      } catch (IOException e) {
+        log.warn("Cannot delete order journal segment {}", path, e);
+      }
+    }
+  }
+
+  /**
+   * Appends the orders (ids already assigned) and their stock deltas as one batch.
+   *
+   * @return the journal position just past the batch, for {@link #awaitDurable}
+   */
+  public long append(List<Order> orders) {
+    int size = orders.size() * 2 * RECORD_SIZE;
+    if (size > segmentSize) {
+      throw new IllegalArgumentException("batch of " + orders.size() + " orders does not fit in one journal segment");
+    }
+    appendLock.lock();
+    try {
+      if (closed) throw new IllegalStateException("journal is closed");
+      if (writeOffset + size > current.capacity()) rotate();
+
+      ByteBuffer buf = current.buffer();
+      int offset = writeOffset;
+      for (int i = 0; i < orders.size(); i++) {
+        Order order = orders.get(i);
+        writeOrder(buf, offset, order);
+        offset += RECORD_SIZE;
+        writeStockDelta(buf, offset, order.getProductId(), -order.getQuantity(), i == orders.size() - 1);
+        offset += RECORD_SIZE;
+      }
+      writeOffset = offset;
+      position = current.basePosition() + offset;
+      return position;
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  /**
+   * In {@link DurabilityMode#SYNC} mode, blocks until everything up to {@code target} is on disk.
+   * Writers arriving while an fsync is in progress are covered by the next one.
+   */
+  public void awaitDurable(long target) {
+    if (durability == DurabilityMode.SYNC && durablePosition.get() < target) {
+      forceUpTo(target);
+    }
+  }
+
+  /**
+   * Forces everything appended so far to disk.
+   */
+  public void flush() {
+    long target;
+    appendLock.lock();
+    try {
+      target = position;
+    } finally {
+      appendLock.unlock();
+    }
+    forceUpTo(target);
+  }
+
+  private void forceUpTo(long target) {
+    flushLock.lock();
+    try {
+      if (durablePosition.get() >= target) return;
+      JournalSegment segment;
+      long end;
+      appendLock.lock();
+      try {
+        segment = current;
+        end = position;
+      } finally {
+        appendLock.unlock();
+      }
+      // A rotation in between already forced the older segment, so forcing the captured one is enough
+      segment.force();
+      durablePosition.accumulateAndGet(end, Math::max);
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      log.error("Order journal flush failed", e);
+    }
+  }
+
+  private void rotate() {
+    current.force();
+    durablePosition.accumulateAndGet(position, Math::max);
+    current = JournalSegment.create(directory, current.endPosition(), segmentSize);
+    writeOffset = 0;
+    log.info("Rotated order journal to {}", current.path());
+  }
+
+  @Override
+  public void close() {
+    if (flusher != null) flusher.shutdownNow();
+    appendLock.lock();
+    try {
+      if (closed) return;
+      closed = true;
+      current.force();
+      durablePosition.accumulateAndGet(position, Math::max);
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  private static long sizeOf(Path path) {
+    try {
+      return Files.size(path);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot stat journal segment " + path, e);
+    }
+  }
+
+  private static List<Path> listSegments(Path directory) {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(JournalSegment::isSegment)
+          .sorted(Comparator.comparingLong(JournalSegment::parseBasePosition))
+          .toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot list journal directory " + directory, e);
+    }
+  }
+
+  /**
+   * Replays committed batches of one segment, starting at a batch boundary.
+   *
+   * @return the offset just past the last committed batch
+   */
+  private static int replaySegment(JournalSegment segment, int startOffset, boolean last, JournalVisitor visitor) {
+    ByteBuffer buf = segment.buffer();
+    List<Integer> pending = new ArrayList<>();
+    int committed = startOffset;
+    int offset = startOffset;
+    while (offset + RECORD_SIZE <= segment.capacity()) {
+      if (buf.get(offset) == 0) break;
+      if (!checksumMatches(buf, offset)) {
+        if (!last) throw new IllegalStateException("Corrupt order journal record in " + segment.path() + " at " + offset);
+        log.warn("Discarding torn order journal tail in {} at offset {}", segment.path(), offset);
+        break;
+      }
+      pending.add(offset);
+      offset += RECORD_SIZE;
+      if ((buf.get(offset - RECORD_SIZE + 3) & FLAG_END_OF_BATCH) != 0) {
+        for (int recordOffset : pending) apply(buf, recordOffset, visitor);
+        pending.clear();
+        committed = offset;
+      }
+    }
+    if (!pending.isEmpty() && !last) {
+      throw new IllegalStateException("Incomplete batch at the end of order journal segment " + segment.path());
+    }
+    if (last && committed < segment.capacity() && buf.get(committed) != 0) {
+      // Wipe the torn tail so a later, shorter batch can never be read together with its leftovers
+      for (int i = committed; i < segment.capacity(); i++) buf.put(i, (byte) 0);
+      segment.force();
+    }
+    return committed;
+  }
+
+  private static void apply(ByteBuffer buf, int offset, JournalVisitor visitor) {
+    byte type = buf.get(offset);
+    if (type == TYPE_ORDER) {
+      Currency currency = readCurrency(buf, offset + 56);
+      visitor.onOrder(new Order(
+          buf.getLong(offset + 8),
+          buf.getLong(offset + 16),
+          buf.getInt(offset + 24),
+          Money.ofUnscaled(buf.getLong(offset + 40), buf.get(offset + 1), currency),
+          Money.ofUnscaled(buf.getLong(offset + 48), buf.get(offset + 2), currency),
+          Instant.ofEpochSecond(buf.getLong(offset + 32), buf.getInt(offset + 28))
+      ));
+    } else if (type == TYPE_STOCK_DELTA) {
+      visitor.onStockDelta(buf.getLong(offset + 16), buf.getInt(offset + 24));
+    } else {
+      throw new IllegalStateException("Unknown order journal record type " + type);
+    }
+  }
+
+  private static void writeOrder(ByteBuffer buf, int offset, Order order) {
+    buf.put(offset, TYPE_ORDER);
+    buf.put(offset + 1, (byte) order.getUnitPrice().scale());
+    buf.put(offset + 2, (byte) order.getTotalPrice().scale());
+    buf.put(offset + 3, (byte) 0);
+    buf.putLong(offset + 8, order.getId());
+    buf.putLong(offset + 16, order.getProductId());
+    buf.putInt(offset + 24, order.getQuantity());
+    buf.putInt(offset + 28, order.getCreatedAt().getNano());
+    buf.putLong(offset + 32, order.getCreatedAt().getEpochSecond());
+    buf.putLong(offset + 40, order.getUnitPrice().minorUnits());
+    buf.putLong(offset + 48, order.getTotalPrice().minorUnits());
+    buf.putLong(offset + 56, 0L);
+    writeCurrency(buf, offset + 56, order.getUnitPrice().currency());
+    buf.putInt(offset + 4, checksum(buf, offset));
+  }
+
+  private static void writeStockDelta(ByteBuffer buf, int offset, long productId, int delta, boolean endOfBatch) {
+    buf.put(offset, TYPE_STOCK_DELTA);
+    buf.put(offset + 1, (byte) 0);
+    buf.put(offset + 2, (byte) 0);
+    buf.put(offset + 3, endOfBatch ? FLAG_END_OF_BATCH : 0);
+    buf.putLong(offset + 8, 0L);
+    buf.putLong(offset + 16, productId);
+    buf.putInt(offset + 24, delta);
+    buf.putInt(offset + 28, 0);
+    buf.putLong(offset + 32, 0L);
+    buf.putLong(offset + 40, 0L);
+    buf.putLong(offset + 48, 0L);
+    buf.putLong(offset + 56, 0L);
+    buf.putInt(offset + 4, checksum(buf, offset));
+  }
+
+  private static void writeCurrency(ByteBuffer buf, int offset, Currency currency) {
+    byte[] code = currency.getCurrencyCode().getBytes(StandardCharsets.US_ASCII);
+    buf.put(offset, code, 0, 3);
+  }
+
+  private static Currency readCurrency(ByteBuffer buf, int offset) {
+    byte[] code = new byte[3];
+    buf.get(offset, code);
+    return Currency.getInstance(new String(code, StandardCharsets.US_ASCII));
+  }
+
+  private static int checksum(ByteBuffer buf, int offset) {
+    CRC32C crc = new CRC32C();
+    crc.update(buf.slice(offset, 4));
+    crc.update(buf.slice(offset + 8, RECORD_SIZE - 8));
+    return (int) crc.getValue();
+  }
+
+  private static boolean checksumMatches(ByteBuffer buf, int offset) {
+    return buf.getInt(offset + 4) == checksum(buf, offset);
+  }
+}
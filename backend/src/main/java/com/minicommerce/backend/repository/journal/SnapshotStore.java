@@ -0,0 +1,278 @@
+package com.minicommerce.backend.repository.journal;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Point-in-time snapshots of catalog stock and orders, so startup only replays the journal tail.
+ *
+ * <p>A snapshot file is named after the journal position it covers. Layout: magic, journal
+ * position, last order id, products (id, name, price, stock), then orders 1..lastOrderId with the
+ * id implied and numbers as varints (createdAt as a delta from the previous order), followed by a
+ * CRC32C of everything before it. Files are written to a temp name, forced to disk and renamed
+ * into place, and the directory is forced after the rename: the caller deletes journal segments
+ * the snapshot covers as soon as {@link #write} returns.
+ *
+ * <p>Amounts are a currency code and minor units; an order's unit and total price share its
+ * currency code.
+ */
+@Slf4j
+public final class SnapshotStore {
+  private static final String SUFFIX = ".snapshot";
+  private static final long MAGIC = 0x4D43534E41503032L; // "MCSNAP02"
+
+  public record ProductState(long id, String name, Money price, int stock) {}
+
+  private record Contents(long journalPosition, List<ProductState> products, List<Order> orders) {}
+
+  public interface Visitor {
+    void onProduct(ProductState product);
+
+    void onOrder(Order order);
+  }
+
+  private final Path directory;
+  private final int retain;
+
+  public SnapshotStore(Path directory, int retain) {
+    if (retain < 1) throw new IllegalArgumentException("retain must be >= 1");
+    this.directory = directory;
+    this.retain = retain;
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot create snapshot directory " + directory, e);
+    }
+  }
+
+  /**
+   * Writes a snapshot covering the journal up to {@code journalPosition}.
+   *
+   * @param orders returns the order for every id in 1..lastOrderId
+   * @return the snapshot size in bytes
+   */
+  public long write(long journalPosition, long lastOrderId, List<ProductState> products, LongFunction<Order> orders) {
+    Path target = directory.resolve(String.format("%020d%s", journalPosition, SUFFIX));
+    Path tmp = directory.resolve(target.getFileName() + ".tmp");
+    try {
+      CRC32C crc = new CRC32C();
+      try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING)) {
+        OutputStream file = Channels.newOutputStream(channel);
+        var checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc);
+        var out = new DataOutputStream(checked);
+        out.writeLong(MAGIC);
+        out.writeLong(journalPosition);
+        out.writeLong(lastOrderId);
+        out.writeInt(products.size());
+        for (ProductState p : products) {
+          out.writeLong(p.id());
+          byte[] name = p.name().getBytes(StandardCharsets.UTF_8);
+          writeVarLong(out, name.length);
+          out.write(name);
+          writeCurrency(out, p.price().currency());
+          writeVarLong(out, zigZag(p.price().minorUnits()));
+          out.writeInt(p.stock());
+        }
+        long previousSecond = 0;
+        for (long id = 1; id <= lastOrderId; id++) {
+          Order order = orders.apply(id);
+          if (order == null) throw new IllegalStateException("Order " + id + " missing while snapshotting");
+          writeVarLong(out, order.getProductId());
+          writeVarLong(out, order.getQuantity());
+          writeCurrency(out, order.getUnitPrice().currency());
+          writeVarLong(out, zigZag(order.getUnitPrice().minorUnits()));
+          writeVarLong(out, zigZag(order.getTotalPrice().minorUnits()));
+          writeVarLong(out, zigZag(order.getCreatedAt().getEpochSecond() - previousSecond));
+          writeVarLong(out, order.getCreatedAt().getNano());
+          previousSecond = order.getCreatedAt().getEpochSecond();
+        }
+        out.flush();
+        // The trailer itself is not part of the checksum
+        new DataOutputStream(file).writeInt((int) crc.getValue());
+        channel.force(true);
+      }
+      Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      forceDirectory();
+      return Files.size(target);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot write snapshot " + target, e);
+    }
+  }
+
+  /**
+   * Loads the newest snapshot that passes its checksum. Nothing is handed to the visitor unless
+   * the whole file is intact.
+   *
+   * @return the journal position the snapshot covers, or empty if there is none
+   */
+  public OptionalLong loadLatest(Visitor visitor) {
+    List<Path> snapshots = list();
+    for (int i = snapshots.size() - 1; i >= 0; i--) {
+      Path path = snapshots.get(i);
+      Contents contents;
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (!checksumMatches(buf)) {
+          log.warn("Ignoring snapshot {} with bad checksum", path);
+          continue;
+        }
+        // Decoded in full first: a file that fails half-way (e.g. an unknown currency code) must
+        // not leave part of its state applied before an older snapshot is tried
+        contents = read(buf);
+      } catch (IOException | RuntimeException e) {
+        log.warn("Ignoring unreadable snapshot {}", path, e);
+        continue;
+      }
+      contents.products().forEach(visitor::onProduct);
+      contents.orders().forEach(visitor::onOrder);
+      return OptionalLong.of(contents.journalPosition());
+    }
+    return OptionalLong.empty();
+  }
+
+  /**
+   * Deletes all but the newest {@code retain} snapshots.
+   *
+   * @return the journal position of the oldest retained snapshot; the journal before it is no
+   *     longer needed
+   */
+  public OptionalLong prune() {
+    List<Path> snapshots = list();
+    for (int i = 0; i < snapshots.size() - retain; i++) {
+      try {
+        Files.deleteIfExists(snapshots.get(i));
+      } catch (IOException e) {
+        log.warn("Cannot delete old snapshot {}", snapshots.get(i), e);
+      }
+    }
+    int oldest = Math.max(0, snapshots.size() - retain);
+    return oldest < snapshots.size()
+        ? OptionalLong.of(positionOf(snapshots.get(oldest)))
+        : OptionalLong.empty();
+  }
+
+  private void forceDirectory() {
+    try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+      dir.force(true);
+    } catch (IOException e) {
+      // Some platforms cannot open a directory for syncing; the rename is then as durable as the OS makes it
+      log.debug("Cannot sync snapshot directory {}", directory, e);
+    }
+  }
+
+  private List<Path> list() {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(p -> p.getFileName().toString().endsWith(SUFFIX))
+          .sorted(Comparator.comparingLong(SnapshotStore::positionOf))
+          .toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot list snapshot directory " + directory, e);
+    }
+  }
+
+  private static long positionOf(Path path) {
+    String name = path.getFileName().toString();
+    return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+  }
+
+  private static boolean checksumMatches(ByteBuffer buf) {
+    int bodySize = buf.limit() - Integer.BYTES;
+    if (bodySize < 0) return false;
+    CRC32C crc = new CRC32C();
+    crc.update(buf.slice(0, bodySize));
+    return buf.getInt(bodySize) == (int) crc.getValue();
+  }
+
+  private static Contents read(ByteBuffer buf) {
+    if (buf.getLong() != MAGIC) throw new IllegalStateException("Not a snapshot file");
+    long journalPosition = buf.getLong();
+    long lastOrderId = buf.getLong();
+    int productCount = buf.getInt();
+    List<ProductState> products = new ArrayList<>(productCount);
+    for (int i = 0; i < productCount; i++) {
+      long id = buf.getLong();
+      byte[] name = new byte[(int) readVarLong(buf)];
+      buf.get(name);
+      Currency currency = readCurrency(buf);
+      Money price = Money.ofMinor(unZigZag(readVarLong(buf)), currency);
+      products.add(new ProductState(id, new String(name, StandardCharsets.UTF_8), price, buf.getInt()));
+    }
+    // Every order takes at least one byte, so a corrupt count cannot size the list past the file
+    List<Order> orders = new ArrayList<>((int) Math.min(lastOrderId, buf.remaining()));
+    long previousSecond = 0;
+    for (long id = 1; id <= lastOrderId; id++) {
+      long productId = readVarLong(buf);
+      int quantity = (int) readVarLong(buf);
+      Currency currency = readCurrency(buf);
+      Money unitPrice = Money.ofMinor(unZigZag(readVarLong(buf)), currency);
+      Money totalPrice = Money.ofMinor(unZigZag(readVarLong(buf)), currency);
+      long second = previousSecond + unZigZag(readVarLong(buf));
+      int nanos = (int) readVarLong(buf);
+      orders.add(new Order(id, productId, quantity, unitPrice, totalPrice, Instant.ofEpochSecond(second, nanos)));
+      previousSecond = second;
+    }
+    return new Contents(journalPosition, products, orders);
+  }
+
+  private static void writeCurrency(DataOutputStream out, Currency currency) throws IOException {
+    out.write(currency.getCurrencyCode().getBytes(StandardCharsets.US_ASCII), 0, 3);
+  }
+
+  private static Currency readCurrency(ByteBuffer buf) {
+    byte[] code = new byte[3];
+    buf.get(code);
+    return Currency.getInstance(new String(code, StandardCharsets.US_ASCII));
+  }
+
+  private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  private static long readVarLong(ByteBuffer buf) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = buf.get();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) return value;
+    }
+    throw new IllegalStateException("Malformed varint");
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -0,0 +1,99 @@
+package com.minicommerce.backend.service;
+
+import com.minicommerce.backend.config.InventoryConfig;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.ProductRepository;
+import com.minicommerce.backend.repository.catalog.CatalogFormat;
+import com.minicommerce.backend.repository.catalog.CatalogImportReport;
+import com.minicommerce.backend.repository.catalog.CatalogImporter;
+import com.minicommerce.backend.repository.catalog.CatalogImporter.CatalogImport;
+import com.minicommerce.backend.web.constants.ErrorMessages;
+import com.minicommerce.backend.web.error.CatalogImportConflictException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Replaces the whole catalog from an uploaded file.
+ *
+ * <p>The file is parsed in full before anything changes; then the configured products are striped
+ * again, the product repository swaps in the new catalog and the read model is rebuilt from it.
+ * Until the swap, orders and reads see the old catalog. The file's stock replaces live stock; an
+ * order that reserved from an old product just before the swap is saved but does not reduce the
+ * new product's stock. One import runs at a time.
+ *
+ * <p>Not available with the journal order store: the journal replays stock onto the catalog that
+ * was loaded at startup, so a catalog swapped in later would not survive a restart.
+ */
+@Slf4j
+@Service
+public class CatalogImportService {
+  private final ProductRepository productRepository;
+  private final CatalogReadModel catalogReadModel;
+  private final InventoryConfig inventoryConfig;
+  private final CatalogImporter importer;
+  private final boolean journaled;
+  private final ReentrantLock importing = new ReentrantLock();
+  private final LongAdder imports;
+  private final LongAdder importedRows;
+  private final LongAdder rejectedRows;
+  private final AtomicLong lastImportMs = new AtomicLong();
+
+  public CatalogImportService(
+      ProductRepository productRepository,
+      CatalogReadModel catalogReadModel,
+      InventoryConfig inventoryConfig,
+      MetricsRegistry metrics,
+      @Value("${app.catalog.import-parallelism:0}") int parallelism,
+      @Value("${app.orders.store:memory}") String orderStore
+  ) {
+    this.productRepository = productRepository;
+    this.catalogReadModel = catalogReadModel;
+    this.inventoryConfig = inventoryConfig;
+    this.importer = new CatalogImporter(parallelism);
+    this.journaled = orderStore.equals("journal");
+    this.imports = metrics.counter("catalog_imports_total");
+    this.importedRows = metrics.counter("catalog_import_rows_total");
+    this.rejectedRows = metrics.counter("catalog_import_rejected_total");
+    metrics.gauge("catalog_import_last_ms", lastImportMs::get);
+    metrics.gauge("catalog_products", () -> productRepository.findAll().size());
+  }
+
+  /**
+   * @throws IllegalArgumentException if no row is valid; the catalog is left as it was
+   * @throws CatalogImportConflictException if another import is running or imports are unavailable
+   */
+  public CatalogImportReport importCatalog(InputStream in, CatalogFormat format) throws IOException {
+    if (journaled) throw new CatalogImportConflictException(ErrorMessages.CATALOG_IMPORT_JOURNALED);
+    if (!importing.tryLock()) throw new CatalogImportConflictException(ErrorMessages.CATALOG_IMPORT_RUNNING);
+    try {
+      long started = System.nanoTime();
+      CatalogImport result = importer.read(in, format);
+      CatalogImportReport report = result.report();
+      rejectedRows.add(report.rejected());
+      if (result.products().isEmpty()) {
+        String firstError = report.errors().isEmpty() ? "" : "; line " + report.errors().get(0).line()
+            + ": " + report.errors().get(0).reason();
+        throw new IllegalArgumentException("No valid rows, the catalog was not changed (" + report.rejected()
+            + " rejected" + firstError + ")");
+      }
+      inventoryConfig.enableStriping(result.products());
+      productRepository.replaceAll(result.products());
+      catalogReadModel.rebuild();
+      imports.increment();
+      importedRows.add(report.imported());
+      lastImportMs.set((System.nanoTime() - started) / 1_000_000);
+      log.info("Catalog replaced: {} products imported in {} ms ({} rows/s), {} rows rejected, live after {} ms",
+          report.imported(), report.elapsedMs(), Math.round(report.rowsPerSecond()), report.rejected(),
+          lastImportMs.get());
+      return report;
+    } finally {
+      importing.unlock();
+    }
+  }
+}
@@ -0,0 +1,233 @@
+package com.minicommerce.backend.service;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.ProductRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read model behind {@code GET /products}: one immutable view per product, kept in id order.
+ *
+ * <p>When an order commits, only the entries of the products it touched are replaced with their
+ * current stock; reads never rebuild the list. A full rebuild happens on first use and when an
+ * update names a product the model has not seen yet.
+ *
+ * <p>Each build also carries a {@link ProductSearchIndex} for {@link #search}; stock changes
+ * update its in-stock bitset along with the entry.
+ *
+ * <p>Every change is stamped with the next catalog version. Entries are published before the
+ * catalog version that covers them, so a reader that saw version {@code v} has seen every change
+ * up to {@code v}.
+ *
+ * <p>Versions are not persisted; each boot starts counting from its start time shifted left by
+ * {@link #VERSION_BITS_PER_MS}, so versions handed out before a restart stay below every version
+ * after it (unless the previous run averaged over a thousand changes per millisecond of uptime).
+ */
+@Component
+public class CatalogReadModel {
+  static final int VERSION_BITS_PER_MS = 10;
+
+  /**
+   * {@code version} is the catalog version of the last change to this product.
+   */
+  public record ProductView(long id, String name, Money price, int stock, long version) {}
+
+  /**
+   * {@code baseVersion} is the version of the last full rebuild; changes since an older version
+   * cannot be expressed as a delta because products may have been removed.
+   */
+  public record Snapshot(long version, long baseVersion, List<ProductView> products) {
+
+    public List<ProductView> changedSince(long sinceVersion) {
+      return products.stream().filter(view -> view.version() > sinceVersion).toList();
+    }
+  }
+
+  /**
+   * {@code ids} is sorted and parallel to {@code views}.
+   */
+  private record Catalog(long[] ids, AtomicReferenceArray<ProductView> views, ProductSearchIndex search, long baseVersion) {}
+
+  private final ProductRepository productRepository;
+  private final LongAdder reads;
+  private final LongAdder misses;
+  private final LongAdder rebuilds;
+  private final LongAdder updates;
+  private final LongAdder searches;
+  private final ReentrantLock writeLock = new ReentrantLock();
+  // One rebuild at a time, so a rebuild that read the repository earlier never publishes last
+  private final ReentrantLock rebuildLock = new ReentrantLock();
+  private long nextVersion;
+  private volatile long version;
+  private volatile Catalog catalog;
+
+  @Autowired
+  public CatalogReadModel(ProductRepository productRepository, MetricsRegistry metrics) {
+    this(productRepository, metrics, System.currentTimeMillis());
+  }
+
+  /**
+   * {@code bootEpochMs} seeds the version counter; pass a later value to model a restart.
+   */
+  public CatalogReadModel(ProductRepository productRepository, MetricsRegistry metrics, long bootEpochMs) {
+    this.productRepository = productRepository;
+    // Stays below 2^53 until the 23rd century, so JSON clients read versions exactly
+    this.nextVersion = bootEpochMs << VERSION_BITS_PER_MS;
+    this.version = nextVersion;
+    this.reads = metrics.counter("catalog_reads_total");
+    this.misses = metrics.counter("catalog_misses_total");
+    this.rebuilds = metrics.counter("catalog_rebuilds_total");
+    this.updates = metrics.counter("catalog_updates_total");
+    this.searches = metrics.counter("catalog_searches_total");
+    metrics.gauge("catalog_version", () -> version);
+  }
+
+  public List<ProductView> list() {
+    return snapshot().products();
+  }
+
+  public Snapshot snapshot() {
+    current();
+    // Read the version before the catalog: a rebuild publishes its catalog and then its version, so
+    // entries read afterwards are at least as new as the version claims
+    long v = version;
+    Catalog c = catalog;
+    reads.increment();
+    List<ProductView> views = new ArrayList<>(c.ids().length);
+    for (int i = 0; i < c.ids().length; i++) {
+      views.add(c.views().get(i));
+    }
+    return new Snapshot(v, c.baseVersion(), views);
+  }
+
+  /**
+   * One page of products matching {@code query}; see {@link ProductSearchIndex}.
+   *
+   * @throws IllegalArgumentException on a malformed cursor
+   */
+  public ProductSearchPage search(ProductQuery query) {
+    Catalog c = current();
+    searches.increment();
+    ProductSearchIndex.Hits hits = c.search().find(query, slot -> c.views().get(slot).stock() > 0);
+    List<ProductView> views = new ArrayList<>(hits.slots().length);
+    for (int slot : hits.slots()) views.add(c.views().get(slot));
+    return new ProductSearchPage(views, hits.nextCursor());
+  }
+
+  public long version() {
+    current();
+    return version;
+  }
+
+  /**
+   * Refreshes the entry of one product from its live stock.
+   */
+  public void applyStockChange(long productId) {
+    if (Arrays.binarySearch(current().ids(), productId) < 0 && rebuildFor(productId)) return;
+    writeLock.lock();
+    try {
+      // A rebuild may have published a new catalog since; look the product up in the current one
+      Catalog c = catalog;
+      int slot = Arrays.binarySearch(c.ids(), productId);
+      Product product = productRepository.findById(productId).orElse(null);
+      if (slot < 0 || product == null) return;
+      // Stock is read under the lock, so the last writer always publishes the latest value
+      long v = ++nextVersion;
+      ProductView updated = view(product, v);
+      c.views().set(slot, updated);
+      c.search().setInStock(slot, updated.stock() > 0);
+      version = v;
+    } finally {
+      writeLock.unlock();
+    }
+    updates.increment();
+  }
+
+  /**
+   * Rebuilds every entry from the repository.
+   *
+   * <p>Entries and the search index are built without the lock, so stock changes are not held up
+   * by a large catalog; under the lock only products whose stock moved meanwhile are refreshed.
+   */
+  public void rebuild() {
+    rebuildLock.lock();
+    try {
+      List<Product> products = productRepository.findAll();
+      long builtAt = version;
+      long[] ids = new long[products.size()];
+      List<ProductView> list = new ArrayList<>(products.size());
+      for (int i = 0; i < products.size(); i++) {
+        ids[i] = products.get(i).getId();
+        list.add(view(products.get(i), builtAt));
+      }
+      var views = new AtomicReferenceArray<>(list.toArray(ProductView[]::new));
+      ProductSearchIndex search = ProductSearchIndex.build(ids, list);
+
+      writeLock.lock();
+      try {
+        long v = ++nextVersion;
+        for (int i = 0; i < ids.length; i++) {
+          Product product = products.get(i);
+          if (product.getStock() != list.get(i).stock()) {
+            ProductView updated = view(product, v);
+            views.set(i, updated);
+            search.setInStock(i, updated.stock() > 0);
+          }
+        }
+        catalog = new Catalog(ids, views, search, v);
+        version = v;
+      } finally {
+        writeLock.unlock();
+      }
+    } finally {
+      rebuildLock.unlock();
+    }
+    rebuilds.increment();
+  }
+
+  /**
+   * Rebuilds for a product the model has not seen, unless a rebuild that was already running
+   * brought it in.
+   *
+   * @return true if this call rebuilt, so the product's entry is fresh
+   */
+  private boolean rebuildFor(long productId) {
+    misses.increment();
+    rebuildLock.lock();
+    try {
+      if (Arrays.binarySearch(catalog.ids(), productId) >= 0) return false;
+      rebuild();
+      return true;
+    } finally {
+      rebuildLock.unlock();
+    }
+  }
+
+  private Catalog current() {
+    Catalog c = catalog;
+    if (c == null) {
+      // Built lazily so stock recovered by the order store on startup is already in place
+      rebuildLock.lock();
+      try {
+        if (catalog == null) rebuild();
+        c = catalog;
+      } finally {
+        rebuildLock.unlock();
+      }
+    }
+    return c;
+  }
+
+  private static ProductView view(Product product, long version) {
+    return new ProductView(
+        product.getId(), product.getName(), product.getPrice(), product.getStock(), version);
+  }
+}
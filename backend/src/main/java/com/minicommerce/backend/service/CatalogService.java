@@ -1,21 +1,28 @@
 package com.minicommerce.backend.service;
 
-import com.minicommerce.backend.domain.Product;
-import com.minicommerce.backend.repository.ProductRepository;
-import java.util.List;
+import com.minicommerce.backend.service.CatalogReadModel.Snapshot;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public class CatalogService {
-  private final ProductRepository productRepository;
+  public static final int MAX_PAGE_SIZE = 500;
 
-  @Cacheable(value = "products", key = "'all'")
-  public List<Product> listProducts() {
-    return productRepository.findAll();
+  private final CatalogReadModel catalogReadModel;
+
+  public long version() {
+    return catalogReadModel.version();
   }
-}
 
+  public Snapshot snapshot() {
+    return catalogReadModel.snapshot();
+  }
 
+  public ProductSearchPage search(ProductQuery query) {
+    if (query.limit() > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("limit must be at most " + MAX_PAGE_SIZE);
+    }
+    return catalogReadModel.search(query);
+  }
+}
@@ -0,0 +1,45 @@
+package com.minicommerce.backend.service;
+
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.metrics.StageTimer;
+import com.minicommerce.backend.repository.OrderRepository;
+import com.minicommerce.backend.repository.ProductRepository;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Places the order on the calling thread: concurrent requests race on the product's stock CAS.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.orders.intake", havingValue = "direct", matchIfMissing = true)
+public class DirectOrderIntake implements OrderIntake {
+  private final ProductRepository productRepository;
+  private final OrderRepository orderRepository;
+
+  @Override
+  public Order place(long productId, int quantity) {
+    if (quantity <= 0) throw new IllegalArgumentException("quantity must be > 0");
+
+    Product product = Orders.findProduct(productRepository, productId);
+
+    long stage = StageTimer.start();
+    Order order = Orders.newOrder(product, quantity, Instant.now());
+    StageTimer.stop("pricing", stage);
+
+    stage = StageTimer.start();
+    boolean ok = product.tryDecreaseStock(quantity);
+    StageTimer.stop("stock", stage);
+    if (!ok) {
+      throw Orders.insufficientStock(productId, quantity);
+    }
+
+    stage = StageTimer.start();
+    Order saved = orderRepository.save(order);
+    StageTimer.stop("save", stage);
+    return saved;
+  }
+}
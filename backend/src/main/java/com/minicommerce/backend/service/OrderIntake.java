@@ -0,0 +1,15 @@
+package com.minicommerce.backend.service;
+
+import com.minicommerce.backend.domain.Order;
+
+/**
+ * Reserves stock and saves a single-product order. Selected with {@code app.orders.intake}.
+ */
+public interface OrderIntake {
+
+  /**
+   * @throws com.minicommerce.backend.web.error.NotFoundException if the product does not exist
+   * @throws com.minicommerce.backend.web.error.InsufficientStockException if stock is short
+   */
+  Order place(long productId, int quantity);
+}
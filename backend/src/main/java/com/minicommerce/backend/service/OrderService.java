@@ -1,26 +1,33 @@
 package com.minicommerce.backend.service;
 
 import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.domain.OrderLine;
 import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.metrics.StageTimer;
 import com.minicommerce.backend.repository.IdempotencyStore;
+import com.minicommerce.backend.repository.OrderPage;
+import com.minicommerce.backend.repository.OrderQuery;
 import com.minicommerce.backend.repository.OrderRepository;
 import com.minicommerce.backend.repository.ProductRepository;
 import com.minicommerce.backend.web.constants.ErrorMessages;
-import com.minicommerce.backend.web.error.InsufficientStockException;
 import com.minicommerce.backend.web.error.NotFoundException;
-import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
+  public static final int MAX_PAGE_SIZE = 500;
+
   private final ProductRepository productRepository;
   private final OrderRepository orderRepository;
   private final IdempotencyStore idempotencyStore;
-  private final CacheManager cacheManager;
+  private final CatalogReadModel catalogReadModel;
+  private final OrderIntake orderIntake;
+  private final SalesAnalytics salesAnalytics;
 
   /**
    * Create an order with idempotency. Caller must provide a non-blank idempotency key.
@@ -32,51 +39,112 @@ public class OrderService {
     if (idempotencyKey == null || idempotencyKey.isBlank()) {
       throw new IllegalArgumentException(ErrorMessages.IDEMPOTENCY_KEY_REQUIRED);
     }
-    Order order = idempotencyStore.getOrCreate(
-        idempotencyKey,
-        productId,
-        quantity,
-        () -> {
-          Order newOrder = createOrder(productId, quantity);
-          // Clear cache after successful order creation (stock changed)
-          evictProductsCache();
-          return newOrder;
-        }
-    );
-    return order;
+    long stage = StageTimer.start();
+    long nested = StageTimer.recorded();
+    try {
+      return idempotencyStore.getOrCreate(
+          idempotencyKey,
+          productId,
+          quantity,
+          () -> {
+            Order newOrder = orderIntake.place(productId, quantity);
+            // Refresh only the catalog entry whose stock changed
+            long catalog = StageTimer.start();
+            catalogReadModel.applyStockChange(productId);
+            StageTimer.stop("catalog", catalog);
+            long analytics = StageTimer.start();
+            salesAnalytics.record(newOrder);
+            StageTimer.stop("analytics", analytics);
+            return newOrder;
+          }
+      );
+    } finally {
+      StageTimer.stopExclusive("idempotency", stage, nested);
+    }
   }
 
-  private void evictProductsCache() {
-    var cache = cacheManager.getCache("products");
-    if (cache != null) {
-      cache.clear();
+  /**
+   * Check out a multi-line cart under a single idempotency key.
+   *
+   * <p>Stock is reserved for all lines or for none of them: if any line cannot be satisfied, the
+   * units already reserved for earlier lines are returned. Each distinct product is refreshed in
+   * the catalog once per checkout, and the orders are counted in {@link SalesAnalytics}.
+   */
+  public List<Order> createOrdersIdempotent(String idempotencyKey, List<OrderLine> lines) {
+    if (idempotencyKey == null || idempotencyKey.isBlank()) {
+      throw new IllegalArgumentException(ErrorMessages.IDEMPOTENCY_KEY_REQUIRED);
+    }
+    if (lines == null || lines.isEmpty()) {
+      throw new IllegalArgumentException(ErrorMessages.ORDER_LINES_REQUIRED);
+    }
+    long stage = StageTimer.start();
+    long nested = StageTimer.recorded();
+    try {
+      return idempotencyStore.getOrCreateBatch(
+          idempotencyKey,
+          lines,
+          () -> {
+            List<Order> newOrders = createOrders(lines);
+            long catalog = StageTimer.start();
+            lines.stream().mapToLong(OrderLine::productId).distinct().forEach(catalogReadModel::applyStockChange);
+            StageTimer.stop("catalog", catalog);
+            long analytics = StageTimer.start();
+            salesAnalytics.record(newOrders);
+            StageTimer.stop("analytics", analytics);
+            return newOrders;
+          }
+      );
+    } finally {
+      StageTimer.stopExclusive("idempotency", stage, nested);
     }
   }
 
-  private Order createOrder(long productId, int quantity) {
-    if (quantity <= 0) throw new IllegalArgumentException("quantity must be > 0");
+  private List<Order> createOrders(List<OrderLine> lines) {
+    // Resolve every product up front so an unknown id fails before any stock is touched
+    List<Product> products = new ArrayList<>(lines.size());
+    for (OrderLine line : lines) {
+      if (line.quantity() <= 0) throw new IllegalArgumentException("quantity must be > 0");
+      products.add(Orders.findProduct(productRepository, line.productId()));
+    }
 
-    Product product = productRepository
-        .findById(productId)
-        .orElseThrow(() -> new NotFoundException("Product not found: " + productId));
+    // Priced before any stock is reserved, so a total that overflows fails with nothing to undo
+    long stage = StageTimer.start();
+    Instant now = Instant.now();
+    List<Order> orders = new ArrayList<>(lines.size());
+    for (int i = 0; i < lines.size(); i++) {
+      orders.add(Orders.newOrder(products.get(i), lines.get(i).quantity(), now));
+    }
+    Orders.checkoutTotal(orders);
+    StageTimer.stop("pricing", stage);
 
-    boolean ok = product.tryDecreaseStock(quantity);
-    if (!ok) {
-      throw new InsufficientStockException(
-          "Insufficient stock for product " + productId + ", requested " + quantity);
+    stage = StageTimer.start();
+    for (int i = 0; i < lines.size(); i++) {
+      if (!products.get(i).tryDecreaseStock(lines.get(i).quantity())) {
+        releaseStock(products, lines, i);
+        StageTimer.stop("stock", stage);
+        throw Orders.insufficientStock(lines.get(i).productId(), lines.get(i).quantity());
+      }
     }
+    StageTimer.stop("stock", stage);
 
-    BigDecimal total = product.getPrice().multiply(BigDecimal.valueOf(quantity));
-    var order = new Order(
-        0L,
-        product.getId(),
-        quantity,
-        product.getPrice(),
-        total,
-        Instant.now()
-    );
+    stage = StageTimer.start();
+    try {
+      return orderRepository.saveAll(orders);
+    } catch (RuntimeException e) {
+      releaseStock(products, lines, lines.size());
+      throw e;
+    } finally {
+      StageTimer.stop("save", stage);
+    }
+  }
 
-    return orderRepository.save(order);
+  /**
+   * Returns the units reserved for the first {@code count} lines.
+   */
+  private static void releaseStock(List<Product> products, List<OrderLine> lines, int count) {
+    for (int i = 0; i < count; i++) {
+      products.get(i).increaseStock(lines.get(i).quantity());
+    }
   }
 
   public Order getOrder(long orderId) {
@@ -84,6 +152,15 @@ public class OrderService {
         .findById(orderId)
         .orElseThrow(() -> new NotFoundException("Order not found: " + orderId));
   }
-}
-
 
+  /**
+   * One page of orders in id order. {@code to} is exclusive; {@code after} is the previous
+   * page's cursor, or 0.
+   */
+  public OrderPage findOrders(Long productId, Instant from, Instant to, long after, int limit) {
+    if (limit > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("limit must be at most " + MAX_PAGE_SIZE);
+    }
+    return orderRepository.findPage(new OrderQuery(productId, from, to, after, limit));
+  }
+}
@@ -0,0 +1,68 @@
+package com.minicommerce.backend.service;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.repository.ProductRepository;
+import com.minicommerce.backend.web.error.InsufficientStockException;
+import com.minicommerce.backend.web.error.NotFoundException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Helpers shared by the order service and the intake implementations.
+ */
+final class Orders {
+  private Orders() {}
+
+  static Product findProduct(ProductRepository productRepository, long productId) {
+    return productRepository
+        .findById(productId)
+        .orElseThrow(() -> new NotFoundException("Product not found: " + productId));
+  }
+
+  static InsufficientStockException insufficientStock(long productId, int quantity) {
+    return new InsufficientStockException(
+        "Insufficient stock for product " + productId + ", requested " + quantity);
+  }
+
+  /**
+   * Prices an order line. Call before reserving stock: a total that does not fit is rejected.
+   *
+   * @throws IllegalArgumentException if the total overflows
+   */
+  static Order newOrder(Product product, int quantity, Instant createdAt) {
+    return new Order(
+        0L,
+        product.getId(),
+        quantity,
+        product.getPrice(),
+        lineTotal(product, quantity),
+        createdAt
+    );
+  }
+
+  /**
+   * Sum of the orders' totals.
+   *
+   * @throws IllegalArgumentException if the sum overflows
+   */
+  static Money checkoutTotal(List<Order> orders) {
+    Money total = orders.get(0).getTotalPrice();
+    try {
+      for (int i = 1; i < orders.size(); i++) total = total.plus(orders.get(i).getTotalPrice());
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("Checkout total is out of range", e);
+    }
+    return total;
+  }
+
+  private static Money lineTotal(Product product, int quantity) {
+    try {
+      return product.getPrice().times(quantity);
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException(
+          "Order total is out of range for product " + product.getId() + ", quantity " + quantity, e);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.minicommerce.backend.service;
+
+import com.minicommerce.backend.domain.Money;
+
+/**
+ * Search, filter and keyset cursor for {@link CatalogReadModel#search}.
+ *
+ * @param q words that must all start a word of the product name, case-insensitive; null or blank
+ *     for any name
+ * @param minPrice inclusive; null for none
+ * @param maxPrice inclusive; null for none
+ * @param inStock only products with stock left
+ * @param cursor the previous page's {@link ProductSearchPage#nextCursor()}; null for the first page
+ * @param limit page size
+ */
+public record ProductQuery(
+    String q,
+    Money minPrice,
+    Money maxPrice,
+    boolean inStock,
+    Sort sort,
+    String cursor,
+    int limit
+) {
+
+  public enum Sort {
+    ID("id"),
+    PRICE_ASC("price"),
+    PRICE_DESC("-price");
+
+    private final String param;
+
+    Sort(String param) {
+      this.param = param;
+    }
+
+    /**
+     * Parses the {@code sort} request parameter: {@code id}, {@code price} or {@code -price}.
+     */
+    public static Sort fromParam(String param) {
+      for (Sort sort : values()) {
+        if (sort.param.equals(param)) return sort;
+      }
+      throw new IllegalArgumentException("sort must be one of id, price, -price");
+    }
+  }
+
+  public ProductQuery {
+    if (sort == null) sort = Sort.ID;
+    if (limit <= 0) throw new IllegalArgumentException("limit must be > 0");
+    if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+      throw new IllegalArgumentException("minPrice must not be above maxPrice");
+    }
+  }
+}
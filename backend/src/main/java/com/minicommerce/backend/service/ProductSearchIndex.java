@@ -0,0 +1,425 @@
+package com.minicommerce.backend.service;
+
+import com.minicommerce.backend.service.CatalogReadModel.ProductView;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntPredicate;
+
+/**
+ * Search structures over one catalog build, addressed by slot (a product's position in id order):
+ * <ul>
+ *   <li>a sorted dictionary of lower-cased name words, each with the ascending slots of the
+ *       products whose name contains it; a query word matches every term it is a prefix of;
+ *   <li>all slots ordered by price, then id;
+ *   <li>an in-stock bitset.
+ * </ul>
+ * A product's name and price never change, so only the bitset is updated between rebuilds, by the
+ * read model's writer. Prices are compared in minor units: the catalog has a single currency.
+ */
+final class ProductSearchIndex {
+  /**
+   * Up to this many word matches, a price-sorted query sorts them instead of walking the whole
+   * price order.
+   */
+  private static final int SORT_CANDIDATES_MAX = 4096;
+
+  /**
+   * One page in query order, and the cursor after it (null on the last page).
+   */
+  record Hits(int[] slots, String nextCursor) {}
+
+  /**
+   * The terms a query word is a prefix of, {@code [from, to)}, and their total number of postings.
+   */
+  private record TermRange(int from, int to, long postings) {}
+
+  /**
+   * Slots matching a query's words: ascending {@code slots}, or {@code bits} when even the rarest
+   * word matches a large share of the catalog. Never modified; {@code slots} may be a posting.
+   */
+  private record Matches(int[] slots, long[] bits) {
+    int count() {
+      return slots != null ? slots.length : cardinality(bits);
+    }
+
+    boolean contains(int slot) {
+      return slots != null ? Arrays.binarySearch(slots, slot) >= 0 : isSet(bits, slot);
+    }
+
+    /**
+     * The first match at or after {@code from}, or -1.
+     */
+    int next(int from) {
+      if (bits != null) return nextSetBit(bits, from);
+      int i = Arrays.binarySearch(slots, from);
+      if (i < 0) i = -i - 1;
+      return i < slots.length ? slots[i] : -1;
+    }
+
+    int[] toArray() {
+      if (slots != null) return slots.clone();
+      int[] all = new int[cardinality(bits)];
+      int i = 0;
+      for (int slot = nextSetBit(bits, 0); slot >= 0; slot = nextSetBit(bits, slot + 1)) all[i++] = slot;
+      return all;
+    }
+  }
+
+  private final long[] ids;
+  private final long[] prices;
+  private final String[] terms;
+  private final int[][] postings;
+  private final int[] byPrice;
+  private final AtomicLongArray inStock;
+
+  private ProductSearchIndex(long[] ids, long[] prices, String[] terms, int[][] postings, int[] byPrice) {
+    this.ids = ids;
+    this.prices = prices;
+    this.terms = terms;
+    this.postings = postings;
+    this.byPrice = byPrice;
+    this.inStock = new AtomicLongArray((ids.length + 63) >>> 6);
+  }
+
+  /**
+   * @param ids sorted, parallel to {@code views}
+   */
+  static ProductSearchIndex build(long[] ids, List<ProductView> views) {
+    int n = ids.length;
+    long[] prices = new long[n];
+    Map<String, SlotList> words = new HashMap<>();
+    for (int slot = 0; slot < n; slot++) {
+      ProductView view = views.get(slot);
+      prices[slot] = view.price().minorUnits();
+      for (String word : tokens(view.name())) {
+        words.computeIfAbsent(word, w -> new SlotList()).add(slot);
+      }
+    }
+    String[] terms = words.keySet().toArray(String[]::new);
+    Arrays.sort(terms);
+    int[][] postings = new int[terms.length][];
+    for (int i = 0; i < terms.length; i++) postings[i] = words.get(terms[i]).toArray();
+
+    int[] byPrice = new int[n];
+    for (int i = 0; i < n; i++) byPrice[i] = i;
+    sortByPrice(byPrice, prices);
+
+    var index = new ProductSearchIndex(ids, prices, terms, postings, byPrice);
+    for (int slot = 0; slot < n; slot++) index.setInStock(slot, views.get(slot).stock() > 0);
+    return index;
+  }
+
+  /**
+   * Lower-cased runs of letters and digits, e.g. {@code "Night Serum (50ml)"} gives
+   * {@code night, serum, 50ml}.
+   */
+  static List<String> tokens(String text) {
+    List<String> tokens = new ArrayList<>(4);
+    int start = -1;
+    for (int i = 0; i <= text.length(); i++) {
+      boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+      if (wordChar && start < 0) {
+        start = i;
+      } else if (!wordChar && start >= 0) {
+        tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+        start = -1;
+      }
+    }
+    return tokens;
+  }
+
+  /**
+   * Called by the read model's writer only.
+   */
+  void setInStock(int slot, boolean value) {
+    int word = slot >>> 6;
+    long bit = 1L << slot;
+    long current = inStock.get(word);
+    inStock.set(word, value ? current | bit : current & ~bit);
+  }
+
+  /**
+   * @param stockLeft double-checks in-stock hits against the published view, which may be a moment
+   *     ahead of the bitset
+   * @throws IllegalArgumentException on a malformed cursor
+   */
+  Hits find(ProductQuery query, IntPredicate stockLeft) {
+    Matches words = query.q() == null ? null : matchWords(tokens(query.q()));
+    long min = query.minPrice() == null ? Long.MIN_VALUE : query.minPrice().minorUnits();
+    long max = query.maxPrice() == null ? Long.MAX_VALUE : query.maxPrice().minorUnits();
+    IntPredicate accept = slot -> (words == null || words.contains(slot))
+        && prices[slot] >= min && prices[slot] <= max
+        && (!query.inStock() || ((inStock.get(slot >>> 6) & 1L << slot) != 0 && stockLeft.test(slot)));
+    return query.sort() == ProductQuery.Sort.ID
+        ? byId(query, words, accept)
+        : byPrice(query, words, min, max, accept);
+  }
+
+  private Hits byId(ProductQuery query, Matches words, IntPredicate accept) {
+    int slot = 0;
+    if (query.cursor() != null) {
+      slot = firstIdAbove(parseLong(query.cursor()));
+    }
+    int[] page = new int[query.limit()];
+    int count = 0;
+    for (; slot < ids.length; slot++) {
+      if (words != null) {
+        slot = words.next(slot);
+        if (slot < 0) break;
+      }
+      if (!accept.test(slot)) continue;
+      if (count == page.length) return new Hits(page, Long.toString(ids[page[count - 1]]));
+      page[count++] = slot;
+    }
+    return new Hits(Arrays.copyOf(page, count), null);
+  }
+
+  private Hits byPrice(ProductQuery query, Matches words, long min, long max, IntPredicate accept) {
+    int[] order = byPrice;
+    if (words != null && words.count() <= SORT_CANDIDATES_MAX) {
+      order = words.toArray();
+      sortByPrice(order, prices);
+    }
+    long cursorPrice = 0;
+    long cursorId = 0;
+    if (query.cursor() != null) {
+      int colon = query.cursor().indexOf(':');
+      if (colon < 0) throw invalidCursor();
+      cursorPrice = parseLong(query.cursor().substring(0, colon));
+      cursorId = parseLong(query.cursor().substring(colon + 1));
+    }
+
+    int[] page = new int[query.limit()];
+    int count = 0;
+    if (query.sort() == ProductQuery.Sort.PRICE_ASC) {
+      int start = firstNotBelow(order, min, Long.MIN_VALUE);
+      if (query.cursor() != null && cursorId < Long.MAX_VALUE) {
+        start = Math.max(start, firstNotBelow(order, cursorPrice, cursorId + 1));
+      } else if (query.cursor() != null) {
+        start = Math.max(start, firstNotBelow(order, cursorPrice + 1, Long.MIN_VALUE));
+      }
+      for (int i = start; i < order.length && prices[order[i]] <= max; i++) {
+        if (!accept.test(order[i])) continue;
+        if (count == page.length) return new Hits(page, priceCursor(page[count - 1]));
+        page[count++] = order[i];
+      }
+    } else {
+      int end = max == Long.MAX_VALUE ? order.length : firstNotBelow(order, max + 1, Long.MIN_VALUE);
+      if (query.cursor() != null) end = Math.min(end, firstNotBelow(order, cursorPrice, cursorId));
+      for (int i = end - 1; i >= 0 && prices[order[i]] >= min; i--) {
+        if (!accept.test(order[i])) continue;
+        if (count == page.length) return new Hits(page, priceCursor(page[count - 1]));
+        page[count++] = order[i];
+      }
+    }
+    return new Hits(Arrays.copyOf(page, count), null);
+  }
+
+  /**
+   * Slots whose names contain, for every query word, a word starting with it. Starts from the word
+   * with the fewest postings and narrows its slots by the others; a bitset the size of the catalog
+   * is allocated only when every word matches more slots than it would take to list them.
+   */
+  private Matches matchWords(List<String> queryWords) {
+    if (queryWords.isEmpty()) return null;
+    List<TermRange> ranges = new ArrayList<>(queryWords.size());
+    for (String word : queryWords) ranges.add(termRange(word));
+    ranges.sort(Comparator.comparingLong(TermRange::postings));
+
+    // A list of n ints takes as much memory as a bitset of 32n slots
+    if (ranges.get(0).postings() > ids.length >>> 5) return new Matches(null, matchBits(ranges));
+    int[] slots = slots(ranges.get(0));
+    for (int r = 1; r < ranges.size() && slots.length > 0; r++) slots = retain(slots, ranges.get(r));
+    return new Matches(slots, null);
+  }
+
+  private TermRange termRange(String word) {
+    int from = insertionPoint(word);
+    // Terms are letters and digits, so every term starting with the word sorts before this
+    int to = insertionPoint(word + Character.MAX_VALUE);
+    long count = 0;
+    for (int t = from; t < to; t++) count += postings[t].length;
+    return new TermRange(from, to, count);
+  }
+
+  private int insertionPoint(String term) {
+    int i = Arrays.binarySearch(terms, term);
+    return i >= 0 ? i : -i - 1;
+  }
+
+  /**
+   * The ascending slots in a range's postings; a single term's posting is returned as is.
+   */
+  private int[] slots(TermRange range) {
+    if (range.to() - range.from() == 1) return postings[range.from()];
+    int[] all = new int[(int) range.postings()];
+    int n = 0;
+    for (int t = range.from(); t < range.to(); t++) {
+      System.arraycopy(postings[t], 0, all, n, postings[t].length);
+      n += postings[t].length;
+    }
+    Arrays.sort(all);
+    // A name with two words under the same prefix is in both postings
+    int unique = 0;
+    for (int i = 0; i < n; i++) {
+      if (unique == 0 || all[unique - 1] != all[i]) all[unique++] = all[i];
+    }
+    return unique == n ? all : Arrays.copyOf(all, unique);
+  }
+
+  /**
+   * The {@code slots} also in the range's postings: each slot is looked up in the range's postings
+   * when that takes fewer steps than listing them, otherwise the two lists are merged.
+   */
+  private int[] retain(int[] slots, TermRange range) {
+    int[] kept = new int[slots.length];
+    int count = 0;
+    if ((long) slots.length * (range.to() - range.from()) < range.postings()) {
+      for (int slot : slots) {
+        for (int t = range.from(); t < range.to(); t++) {
+          if (Arrays.binarySearch(postings[t], slot) >= 0) {
+            kept[count++] = slot;
+            break;
+          }
+        }
+      }
+    } else {
+      int[] other = slots(range);
+      for (int i = 0, j = 0; i < slots.length && j < other.length; ) {
+        if (slots[i] < other[j]) {
+          i++;
+        } else if (slots[i] > other[j]) {
+          j++;
+        } else {
+          kept[count++] = slots[i++];
+          j++;
+        }
+      }
+    }
+    return Arrays.copyOf(kept, count);
+  }
+
+  /**
+   * Dense words: one bitset for the result and one reused for each further word.
+   */
+  private long[] matchBits(List<TermRange> ranges) {
+    long[] result = new long[(ids.length + 63) >>> 6];
+    mark(result, ranges.get(0));
+    long[] matches = ranges.size() > 1 ? new long[result.length] : null;
+    for (int r = 1; r < ranges.size(); r++) {
+      Arrays.fill(matches, 0L);
+      mark(matches, ranges.get(r));
+      for (int w = 0; w < result.length; w++) result[w] &= matches[w];
+    }
+    return result;
+  }
+
+  private void mark(long[] bits, TermRange range) {
+    for (int t = range.from(); t < range.to(); t++) {
+      for (int slot : postings[t]) bits[slot >>> 6] |= 1L << slot;
+    }
+  }
+
+  private String priceCursor(int slot) {
+    return prices[slot] + ":" + ids[slot];
+  }
+
+  private int firstIdAbove(long id) {
+    int i = Arrays.binarySearch(ids, id);
+    return i >= 0 ? i + 1 : -i - 1;
+  }
+
+  /**
+   * The first position in {@code order} whose (price, id) is at least {@code (price, id)}.
+   */
+  private int firstNotBelow(int[] order, long price, long id) {
+    int lo = 0;
+    int hi = order.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      int slot = order[mid];
+      int cmp = prices[slot] != price ? Long.compare(prices[slot], price) : Long.compare(ids[slot], id);
+      if (cmp < 0) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  private static long parseLong(String s) {
+    try {
+      return Long.parseLong(s);
+    } catch (NumberFormatException e) {
+      throw invalidCursor();
+    }
+  }
+
+  private static IllegalArgumentException invalidCursor() {
+    return new IllegalArgumentException("Invalid cursor");
+  }
+
+  private static boolean isSet(long[] bits, int slot) {
+    return (bits[slot >>> 6] & 1L << slot) != 0;
+  }
+
+  private static int nextSetBit(long[] bits, int from) {
+    int w = from >>> 6;
+    if (w >= bits.length) return -1;
+    long word = bits[w] & (-1L << from);
+    while (true) {
+      if (word != 0) return (w << 6) + Long.numberOfTrailingZeros(word);
+      if (++w == bits.length) return -1;
+      word = bits[w];
+    }
+  }
+
+  private static int cardinality(long[] bits) {
+    int count = 0;
+    for (long word : bits) count += Long.bitCount(word);
+    return count;
+  }
+
+  /**
+   * Stable merge sort of slots by price; slots arrive in id order, so ties stay in id order.
+   */
+  private static void sortByPrice(int[] slots, long[] prices) {
+    int[] buffer = new int[slots.length];
+    for (int width = 1; width < slots.length; width *= 2) {
+      for (int lo = 0; lo < slots.length; lo += 2 * width) {
+        int mid = Math.min(lo + width, slots.length);
+        int hi = Math.min(lo + 2 * width, slots.length);
+        int i = lo;
+        int j = mid;
+        int k = lo;
+        while (i < mid && j < hi) buffer[k++] = prices[slots[j]] < prices[slots[i]] ? slots[j++] : slots[i++];
+        while (i < mid) buffer[k++] = slots[i++];
+        while (j < hi) buffer[k++] = slots[j++];
+      }
+      System.arraycopy(buffer, 0, slots, 0, slots.length);
+    }
+  }
+
+  private static final class SlotList {
+    private int[] slots = new int[4];
+    private int size;
+
+    void add(int slot) {
+      // A word repeated in one name is indexed once
+      if (size > 0 && slots[size - 1] == slot) return;
+      if (size == slots.length) slots = Arrays.copyOf(slots, size * 2);
+      slots[size++] = slot;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(slots, size);
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.minicommerce.backend.service;
+
+import com.minicommerce.backend.service.CatalogReadModel.ProductView;
+import java.util.List;
+
+/**
+ * One page of {@link CatalogReadModel#search} results.
+ *
+ * @param nextCursor pass as the next query's cursor; null if this is the last page
+ */
+public record ProductSearchPage(List<ProductView> products, String nextCursor) {}
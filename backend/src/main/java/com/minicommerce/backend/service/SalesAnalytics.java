@@ -0,0 +1,301 @@
+package com.minicommerce.backend.service;
+
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Live sales counters, fed by {@link OrderService} as orders commit so that dashboards never scan
+ * orders.
+ *
+ * <p>Counts are kept per product, since startup and in two rings of time buckets: 5-second buckets
+ * covering five minutes (the 1m and 5m windows) and 1-minute buckets covering an hour. An order is
+ * added to the current bucket of each ring; a slot still holding an expired bucket is replaced with
+ * one CAS. Every count is a {@link LongAdder}, which spreads concurrent writers over cells, so
+ * recording takes no lock. Store-wide figures are summed over the products when read.
+ *
+ * <p>A window sums the buckets it overlaps, so its start is accurate to one bucket. Counters start
+ * empty and are not rebuilt from stored orders. Revenue is in minor units of the catalog's single
+ * currency.
+ */
+@Component
+public class SalesAnalytics {
+  public static final int MAX_TOP = 100;
+
+  private static final long FINE_BUCKET_MS = 5_000;
+  private static final long COARSE_BUCKET_MS = 60_000;
+
+  public enum Window {
+    ONE_MINUTE("1m", Duration.ofMinutes(1)),
+    FIVE_MINUTES("5m", Duration.ofMinutes(5)),
+    ONE_HOUR("1h", Duration.ofHours(1));
+
+    private final String param;
+    private final Duration length;
+
+    Window(String param, Duration length) {
+      this.param = param;
+      this.length = length;
+    }
+
+    public String param() {
+      return param;
+    }
+
+    /**
+     * Parses the {@code window} request parameter: {@code 1m}, {@code 5m} or {@code 1h}.
+     */
+    public static Window fromParam(String param) {
+      for (Window window : values()) {
+        if (window.param.equals(param)) return window;
+      }
+      throw new IllegalArgumentException("window must be one of 1m, 5m, 1h");
+    }
+  }
+
+  public enum Rank {
+    UNITS("units"),
+    REVENUE("revenue");
+
+    private final String param;
+
+    Rank(String param) {
+      this.param = param;
+    }
+
+    /**
+     * Parses the {@code by} request parameter: {@code units} or {@code revenue}.
+     */
+    public static Rank fromParam(String param) {
+      for (Rank rank : values()) {
+        if (rank.param.equals(param)) return rank;
+      }
+      throw new IllegalArgumentException("by must be one of units, revenue");
+    }
+  }
+
+  /**
+   * Sales over a window or since startup.
+   *
+   * @param spanMs the time the figures cover: the window, or less just after startup
+   */
+  public record Sales(long orders, long units, long revenueMinor, long spanMs) {
+    public double ordersPerMinute() {
+      return spanMs == 0 ? 0 : orders * 60_000.0 / spanMs;
+    }
+  }
+
+  public record ProductSales(long productId, long orders, long units, long revenueMinor) {}
+
+  private final boolean enabled;
+  private final LongSupplier clock;
+  private final long startedAt;
+  private final ConcurrentHashMap<Long, Counts> byProduct = new ConcurrentHashMap<>();
+  private final Ring fine;
+  private final Ring coarse;
+
+  @Autowired
+  public SalesAnalytics(@Value("${app.analytics.enabled:true}") boolean enabled, MetricsRegistry metrics) {
+    this(enabled, System::currentTimeMillis);
+    metrics.gauge("sales_analytics_products", byProduct::size);
+  }
+
+  SalesAnalytics(boolean enabled, LongSupplier clock) {
+    this.enabled = enabled;
+    this.clock = clock;
+    this.startedAt = clock.getAsLong();
+    this.fine = new Ring(FINE_BUCKET_MS, Window.FIVE_MINUTES.length.toMillis());
+    this.coarse = new Ring(COARSE_BUCKET_MS, Window.ONE_HOUR.length.toMillis());
+  }
+
+  public void record(Order order) {
+    if (!enabled) return;
+    long now = clock.getAsLong();
+    add(order, fine.bucket(now), coarse.bucket(now));
+  }
+
+  /**
+   * Records the orders of one checkout, reading the clock once.
+   */
+  public void record(List<Order> orders) {
+    if (!enabled) return;
+    long now = clock.getAsLong();
+    Bucket fineBucket = fine.bucket(now);
+    Bucket coarseBucket = coarse.bucket(now);
+    for (Order order : orders) add(order, fineBucket, coarseBucket);
+  }
+
+  private void add(Order order, Bucket fineBucket, Bucket coarseBucket) {
+    // Boxed once for all three maps
+    Long productId = order.getProductId();
+    int units = order.getQuantity();
+    long revenue = order.getTotalPrice().minorUnits();
+    counts(byProduct, productId).add(units, revenue);
+    if (fineBucket != null) fineBucket.add(productId, units, revenue);
+    if (coarseBucket != null) coarseBucket.add(productId, units, revenue);
+  }
+
+  /**
+   * @param productId null for all products
+   */
+  public Sales sinceStartup(Long productId) {
+    return sum(List.of(byProduct), productId, clock.getAsLong() - startedAt);
+  }
+
+  /**
+   * @param productId null for all products
+   */
+  public Sales sales(Window window, Long productId) {
+    long now = clock.getAsLong();
+    Ring ring = ring(window);
+    return sum(ring.covering(now, window), productId, ring.span(now, window, startedAt));
+  }
+
+  /**
+   * Store-wide figures are summed from the per-product counts when read, which keeps them off the
+   * write path.
+   */
+  private static Sales sum(List<? extends Map<Long, Counts>> maps, Long productId, long spanMs) {
+    long[] sum = new long[3];
+    for (Map<Long, Counts> map : maps) {
+      if (productId == null) {
+        for (Counts counts : map.values()) counts.addTo(sum);
+      } else {
+        Counts counts = map.get(productId);
+        if (counts != null) counts.addTo(sum);
+      }
+    }
+    return new Sales(sum[0], sum[1], sum[2], spanMs);
+  }
+
+  /**
+   * The best sellers in {@code window}, best first; ties go to the lower product id.
+   */
+  public List<ProductSales> top(Window window, Rank by, int limit) {
+    if (limit <= 0 || limit > MAX_TOP) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_TOP);
+    }
+    Map<Long, long[]> sums = new HashMap<>();
+    for (Map<Long, Counts> bucket : ring(window).covering(clock.getAsLong(), window)) {
+      bucket.forEach((productId, counts) -> counts.addTo(sums.computeIfAbsent(productId, id -> new long[3])));
+    }
+    Comparator<ProductSales> order = Comparator
+        .comparingLong(by == Rank.UNITS ? ProductSales::units : ProductSales::revenueMinor)
+        .thenComparing(ProductSales::productId, Comparator.reverseOrder());
+    // Min-heap of the best `limit` so far
+    PriorityQueue<ProductSales> best = new PriorityQueue<>(limit + 1, order);
+    sums.forEach((productId, sum) -> {
+      best.add(new ProductSales(productId, sum[0], sum[1], sum[2]));
+      if (best.size() > limit) best.poll();
+    });
+    List<ProductSales> result = new ArrayList<>(best);
+    result.sort(order.reversed());
+    return result;
+  }
+
+  private Ring ring(Window window) {
+    return window == Window.ONE_HOUR ? coarse : fine;
+  }
+
+  private static Counts counts(ConcurrentHashMap<Long, Counts> map, Long productId) {
+    Counts counts = map.get(productId);
+    return counts != null ? counts : map.computeIfAbsent(productId, id -> new Counts());
+  }
+
+  private static final class Counts {
+    final LongAdder orders = new LongAdder();
+    final LongAdder units = new LongAdder();
+    final LongAdder revenue = new LongAdder();
+
+    void add(int quantity, long revenueMinor) {
+      orders.increment();
+      units.add(quantity);
+      revenue.add(revenueMinor);
+    }
+
+    /**
+     * Adds orders, units and revenue to {@code sum[0..2]}.
+     */
+    void addTo(long[] sum) {
+      sum[0] += orders.sum();
+      sum[1] += units.sum();
+      sum[2] += revenue.sum();
+    }
+  }
+
+  private static final class Bucket {
+    /** Start time divided by the bucket length. */
+    final long epoch;
+    final ConcurrentHashMap<Long, Counts> byProduct = new ConcurrentHashMap<>();
+
+    Bucket(long epoch) {
+      this.epoch = epoch;
+    }
+
+    void add(Long productId, int quantity, long revenueMinor) {
+      counts(byProduct, productId).add(quantity, revenueMinor);
+    }
+  }
+
+  private static final class Ring {
+    private final long bucketMs;
+    private final AtomicReferenceArray<Bucket> slots;
+
+    Ring(long bucketMs, long coverMs) {
+      this.bucketMs = bucketMs;
+      // One spare slot, so a writer already in the next bucket never evicts one still in a window
+      this.slots = new AtomicReferenceArray<>((int) (coverMs / bucketMs) + 1);
+    }
+
+    /**
+     * The bucket for {@code now}, or null if its slot already moved on to a later bucket (a
+     * writer stalled for longer than the ring covers).
+     */
+    Bucket bucket(long now) {
+      long epoch = Math.floorDiv(now, bucketMs);
+      int slot = (int) Math.floorMod(epoch, (long) slots.length());
+      while (true) {
+        Bucket bucket = slots.get(slot);
+        if (bucket != null && bucket.epoch == epoch) return bucket;
+        if (bucket != null && bucket.epoch > epoch) return null;
+        Bucket fresh = new Bucket(epoch);
+        if (slots.compareAndSet(slot, bucket, fresh)) return fresh;
+      }
+    }
+
+    /**
+     * The per-product counts of the last {@code window}'s buckets, counting the current one.
+     */
+    List<Map<Long, Counts>> covering(long now, Window window) {
+      long last = Math.floorDiv(now, bucketMs);
+      long first = last - window.length.toMillis() / bucketMs + 1;
+      List<Map<Long, Counts>> buckets = new ArrayList<>();
+      for (int i = 0; i < slots.length(); i++) {
+        Bucket bucket = slots.get(i);
+        if (bucket != null && bucket.epoch >= first && bucket.epoch <= last) buckets.add(bucket.byProduct);
+      }
+      return buckets;
+    }
+
+    /**
+     * Milliseconds from the start of the window's first bucket, or from startup if later, to now.
+     */
+    long span(long now, Window window, long startedAt) {
+      long first = Math.floorDiv(now, bucketMs) - window.length.toMillis() / bucketMs + 1;
+      return now - Math.max(first * bucketMs, startedAt);
+    }
+  }
+}
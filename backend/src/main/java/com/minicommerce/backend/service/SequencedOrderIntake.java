@@ -0,0 +1,244 @@
+package com.minicommerce.backend.service;
+
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.metrics.StageTimer;
+import com.minicommerce.backend.repository.OrderRepository;
+import com.minicommerce.backend.repository.ProductRepository;
+import com.minicommerce.backend.support.RingBuffer;
+import com.minicommerce.backend.web.error.ServiceOverloadedException;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Places orders through one writer thread per product shard.
+ *
+ * <p>Request threads publish to the shard's {@link RingBuffer} and wait for their own completion.
+ * The writer drains up to {@code batch-size} requests, reserves stock in arrival order (so
+ * allocation is first-come, first-served and the stock counter is never contended by the
+ * shard's products) and saves the accepted orders with one {@link OrderRepository#saveAll}, which
+ * the journal turns into a single append and fsync.
+ *
+ * <p>A caller waits up to {@code max-wait-ms} for the writer to take its request and then gives up
+ * with 503; once the writer has taken it, the caller waits for the outcome, so a request that
+ * timed out was never applied and retrying it cannot duplicate the order.
+ *
+ * <p>Multi-line checkouts still reserve on the request thread; they may touch several shards.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.orders.intake", havingValue = "sequencer")
+public class SequencedOrderIntake implements OrderIntake {
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  /**
+   * {@code taken} is set once, by the writer applying the request or by the caller abandoning it.
+   */
+  private record Request(Product product, int quantity, CompletableFuture<Order> result, AtomicBoolean taken) {}
+
+  private final ProductRepository productRepository;
+  private final OrderRepository orderRepository;
+  private final Shard[] shards;
+  private final int batchSize;
+  private final long maxWaitNanos;
+  private final LongAdder accepted;
+  private final LongAdder rejected;
+  private final LongAdder batches;
+  private final LongAdder overflows;
+  private final LongAdder timeouts;
+  private volatile boolean running = true;
+
+  public SequencedOrderIntake(
+      ProductRepository productRepository,
+      OrderRepository orderRepository,
+      MetricsRegistry metrics,
+      @Value("${app.orders.sequencer.shards:0}") int shards,
+      @Value("${app.orders.sequencer.ring-size:4096}") int ringSize,
+      @Value("${app.orders.sequencer.batch-size:256}") int batchSize,
+      @Value("${app.orders.sequencer.max-wait-ms:5000}") long maxWaitMs
+  ) {
+    // A batch size of 0 would leave the writer spinning on a non-empty ring without applying anything
+    if (ringSize < 1) throw new IllegalArgumentException("app.orders.sequencer.ring-size must be >= 1, got " + ringSize);
+    if (batchSize < 1) throw new IllegalArgumentException("app.orders.sequencer.batch-size must be >= 1, got " + batchSize);
+    if (maxWaitMs < 1) throw new IllegalArgumentException("app.orders.sequencer.max-wait-ms must be >= 1, got " + maxWaitMs);
+    this.productRepository = productRepository;
+    this.orderRepository = orderRepository;
+    this.batchSize = batchSize;
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+    this.accepted = metrics.counter("order_sequencer_accepted_total");
+    this.rejected = metrics.counter("order_sequencer_rejected_total");
+    this.batches = metrics.counter("order_sequencer_batches_total");
+    this.overflows = metrics.counter("order_sequencer_overflows_total");
+    this.timeouts = metrics.counter("order_sequencer_timeouts_total");
+    int n = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+    this.shards = new Shard[n];
+    for (int i = 0; i < n; i++) {
+      this.shards[i] = new Shard(i, ringSize);
+    }
+    metrics.gauge("order_sequencer_queue_depth", () -> {
+      long depth = 0;
+      for (Shard shard : this.shards) {
+        depth += shard.ring.size();
+      }
+      return depth;
+    });
+    log.info("Order sequencer started with {} shards (ring {}, batch {})", n, ringSize, batchSize);
+  }
+
+  @Override
+  public Order place(long productId, int quantity) {
+    if (quantity <= 0) throw new IllegalArgumentException("quantity must be > 0");
+    if (!running) throw new ServiceOverloadedException("Order intake is shutting down", 1);
+
+    Product product = Orders.findProduct(productRepository, productId);
+    var request = new Request(product, quantity, new CompletableFuture<>(), new AtomicBoolean());
+    Shard shard = shards[Math.floorMod(Long.hashCode(productId), shards.length)];
+    if (!shard.ring.offer(request)) {
+      overflows.increment();
+      throw new ServiceOverloadedException("Order queue is full, retry shortly", 1);
+    }
+    // Reservation, pricing and save run on the writer thread; the caller sees queueing plus batch
+    long stage = StageTimer.start();
+    try {
+      return await(request, shard.writer);
+    } finally {
+      StageTimer.stop("sequencer", stage);
+    }
+  }
+
+  /**
+   * Waits for the writer. Past the deadline, or once the writer has exited, the caller gives up
+   * only if it can take the request before the writer does; a request the writer has taken may
+   * already be saved, and giving up on it would let the client's retry create a duplicate.
+   */
+  private Order await(Request request, Thread writer) {
+    long deadline = System.nanoTime() + maxWaitNanos;
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          long wait = Math.min(deadline - System.nanoTime(), TimeUnit.SECONDS.toNanos(1));
+          return request.result().get(Math.max(wait, 1), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+          if (e.getCause() instanceof RuntimeException cause) throw cause;
+          throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+          if (!writer.isAlive() && request.taken().compareAndSet(false, true)) {
+            throw new ServiceOverloadedException("Order intake is shutting down", 1);
+          }
+          if (deadline - System.nanoTime() <= 0 && request.taken().compareAndSet(false, true)) {
+            timeouts.increment();
+            throw new ServiceOverloadedException("Order queue is not moving, retry shortly", 1);
+          }
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      if (interrupted) Thread.currentThread().interrupt();
+    }
+  }
+
+  @PreDestroy
+  public void close() throws InterruptedException {
+    running = false;
+    // Unpark rather than interrupt: an interrupt during a journal write closes its file channel
+    for (Shard shard : shards) {
+      LockSupport.unpark(shard.writer);
+    }
+    for (Shard shard : shards) {
+      shard.writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+  }
+
+  private final class Shard {
+    private final RingBuffer<Request> ring;
+    private final Thread writer;
+    private final List<Request> batch;
+
+    Shard(int index, int ringSize) {
+      this.ring = new RingBuffer<>(ringSize);
+      this.batch = new ArrayList<>(batchSize);
+      this.writer = new Thread(this::run, "order-sequencer-" + index);
+      this.writer.setDaemon(true);
+      this.writer.start();
+    }
+
+    private void run() {
+      // Keep draining after shutdown starts so every published request is completed
+      while (running || !ring.isEmpty()) {
+        if (ring.drain(batch::add, batchSize) == 0) {
+          ring.awaitNonEmpty(IDLE_PARK_NANOS);
+          continue;
+        }
+        try {
+          apply(batch);
+        } catch (RuntimeException | Error e) {
+          log.error("Order sequencer batch failed", e);
+          for (Request request : batch) {
+            request.result().completeExceptionally(e);
+          }
+        } finally {
+          batch.clear();
+        }
+      }
+    }
+
+    private void apply(List<Request> requests) {
+      Instant now = Instant.now();
+      List<Request> reserved = new ArrayList<>(requests.size());
+      List<Order> orders = new ArrayList<>(requests.size());
+      for (Request request : requests) {
+        // The caller gave up on it before it was taken
+        if (!request.taken().compareAndSet(false, true)) continue;
+        Product product = request.product();
+        Order order;
+        try {
+          order = Orders.newOrder(product, request.quantity(), now);
+        } catch (IllegalArgumentException e) {
+          request.result().completeExceptionally(e);
+          continue;
+        }
+        if (product.tryDecreaseStock(request.quantity())) {
+          reserved.add(request);
+          orders.add(order);
+        } else {
+          rejected.increment();
+          request.result().completeExceptionally(
+              Orders.insufficientStock(product.getId(), request.quantity()));
+        }
+      }
+      if (orders.isEmpty()) return;
+
+      List<Order> saved;
+      try {
+        saved = orderRepository.saveAll(orders);
+      } catch (RuntimeException e) {
+        for (Request request : reserved) {
+          request.product().increaseStock(request.quantity());
+        }
+        throw e;
+      } finally {
+        batches.increment();
+      }
+      for (int i = 0; i < saved.size(); i++) {
+        reserved.get(i).result().complete(saved.get(i));
+      }
+      accepted.add(saved.size());
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package com.minicommerce.backend.support;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps in-flight work at a limit learned from latency, TCP Vegas style.
+ *
+ * <p>Each completed request reports how long it ran. With {@code minRtt} the best recent latency
+ * (the cost of the work itself) the requests queued inside the service are estimated as
+ * {@code limit * (1 - minRtt / rtt)}. Below {@code alpha} the limit grows by one, above
+ * {@code beta} it shrinks, so the limit settles where latency just starts to climb. The baseline
+ * is re-measured every {@code PROBE_SAMPLES} samples to follow real changes in service time.
+ *
+ * <p>Callers over the limit may wait briefly in a bounded queue; everyone else is turned away at
+ * once so that overload is answered quickly instead of by timeouts.
+ */
+public final class AdaptiveConcurrencyLimiter {
+  private static final int PROBE_SAMPLES = 1_000;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final int maxQueue;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition released = lock.newCondition();
+  // Sample updates are dropped rather than waited for when another thread is updating
+  private final ReentrantLock updateLock = new ReentrantLock();
+  private volatile int limit;
+  private volatile int waiters;
+  // Guarded by updateLock
+  private double estimatedLimit;
+  private volatile long minRttNanos;
+  private int samplesSinceProbe;
+
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueue) {
+    if (minLimit <= 0 || minLimit > maxLimit) throw new IllegalArgumentException("need 0 < minLimit <= maxLimit");
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.maxQueue = maxQueue;
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    this.estimatedLimit = limit;
+  }
+
+  /**
+   * Admits the caller, waiting up to {@code maxWaitNanos} for a slot if the limit is reached and
+   * the queue has room. Admitted callers must call {@link #release} exactly once.
+   */
+  public boolean tryAcquire(long maxWaitNanos) {
+    if (tryIncrement()) return true;
+    if (maxWaitNanos <= 0 || waiters >= maxQueue) return false;
+    lock.lock();
+    try {
+      if (waiters >= maxQueue) return false;
+      waiters++;
+      try {
+        long remaining = maxWaitNanos;
+        while (!tryIncrement()) {
+          if (remaining <= 0) return false;
+          remaining = released.awaitNanos(remaining);
+        }
+        return true;
+      } finally {
+        waiters--;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Frees the caller's slot and feeds its latency into the limit.
+   */
+  public void release(long rttNanos) {
+    int current = inFlight.decrementAndGet();
+    sample(rttNanos, current + 1);
+    if (waiters > 0) {
+      lock.lock();
+      try {
+        released.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  public int limit() {
+    return limit;
+  }
+
+  public int inFlight() {
+    return inFlight.get();
+  }
+
+  public int queued() {
+    return waiters;
+  }
+
+  public long minRttNanos() {
+    return minRttNanos;
+  }
+
+  private boolean tryIncrement() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= limit) return false;
+      if (inFlight.compareAndSet(current, current + 1)) return true;
+    }
+  }
+
+  private void sample(long rttNanos, int inFlightAtCompletion) {
+    if (rttNanos <= 0 || !updateLock.tryLock()) return;
+    try {
+      if (++samplesSinceProbe >= PROBE_SAMPLES) {
+        samplesSinceProbe = 0;
+        minRttNanos = 0;
+      }
+      if (minRttNanos == 0 || rttNanos < minRttNanos) {
+        minRttNanos = rttNanos;
+      }
+      double queue = estimatedLimit * (1 - (double) minRttNanos / rttNanos);
+      double log = Math.max(1, Math.log10(estimatedLimit));
+      if (queue <= 3 * log) {
+        // Only grow when the limit is actually being used; an idle service says nothing about it
+        if (inFlightAtCompletion * 2 >= estimatedLimit) estimatedLimit += 1;
+      } else if (queue >= 6 * log) {
+        estimatedLimit -= log;
+      }
+      estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+      limit = (int) estimatedLimit;
+    } finally {
+      updateLock.unlock();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "limit=" + limit + " inFlight=" + inFlight.get() + " minRttUs="
+        + TimeUnit.NANOSECONDS.toMicros(minRttNanos);
+  }
+}
@@ -0,0 +1,63 @@
+package com.minicommerce.backend.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key token bucket kept in a single {@link AtomicLong} per key.
+ *
+ * <p>The word holds the bucket's "theoretical arrival time" (the GCRA form of a token bucket):
+ * the instant at which the bucket would be full again. A request of cost {@code c} pushes it
+ * forward by {@code c} emission intervals and is admitted if that stays within {@code burst}
+ * intervals of now, so admission is one CAS with no lock and no separate refill step.
+ *
+ * <p>Buckets idle for longer than it takes to refill completely are evicted; a new bucket starts
+ * full, so eviction never changes a decision. The number of buckets is also capped.
+ */
+public final class RateLimiter {
+  private final long intervalNanos;
+  private final long burstNanos;
+  private final LongSupplier clock;
+  private final Cache<String, AtomicLong> buckets;
+
+  public RateLimiter(int requestsPerMinute, int burstSize, long maxBuckets) {
+    this(requestsPerMinute, burstSize, maxBuckets, System::nanoTime);
+  }
+
+  RateLimiter(int requestsPerMinute, int burstSize, long maxBuckets, LongSupplier clock) {
+    if (requestsPerMinute <= 0) throw new IllegalArgumentException("requestsPerMinute must be > 0");
+    if (burstSize <= 0) throw new IllegalArgumentException("burstSize must be > 0");
+    this.intervalNanos = Duration.ofMinutes(1).toNanos() / requestsPerMinute;
+    this.burstNanos = intervalNanos * burstSize;
+    this.clock = clock;
+    this.buckets = Caffeine.newBuilder()
+        .expireAfterAccess(Duration.ofNanos(burstNanos))
+        .maximumSize(maxBuckets)
+        .build();
+  }
+
+  /**
+   * Takes {@code cost} tokens from {@code key}'s bucket.
+   *
+   * @return 0 if admitted, otherwise the nanoseconds until enough tokens would be available
+   */
+  public long tryAcquire(String key, int cost) {
+    long now = clock.getAsLong();
+    AtomicLong bucket = buckets.get(key, k -> new AtomicLong(now));
+    long increment = intervalNanos * Math.max(1, cost);
+    while (true) {
+      long tat = bucket.get();
+      long next = (tat - now > 0 ? tat : now) + increment;
+      long excess = next - now - burstNanos;
+      if (excess > 0) return excess;
+      if (bucket.compareAndSet(tat, next)) return 0;
+    }
+  }
+
+  public long bucketCount() {
+    return buckets.estimatedSize();
+  }
+}
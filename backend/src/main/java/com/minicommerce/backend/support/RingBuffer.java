@@ -0,0 +1,112 @@
+package com.minicommerce.backend.support;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, pre-allocated multi-producer / single-consumer queue.
+ *
+ * <p>Producers claim a slot with one CAS on the tail and publish it through the slot's sequence
+ * number (Vyukov's bounded queue), so a full buffer is reported instead of blocking. The consumer
+ * drains in batches and parks when empty; producers unpark it only when it is actually parked.
+ */
+public final class RingBuffer<E> {
+  private final AtomicReferenceArray<E> slots;
+  // sequence == position: free for the producer of that position; position + 1: published
+  private final AtomicLongArray sequences;
+  private final int mask;
+  private final AtomicLong tail = new AtomicLong();
+  // Written by the consumer only; volatile so size() can be read from other threads
+  private volatile long head;
+  private volatile Thread parkedConsumer;
+
+  /**
+   * @param capacity rounded up to a power of two, and to at least 2: with a single slot, "published
+   *     at position p" and "free for position p + 1" would be the same sequence number
+   */
+  public RingBuffer(int capacity) {
+    if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+    int n = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+    this.slots = new AtomicReferenceArray<>(n);
+    this.sequences = new AtomicLongArray(n);
+    this.mask = n - 1;
+    for (int i = 0; i < n; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  public int capacity() {
+    return mask + 1;
+  }
+
+  public int size() {
+    return (int) Math.max(0, tail.get() - head);
+  }
+
+  /**
+   * @return false if the buffer is full
+   */
+  public boolean offer(E element) {
+    if (element == null) throw new NullPointerException();
+    while (true) {
+      long position = tail.get();
+      int index = (int) position & mask;
+      long sequence = sequences.get(index);
+      if (sequence == position) {
+        if (tail.compareAndSet(position, position + 1)) {
+          slots.set(index, element);
+          sequences.set(index, position + 1);
+          Thread consumer = parkedConsumer;
+          if (consumer != null) LockSupport.unpark(consumer);
+          return true;
+        }
+      } else if (sequence < position) {
+        return false;
+      }
+      // Another producer claimed this position first; retry with the new tail
+    }
+  }
+
+  /**
+   * Hands up to {@code limit} elements to {@code sink} in FIFO order. Consumer thread only.
+   *
+   * @return number of elements drained
+   */
+  public int drain(Consumer<? super E> sink, int limit) {
+    long h = head;
+    int drained = 0;
+    while (drained < limit) {
+      int index = (int) h & mask;
+      if (sequences.get(index) != h + 1) break;
+      E element = slots.get(index);
+      slots.set(index, null);
+      sequences.set(index, h + mask + 1);
+      h++;
+      drained++;
+      sink.accept(element);
+    }
+    if (drained > 0) head = h;
+    return drained;
+  }
+
+  /**
+   * Parks the consumer until an element is published, {@code nanos} elapse or the thread is
+   * woken by {@link LockSupport#unpark}. Consumer thread only.
+   */
+  public void awaitNonEmpty(long nanos) {
+    parkedConsumer = Thread.currentThread();
+    // Re-check after announcing ourselves, or a producer that published in between would not unpark
+    if (isEmpty()) {
+      LockSupport.parkNanos(this, nanos);
+    }
+    parkedConsumer = null;
+  }
+
+  public boolean isEmpty() {
+    long h = head;
+    return sequences.get((int) h & mask) != h + 1;
+  }
+}
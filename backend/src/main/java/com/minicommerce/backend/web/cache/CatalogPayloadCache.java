@@ -0,0 +1,90 @@
+package com.minicommerce.backend.web.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.service.CatalogReadModel.Snapshot;
+import com.minicommerce.backend.service.CatalogService;
+import com.minicommerce.backend.web.mapper.ProductMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.stereotype.Component;
+
+/**
+ * The full {@code GET /products} body as ready-to-write bytes, in identity and gzip encodings.
+ *
+ * <p>Mapping, serialization and compression run once per catalog version; every other request
+ * writes the cached arrays as they are.
+ */
+@Component
+public class CatalogPayloadCache {
+
+  public record Payload(long version, byte[] identity, byte[] gzip) {}
+
+  private final CatalogService catalogService;
+  private final ProductMapper productMapper;
+  private final ObjectMapper objectMapper;
+  private final LongAdder builds;
+  private final ReentrantLock buildLock = new ReentrantLock();
+  private volatile Payload current;
+
+  public CatalogPayloadCache(
+      CatalogService catalogService,
+      ProductMapper productMapper,
+      ObjectMapper objectMapper,
+      MetricsRegistry metrics
+  ) {
+    this.catalogService = catalogService;
+    this.productMapper = productMapper;
+    this.objectMapper = objectMapper;
+    this.builds = metrics.counter("catalog_payload_builds_total");
+    metrics.gauge("catalog_payload_bytes", () -> {
+      Payload p = current;
+      return p == null ? 0 : p.identity().length;
+    });
+  }
+
+  /**
+   * Returns a payload at least as new as {@code minVersion}, building it if needed.
+   */
+  public Payload get(long minVersion) {
+    Payload p = current;
+    if (p != null && p.version() >= minVersion) return p;
+    // A lock rather than a monitor, so virtual threads waiting here release their carrier
+    buildLock.lock();
+    try {
+      p = current;
+      if (p != null && p.version() >= minVersion) return p;
+      // Concurrent requests for a new version wait here instead of all serializing it
+      p = build(catalogService.snapshot());
+      current = p;
+      builds.increment();
+      return p;
+    } finally {
+      buildLock.unlock();
+    }
+  }
+
+  private Payload build(Snapshot snapshot) {
+    try {
+      byte[] identity = objectMapper.writeValueAsBytes(productMapper.toResponseList(snapshot.products()));
+      return new Payload(snapshot.version(), identity, gzip(identity));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize catalog", e);
+    }
+  }
+
+  private static byte[] gzip(byte[] bytes) {
+    var out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+    try (var gzip = new GZIPOutputStream(out)) {
+      gzip.write(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+}
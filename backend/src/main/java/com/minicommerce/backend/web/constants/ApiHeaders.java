@@ -7,5 +7,6 @@ public final class ApiHeaders {
   private ApiHeaders() {}
 
   public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+  public static final String ADMIN_TOKEN = "X-Admin-Token";
 }
 
@@ -10,5 +10,10 @@ public final class ErrorMessages {
   public static final String IDEMPOTENCY_KEY_BLANK = "Idempotency-Key must not be blank";
   public static final String IDEMPOTENCY_KEY_REUSED_DIFFERENT_PAYLOAD =
       "Idempotency-Key was already used with a different payload";
+  public static final String ORDER_LINES_REQUIRED = "At least one order line is required";
+  public static final String ADMIN_TOKEN_INVALID = "X-Admin-Token header is missing or wrong";
+  public static final String CATALOG_IMPORT_RUNNING = "A catalog import is already running";
+  public static final String CATALOG_IMPORT_JOURNALED =
+      "The journal order store only loads the catalog at startup (app.catalog.import-file)";
 }
 
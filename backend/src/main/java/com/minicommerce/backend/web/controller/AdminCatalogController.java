@@ -0,0 +1,62 @@
+package com.minicommerce.backend.web.controller;
+
+import com.minicommerce.backend.repository.catalog.CatalogFormat;
+import com.minicommerce.backend.service.CatalogImportService;
+import com.minicommerce.backend.web.constants.ApiHeaders;
+import com.minicommerce.backend.web.constants.ErrorMessages;
+import com.minicommerce.backend.web.dto.CatalogImportResponse;
+import com.minicommerce.backend.web.error.ForbiddenException;
+import com.minicommerce.backend.web.error.NotFoundException;
+import com.minicommerce.backend.web.mapper.ProductMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class AdminCatalogController {
+  private final CatalogImportService catalogImportService;
+  private final ProductMapper productMapper;
+  private final byte[] adminToken;
+
+  public AdminCatalogController(
+      CatalogImportService catalogImportService,
+      ProductMapper productMapper,
+      @Value("${app.catalog.admin-token:}") String adminToken
+  ) {
+    this.catalogImportService = catalogImportService;
+    this.productMapper = productMapper;
+    this.adminToken = adminToken.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Replaces the catalog with the request body, read as it arrives: {@code text/csv} or
+   * {@code application/x-ndjson} (see {@link CatalogFormat}). Answers with the import report once
+   * the new catalog is live; rejected rows are listed there and do not stop the import.
+   *
+   * <p>Requires {@code X-Admin-Token} to equal {@code app.catalog.admin-token}; while that is
+   * empty the endpoint does not exist.
+   */
+  @PostMapping("/admin/catalog/import")
+  public ResponseEntity<CatalogImportResponse> importCatalog(
+      @RequestHeader(name = ApiHeaders.ADMIN_TOKEN, required = false) String token,
+      @RequestHeader(name = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+      HttpServletRequest request
+  ) throws IOException {
+    if (adminToken.length == 0) throw new NotFoundException("Not found");
+    if (token == null || !MessageDigest.isEqual(adminToken, token.getBytes(StandardCharsets.UTF_8))) {
+      throw new ForbiddenException(ErrorMessages.ADMIN_TOKEN_INVALID);
+    }
+    CatalogFormat format = CatalogFormat.fromContentType(contentType);
+    try (InputStream body = request.getInputStream()) {
+      return ResponseEntity.ok(productMapper.toImportResponse(catalogImportService.importCatalog(body, format)));
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package com.minicommerce.backend.web.controller;
+
+import com.minicommerce.backend.service.SalesAnalytics;
+import com.minicommerce.backend.service.SalesAnalytics.Window;
+import com.minicommerce.backend.web.dto.SalesOverviewResponse;
+import com.minicommerce.backend.web.dto.SalesResponse;
+import com.minicommerce.backend.web.dto.TopSellersResponse;
+import com.minicommerce.backend.web.mapper.AnalyticsMapper;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class AnalyticsController {
+  private final SalesAnalytics salesAnalytics;
+  private final AnalyticsMapper analyticsMapper;
+
+  /**
+   * Orders, units, revenue and orders per minute over the last 1m, 5m and 1h and since startup,
+   * for one product or, without {@code productId}, for all of them.
+   */
+  @GetMapping("/analytics/sales")
+  public ResponseEntity<SalesOverviewResponse> sales(
+      @RequestParam(name = "productId", required = false) Long productId
+  ) {
+    List<SalesResponse> windows = new ArrayList<>();
+    for (Window window : Window.values()) {
+      windows.add(analyticsMapper.toResponse(window.param(), salesAnalytics.sales(window, productId)));
+    }
+    windows.add(analyticsMapper.toResponse("all", salesAnalytics.sinceStartup(productId)));
+    return ResponseEntity.ok(new SalesOverviewResponse(productId, windows));
+  }
+
+  /**
+   * The best-selling products over {@code window} ({@code 1m}, {@code 5m} or {@code 1h}), ranked
+   * by {@code units} or {@code revenue}.
+   */
+  @GetMapping("/analytics/top-sellers")
+  public ResponseEntity<TopSellersResponse> topSellers(
+      @RequestParam(name = "window", defaultValue = "5m") String window,
+      @RequestParam(name = "by", defaultValue = "units") String by,
+      @RequestParam(name = "limit", defaultValue = "10") int limit
+  ) {
+    var top = salesAnalytics.top(Window.fromParam(window), SalesAnalytics.Rank.fromParam(by), limit);
+    return ResponseEntity.ok(new TopSellersResponse(window, by, analyticsMapper.toResponseList(top)));
+  }
+}
@@ -0,0 +1,27 @@
+package com.minicommerce.backend.web.controller;
+
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class MetricsController {
+  private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+
+  private final MetricsRegistry metricsRegistry;
+
+  @GetMapping("/metrics")
+  public ResponseEntity<Map<String, Number>> metrics() {
+    return ResponseEntity.ok(metricsRegistry.snapshot());
+  }
+
+  @GetMapping("/metrics/prometheus")
+  public ResponseEntity<String> prometheus() {
+    return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(metricsRegistry.prometheus());
+  }
+}
@@ -1,43 +1,99 @@
 package com.minicommerce.backend.web.controller;
 
 import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.metrics.StageTimer;
 import com.minicommerce.backend.service.OrderService;
+import com.minicommerce.backend.web.dto.CreateBatchOrderRequest;
+import com.minicommerce.backend.web.dto.CreateBatchOrderResponse;
 import com.minicommerce.backend.web.dto.CreateOrderRequest;
 import com.minicommerce.backend.web.dto.CreateOrderResponse;
+import com.minicommerce.backend.web.dto.OrderPageResponse;
 import com.minicommerce.backend.web.dto.OrderResponse;
+import com.minicommerce.backend.web.export.OrderExportWriter;
 import com.minicommerce.backend.web.constants.ApiHeaders;
 import com.minicommerce.backend.web.mapper.OrderMapper;
 import jakarta.validation.Valid;
+import java.time.Instant;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequiredArgsConstructor
 public class OrderController {
   private final OrderService orderService;
   private final OrderMapper orderMapper;
+  private final OrderExportWriter orderExportWriter;
 
   @PostMapping("/orders")
   public ResponseEntity<CreateOrderResponse> createOrder(
       @Valid @RequestBody CreateOrderRequest req,
       @RequestHeader(ApiHeaders.IDEMPOTENCY_KEY) String idempotencyKey
   ) {
+    // Body parsing and bean validation ran before this method
+    StageTimer.sinceBegin("validation");
     Order order = orderService.createOrderIdempotent(idempotencyKey, req.getProductId(), req.getQuantity());
     return ResponseEntity.status(HttpStatus.CREATED).body(orderMapper.toCreateResponse(order));
   }
 
+  @PostMapping("/orders/batch")
+  public ResponseEntity<CreateBatchOrderResponse> createOrders(
+      @Valid @RequestBody CreateBatchOrderRequest req,
+      @RequestHeader(ApiHeaders.IDEMPOTENCY_KEY) String idempotencyKey
+  ) {
+    StageTimer.sinceBegin("validation");
+    List<Order> orders = orderService.createOrdersIdempotent(idempotencyKey, orderMapper.toLines(req.getLines()));
+    return ResponseEntity.status(HttpStatus.CREATED).body(orderMapper.toCreateBatchResponse(orders));
+  }
+
   @GetMapping("/orders/{id}")
   public ResponseEntity<OrderResponse> getOrder(@PathVariable("id") long id) {
     Order order = orderService.getOrder(id);
     return ResponseEntity.ok(orderMapper.toResponse(order));
   }
-}
 
+  /**
+   * Lists orders in the order they were placed (by id), optionally for one product and a {@code [from, to)} range of
+   * ISO-8601 instants matched against each order's {@code createdAt}. Pages are keyset-paginated: pass the returned {@code nextAfter} as
+   * {@code after} to continue, which stays correct while new orders arrive.
+   */
+  @GetMapping("/orders")
+  public ResponseEntity<OrderPageResponse> listOrders(
+      @RequestParam(name = "productId", required = false) Long productId,
+      @RequestParam(name = "from", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) Instant from,
+      @RequestParam(name = "to", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) Instant to,
+      @RequestParam(name = "after", defaultValue = "0") long after,
+      @RequestParam(name = "limit", defaultValue = "50") int limit
+  ) {
+    return ResponseEntity.ok(orderMapper.toPageResponse(orderService.findOrders(productId, from, to, after, limit)));
+  }
 
+  /**
+   * Streams every matching order as NDJSON (one JSON object per line, in id order) with chunked
+   * transfer. Filters are those of {@code GET /orders}; to resume an interrupted export, pass the
+   * {@code id} of the last complete line as {@code after}.
+   */
+  @GetMapping("/orders/export")
+  public ResponseEntity<StreamingResponseBody> exportOrders(
+      @RequestParam(name = "productId", required = false) Long productId,
+      @RequestParam(name = "from", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) Instant from,
+      @RequestParam(name = "to", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) Instant to,
+      @RequestParam(name = "after", defaultValue = "0") long after
+  ) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(orderExportWriter.prepare(productId, from, to, after));
+  }
+}
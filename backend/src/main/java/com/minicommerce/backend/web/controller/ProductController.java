@@ -1,24 +1,107 @@
 package com.minicommerce.backend.web.controller;
 
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.service.CatalogReadModel.Snapshot;
 import com.minicommerce.backend.service.CatalogService;
-import com.minicommerce.backend.web.dto.ProductResponse;
+import com.minicommerce.backend.service.ProductQuery;
+import com.minicommerce.backend.service.ProductSearchPage;
+import com.minicommerce.backend.web.cache.CatalogPayloadCache;
+import com.minicommerce.backend.web.cache.CatalogPayloadCache.Payload;
+import com.minicommerce.backend.web.dto.ProductDeltaResponse;
+import com.minicommerce.backend.web.dto.ProductPageResponse;
 import com.minicommerce.backend.web.mapper.ProductMapper;
-import java.util.List;
+import java.math.BigDecimal;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
 public class ProductController {
   private final CatalogService catalogService;
+  private final CatalogPayloadCache catalogPayloadCache;
   private final ProductMapper productMapper;
 
+  /**
+   * Lists products with a weak ETag of the catalog version; a matching {@code If-None-Match}
+   * gets 304. With {@code sinceVersion} only products changed after that version are returned,
+   * or the full list if the catalog cannot answer from that version.
+   *
+   * <p>The full list is written from pre-serialized bytes, gzipped when the client accepts it.
+   *
+   * <p>With any of {@code q}, {@code minPrice}, {@code maxPrice}, {@code inStock}, {@code sort},
+   * {@code cursor} or {@code limit} the catalog is searched instead: words in {@code q} match name
+   * words by prefix, prices are inclusive, {@code sort} is {@code id} (default), {@code price} or
+   * {@code -price}, and pages are keyset-paginated through the returned {@code nextCursor}.
+   */
   @GetMapping("/products")
-  public ResponseEntity<List<ProductResponse>> listProducts() {
-    return ResponseEntity.ok(productMapper.toResponseList(catalogService.listProducts()));
+  public ResponseEntity<?> listProducts(
+      @RequestParam(name = "sinceVersion", required = false) Long sinceVersion,
+      @RequestParam(name = "q", required = false) String q,
+      @RequestParam(name = "minPrice", required = false) BigDecimal minPrice,
+      @RequestParam(name = "maxPrice", required = false) BigDecimal maxPrice,
+      @RequestParam(name = "inStock", required = false) Boolean inStock,
+      @RequestParam(name = "sort", required = false) String sort,
+      @RequestParam(name = "cursor", required = false) String cursor,
+      @RequestParam(name = "limit", required = false) Integer limit,
+      WebRequest request
+  ) {
+    if (q != null || minPrice != null || maxPrice != null || inStock != null || sort != null
+        || cursor != null || limit != null) {
+      ProductSearchPage page = catalogService.search(new ProductQuery(
+          q,
+          minPrice == null ? null : Money.of(minPrice, Money.DEFAULT_CURRENCY),
+          maxPrice == null ? null : Money.of(maxPrice, Money.DEFAULT_CURRENCY),
+          Boolean.TRUE.equals(inStock),
+          sort == null ? ProductQuery.Sort.ID : ProductQuery.Sort.fromParam(sort),
+          cursor,
+          limit == null ? 50 : limit));
+      return ResponseEntity.ok(new ProductPageResponse(productMapper.toResponseList(page.products()), page.nextCursor()));
+    }
+    long version = catalogService.version();
+    if (request.checkNotModified(etag(version, sinceVersion))) {
+      return ResponseEntity.status(304).eTag(etag(version, sinceVersion)).build();
+    }
+    if (sinceVersion == null) {
+      Payload payload = catalogPayloadCache.get(version);
+      boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+      var response = ResponseEntity.ok()
+          .eTag(etag(payload.version(), null))
+          .contentType(MediaType.APPLICATION_JSON)
+          .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+      if (gzip) {
+        response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+      }
+      return response.body(gzip ? payload.gzip() : payload.identity());
+    }
+    Snapshot snapshot = catalogService.snapshot();
+    // A version from before the last rebuild, from an earlier boot or from nowhere yet gets the whole list
+    boolean full = sinceVersion < snapshot.baseVersion() || sinceVersion > snapshot.version();
+    var products = full ? snapshot.products() : snapshot.changedSince(sinceVersion);
+    return ResponseEntity.ok().eTag(etag(snapshot.version(), sinceVersion)).body(
+        new ProductDeltaResponse(snapshot.version(), full, productMapper.toResponseList(products)));
   }
-}
 
+  private static String etag(long version, Long sinceVersion) {
+    // The delta body depends on both versions, so it must not share a validator with the full list
+    return sinceVersion == null ? "W/\"" + version + "\"" : "W/\"" + version + "-" + sinceVersion + "\"";
+  }
 
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) return false;
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.trim().split(";");
+      if (!parts[0].trim().equalsIgnoreCase("gzip")) continue;
+      for (int i = 1; i < parts.length; i++) {
+        if (parts[i].trim().matches("q=0(\\.0{0,3})?")) return false;
+      }
+      return true;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,25 @@
+package com.minicommerce.backend.web.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CatalogImportResponse {
+  private long rows;
+  private long imported;
+  private long rejected;
+  private long elapsedMs;
+  /** The first rejected rows by line; {@code rejected} counts all of them. */
+  private List<RowError> errors;
+
+  @Data
+  @AllArgsConstructor
+  public static class RowError {
+    private long line;
+    private String reason;
+    /** The row as read, cut to 200 characters; null for a repeated id. */
+    private String row;
+  }
+}
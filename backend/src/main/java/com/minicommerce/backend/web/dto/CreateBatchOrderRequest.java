@@ -0,0 +1,18 @@
+package com.minicommerce.backend.web.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateBatchOrderRequest {
+  @NotEmpty(message = "At least one order line is required")
+  @Size(max = 50, message = "A checkout cannot contain more than 50 lines")
+  private List<@Valid CreateOrderRequest> lines;
+}
@@ -0,0 +1,13 @@
+package com.minicommerce.backend.web.dto;
+
+import com.minicommerce.backend.domain.Money;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CreateBatchOrderResponse {
+  private List<CreateOrderResponse> orders;
+  private Money totalPrice;
+}
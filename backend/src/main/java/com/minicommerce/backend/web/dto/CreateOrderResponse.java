@@ -1,6 +1,6 @@
 package com.minicommerce.backend.web.dto;
 
-import java.math.BigDecimal;
+import com.minicommerce.backend.domain.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -8,7 +8,7 @@ import lombok.Data;
 @AllArgsConstructor
 public class CreateOrderResponse {
   private long orderId;
-  private BigDecimal totalPrice;
+  private Money totalPrice;
 }
 
 
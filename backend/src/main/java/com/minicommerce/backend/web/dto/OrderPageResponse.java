@@ -0,0 +1,13 @@
+package com.minicommerce.backend.web.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class OrderPageResponse {
+  private List<OrderResponse> orders;
+  /** Pass as {@code after} to fetch the next page; null on the last page. */
+  private Long nextAfter;
+}
@@ -1,6 +1,6 @@
 package com.minicommerce.backend.web.dto;
 
-import java.math.BigDecimal;
+import com.minicommerce.backend.domain.Money;
 import java.time.Instant;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -11,8 +11,8 @@ public class OrderResponse {
   private long id;
   private long productId;
   private int quantity;
-  private BigDecimal unitPrice;
-  private BigDecimal totalPrice;
+  private Money unitPrice;
+  private Money totalPrice;
   private Instant createdAt;
 }
 
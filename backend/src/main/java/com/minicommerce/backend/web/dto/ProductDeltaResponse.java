@@ -0,0 +1,17 @@
+package com.minicommerce.backend.web.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Products changed since the client's version. When {@code full} is set the client must replace
+ * its whole list, because the catalog was rebuilt since that version.
+ */
+@Data
+@AllArgsConstructor
+public class ProductDeltaResponse {
+  private long version;
+  private boolean full;
+  private List<ProductResponse> products;
+}
@@ -0,0 +1,13 @@
+package com.minicommerce.backend.web.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ProductPageResponse {
+  private List<ProductResponse> products;
+  /** Pass as {@code cursor} to fetch the next page; null on the last page. */
+  private String nextCursor;
+}
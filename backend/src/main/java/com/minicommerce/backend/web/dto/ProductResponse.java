@@ -1,6 +1,6 @@
 package com.minicommerce.backend.web.dto;
 
-import java.math.BigDecimal;
+import com.minicommerce.backend.domain.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -9,7 +9,7 @@ import lombok.Data;
 public class ProductResponse {
   private long id;
   private String name;
-  private BigDecimal price;
+  private Money price;
   private int stock;
 }
 
@@ -0,0 +1,14 @@
+package com.minicommerce.backend.web.dto;
+
+import com.minicommerce.backend.domain.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ProductSalesResponse {
+  private long productId;
+  private long orders;
+  private long units;
+  private Money revenue;
+}
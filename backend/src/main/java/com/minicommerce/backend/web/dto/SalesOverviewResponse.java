@@ -0,0 +1,13 @@
+package com.minicommerce.backend.web.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SalesOverviewResponse {
+  /** Null for all products. */
+  private Long productId;
+  private List<SalesResponse> windows;
+}
@@ -0,0 +1,16 @@
+package com.minicommerce.backend.web.dto;
+
+import com.minicommerce.backend.domain.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SalesResponse {
+  /** {@code 1m}, {@code 5m}, {@code 1h} or {@code all} (since startup). */
+  private String window;
+  private long orders;
+  private long units;
+  private Money revenue;
+  private double ordersPerMinute;
+}
@@ -0,0 +1,15 @@
+package com.minicommerce.backend.web.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TopSellersResponse {
+  private String window;
+  /** {@code units} or {@code revenue}. */
+  private String by;
+  /** Best first. */
+  private List<ProductSalesResponse> products;
+}
@@ -1,16 +1,19 @@
 package com.minicommerce.backend.web.error;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.time.Instant;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.web.ErrorResponseException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @RestControllerAdvice
 public class ApiExceptionHandler {
@@ -41,6 +44,35 @@ public class ApiExceptionHandler {
     return pd;
   }
 
+  @ExceptionHandler(CatalogImportConflictException.class)
+  public ProblemDetail handleCatalogImportConflict(CatalogImportConflictException ex, HttpServletRequest req) {
+    log.warn("Catalog import refused: {} - {}", req.getRequestURI(), ex.getMessage());
+    var pd = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+    enrich(pd, req);
+    return pd;
+  }
+
+  @ExceptionHandler(ForbiddenException.class)
+  public ProblemDetail handleForbidden(ForbiddenException ex, HttpServletRequest req) {
+    log.warn("Forbidden: {} - {}", req.getRequestURI(), ex.getMessage());
+    var pd = ProblemDetail.forStatusAndDetail(HttpStatus.FORBIDDEN, ex.getMessage());
+    enrich(pd, req);
+    return pd;
+  }
+
+  @ExceptionHandler(ServiceOverloadedException.class)
+  public ProblemDetail handleOverloaded(
+      ServiceOverloadedException ex,
+      HttpServletRequest req,
+      HttpServletResponse res
+  ) {
+    log.warn("Overloaded: {} - {}", req.getRequestURI(), ex.getMessage());
+    res.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+    var pd = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    enrich(pd, req);
+    return pd;
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ProblemDetail handleValidation(MethodArgumentNotValidException ex, HttpServletRequest req) {
     String errors = ex.getBindingResult().getFieldErrors().stream()
@@ -70,6 +102,14 @@ public class ApiExceptionHandler {
     return pd;
   }
 
+  @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+  public ProblemDetail handleTypeMismatch(MethodArgumentTypeMismatchException ex, HttpServletRequest req) {
+    log.warn("Bad parameter: {} - {}={}", req.getRequestURI(), ex.getName(), ex.getValue());
+    var pd = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Invalid value for parameter '" + ex.getName() + "'");
+    enrich(pd, req);
+    return pd;
+  }
+
   @ExceptionHandler(ErrorResponseException.class)
   public ProblemDetail handleSpringErrorResponse(ErrorResponseException ex, HttpServletRequest req) {
     log.warn("Spring error response: {} - Status: {} - {}", 
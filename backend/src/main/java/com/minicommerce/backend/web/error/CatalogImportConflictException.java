@@ -0,0 +1,7 @@
+package com.minicommerce.backend.web.error;
+
+public class CatalogImportConflictException extends RuntimeException {
+  public CatalogImportConflictException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.minicommerce.backend.web.error;
+
+public class ForbiddenException extends RuntimeException {
+  public ForbiddenException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,17 @@
+package com.minicommerce.backend.web.error;
+
+/**
+ * The server is shedding load; mapped to 503 with a {@code Retry-After} hint.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+  private final long retryAfterSeconds;
+
+  public ServiceOverloadedException(String message, long retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -0,0 +1,123 @@
+package com.minicommerce.backend.web.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.OrderPage;
+import com.minicommerce.backend.service.OrderService;
+import com.minicommerce.backend.web.dto.OrderResponse;
+import com.minicommerce.backend.web.mapper.OrderMapper;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Writes orders as NDJSON, one {@link OrderResponse} per line in id order, for
+ * {@code GET /orders/export}.
+ *
+ * <p>Orders are read one page of {@link OrderService#MAX_PAGE_SIZE} at a time through the
+ * lock-free keyset query, so memory stays constant, concurrent saves are never blocked, and orders
+ * saved while the export runs are included up to the moment it catches up. Each page is flushed
+ * before the next is read; writes block while the client is slower than the export, which holds
+ * back reading too. A client that loses the connection resumes with {@code after} set to the id on
+ * the last complete line it received.
+ */
+@Slf4j
+@Component
+public class OrderExportWriter {
+  private final OrderService orderService;
+  private final OrderMapper orderMapper;
+  private final ObjectWriter writer;
+  private final ObjectMapper objectMapper;
+  private final LongAdder exportedOrders;
+  private final LongAdder exportedBytes;
+  private final LongAdder aborted;
+  private final AtomicLong active = new AtomicLong();
+
+  public OrderExportWriter(
+      OrderService orderService,
+      OrderMapper orderMapper,
+      ObjectMapper objectMapper,
+      MetricsRegistry metrics
+  ) {
+    this.orderService = orderService;
+    this.orderMapper = orderMapper;
+    this.objectMapper = objectMapper;
+    // Flushing is done per page, not per order
+    this.writer = objectMapper.writerFor(OrderResponse.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    this.exportedOrders = metrics.counter("order_export_orders_total");
+    this.exportedBytes = metrics.counter("order_export_bytes_total");
+    this.aborted = metrics.counter("order_export_aborted_total");
+    metrics.gauge("order_export_active", active::get);
+  }
+
+  /**
+   * Checks the filter up front, so a bad request fails with 400 before streaming starts, and returns
+   * the stream body.
+   *
+   * @throws IllegalArgumentException on an invalid filter
+   */
+  public StreamingResponseBody prepare(Long productId, Instant from, Instant to, long after) {
+    orderService.findOrders(productId, from, to, after, 1);
+    return out -> write(productId, from, to, after, out);
+  }
+
+  private void write(Long productId, Instant from, Instant to, long after, OutputStream out) throws IOException {
+    var counting = new CountingOutputStream(out);
+    active.incrementAndGet();
+    try (JsonGenerator gen = objectMapper.getFactory().createGenerator(counting)) {
+      // The servlet container owns the response stream
+      gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      // Lines are separated by the newline alone, not the default space between root values
+      gen.setRootValueSeparator(null);
+      long cursor = after;
+      while (true) {
+        OrderPage page = orderService.findOrders(productId, from, to, cursor, OrderService.MAX_PAGE_SIZE);
+        for (Order order : page.orders()) {
+          writer.writeValue(gen, orderMapper.toResponse(order));
+          gen.writeRaw('\n');
+        }
+        gen.flush();
+        exportedOrders.add(page.orders().size());
+        if (page.nextAfter() == null) break;
+        cursor = page.nextAfter();
+      }
+    } catch (IOException e) {
+      // Almost always the client going away; it resumes from its last complete line
+      aborted.increment();
+      log.debug("Order export aborted after {} bytes: {}", counting.count, e.getMessage());
+    } finally {
+      exportedBytes.add(counting.count);
+      active.decrementAndGet();
+    }
+  }
+
+  private static final class CountingOutputStream extends FilterOutputStream {
+    private long count;
+
+    CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.minicommerce.backend.web.interceptor;
+
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.support.RingBuffer;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Off-thread access log: request threads enqueue a small event, a background thread formats a
+ * batch of them into one string and hands it to the {@code ACCESS} logger in a single call.
+ *
+ * <p>When the buffer is full the event is dropped and counted rather than blocking the request.
+ */
+@Component
+public class AccessLogWriter {
+  private static final Logger access = LoggerFactory.getLogger("ACCESS");
+  private static final Logger log = LoggerFactory.getLogger(AccessLogWriter.class);
+  private static final DateTimeFormatter LOCAL_TIME =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+  record Event(String method, String uri, long startEpochMillis, long durationNanos, int status) {}
+
+  private final RingBuffer<Event> buffer;
+  private final int batchSize;
+  private final LongAdder written;
+  private final LongAdder dropped;
+  private final StringBuilder line = new StringBuilder(8192);
+  private final Thread writer;
+  private volatile boolean running = true;
+
+  public AccessLogWriter(
+      MetricsRegistry metrics,
+      @Value("${app.access-log.buffer-size:8192}") int bufferSize,
+      @Value("${app.access-log.batch-size:256}") int batchSize
+  ) {
+    this.buffer = new RingBuffer<>(bufferSize);
+    this.batchSize = batchSize;
+    this.written = metrics.counter("access_log_written_total");
+    this.dropped = metrics.counter("access_log_dropped_total");
+    metrics.gauge("access_log_queue_depth", buffer::size);
+    this.writer = new Thread(this::run, "access-log-writer");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  /**
+   * @return false if the event was dropped because the buffer is full
+   */
+  public boolean offer(String method, String uri, long startEpochMillis, long durationNanos, int status) {
+    if (buffer.offer(new Event(method, uri, startEpochMillis, durationNanos, status))) {
+      return true;
+    }
+    dropped.increment();
+    return false;
+  }
+
+  @PreDestroy
+  public void close() throws InterruptedException {
+    running = false;
+    LockSupport.unpark(writer);
+    writer.join(TimeUnit.SECONDS.toMillis(5));
+  }
+
+  private void run() {
+    while (running || !buffer.isEmpty()) {
+      int n = buffer.drain(this::append, batchSize);
+      if (n == 0) {
+        buffer.awaitNonEmpty(IDLE_PARK_NANOS);
+        continue;
+      }
+      try {
+        // The last line's newline comes from the appender pattern
+        line.setLength(line.length() - 1);
+        access.info(line.toString());
+        written.add(n);
+      } catch (RuntimeException e) {
+        log.warn("Failed to write {} access log records", n, e);
+      } finally {
+        line.setLength(0);
+      }
+    }
+  }
+
+  /**
+   * Same columns as the previous MDC-based layout: time | method | uri | start | end | duration | status.
+   */
+  private void append(Event event) {
+    Instant start = Instant.ofEpochMilli(event.startEpochMillis());
+    long durationMs = TimeUnit.NANOSECONDS.toMillis(event.durationNanos());
+    LOCAL_TIME.formatTo(start, line);
+    line.append(" | ").append(event.method())
+        .append(" | ").append(event.uri())
+        .append(" | ").append(start)
+        .append(" | ").append(start.plusMillis(durationMs))
+        .append(" | ").append(durationMs).append("ms")
+        .append(" | ").append(event.status())
+        .append('\n');
+  }
+}
@@ -1,31 +1,56 @@
 package com.minicommerce.backend.web.interceptor;
 
+import com.minicommerce.backend.metrics.LatencyHistogram;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.time.Duration;
-import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 
 /**
- * Interceptor to log API request information using MDC (Mapped Diagnostic Context).
+ * Interceptor to log API request information.
  * Records: method, URI, start time, end time, duration, and status code.
+ *
+ * <p>Only two longs are captured on the request thread; formatting and I/O happen on the
+ * {@link AccessLogWriter} thread. Successful (2xx) requests are logged at
+ * {@code app.access-log.sample-2xx}; everything else is always logged. Every request is recorded
+ * in the {@code http_server_requests_seconds} latency histograms.
  */
 @Component
 public class ApiLoggingInterceptor implements HandlerInterceptor {
 
   private static final Logger log = LoggerFactory.getLogger(ApiLoggingInterceptor.class);
-  private static final String START_TIME_ATTRIBUTE = "startTime";
-  private static final String MDC_METHOD = "method";
-  private static final String MDC_URI = "uri";
-  private static final String MDC_START_TIME = "startTime";
-  private static final String MDC_END_TIME = "endTime";
-  private static final String MDC_DURATION = "duration";
-  private static final String MDC_STATUS_CODE = "statusCode";
+  private static final String START_NANOS_ATTRIBUTE = ApiLoggingInterceptor.class.getName() + ".startNanos";
+  private static final String START_MILLIS_ATTRIBUTE = ApiLoggingInterceptor.class.getName() + ".startMillis";
+
+  private record RouteKey(String method, String route, int statusClass) {}
+
+  private final AccessLogWriter accessLog;
+  private final MetricsRegistry metrics;
+  private final double sample2xx;
+  private final LongAdder sampledOut;
+  private final Map<RouteKey, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+  public ApiLoggingInterceptor(
+      AccessLogWriter accessLog,
+      MetricsRegistry metrics,
+      @Value("${app.access-log.sample-2xx:1.0}") double sample2xx
+  ) {
+    this.accessLog = accessLog;
+    this.metrics = metrics;
+    this.sample2xx = sample2xx;
+    this.sampledOut = metrics.counter("access_log_sampled_out_total");
+  }
 
   @Override
   public boolean preHandle(
@@ -33,14 +58,12 @@ public class ApiLoggingInterceptor implements HandlerInterceptor {
       @NonNull HttpServletResponse response,
       @NonNull Object handler
   ) {
-    Instant startTime = Instant.now();
-    request.setAttribute(START_TIME_ATTRIBUTE, startTime);
-
-    // Put request information into MDC
-    MDC.put(MDC_METHOD, request.getMethod());
-    MDC.put(MDC_URI, request.getRequestURI());
-    MDC.put(MDC_START_TIME, startTime.toString());
-
+    // Keep the original start when a streamed response is dispatched again on completion
+    if (request.getDispatcherType() == DispatcherType.ASYNC) {
+      return true;
+    }
+    request.setAttribute(START_NANOS_ATTRIBUTE, System.nanoTime());
+    request.setAttribute(START_MILLIS_ATTRIBUTE, System.currentTimeMillis());
     return true;
   }
 
@@ -51,35 +74,37 @@ public class ApiLoggingInterceptor implements HandlerInterceptor {
       @NonNull Object handler,
       Exception ex
   ) {
-    try {
-      Instant startTime = (Instant) request.getAttribute(START_TIME_ATTRIBUTE);
-      Instant endTime = Instant.now();
-
-      if (startTime != null) {
-        Duration duration = Duration.between(startTime, endTime);
-        long durationMs = duration.toMillis();
-
-        // Update MDC with completion information
-        MDC.put(MDC_END_TIME, endTime.toString());
-        MDC.put(MDC_DURATION, String.valueOf(durationMs));
-        MDC.put(MDC_STATUS_CODE, String.valueOf(response.getStatus()));
-
-        // Log the API request
-        log.info("API Request completed: {} {} - Status: {} - Duration: {}ms",
-            request.getMethod(),
-            request.getRequestURI(),
-            response.getStatus(),
-            durationMs);
+    if (!(request.getAttribute(START_NANOS_ATTRIBUTE) instanceof Long startNanos)
+        || !(request.getAttribute(START_MILLIS_ATTRIBUTE) instanceof Long startMillis)) {
+      return;
+    }
+    long durationNanos = System.nanoTime() - startNanos;
+    int status = response.getStatus();
+    latency(request, status).record(durationNanos);
+    if (status / 100 == 2 && sample2xx < 1.0 && ThreadLocalRandom.current().nextDouble() >= sample2xx) {
+      sampledOut.increment();
+    } else {
+      accessLog.offer(request.getMethod(), request.getRequestURI(), startMillis, durationNanos, status);
+    }
 
-        // Log error if exception occurred
-        if (ex != null) {
-          log.error("Exception occurred during request processing", ex);
-        }
-      }
-    } finally {
-      // Always clear MDC to prevent memory leaks and cross-request contamination
-      MDC.clear();
+    // Log error if exception occurred
+    if (ex != null) {
+      log.error("Exception occurred during request processing: {} {}", request.getMethod(), request.getRequestURI(), ex);
     }
   }
-}
 
+  /**
+   * Histogram per method, route pattern (not raw URI, so ids do not explode the series count)
+   * and status class.
+   */
+  private LatencyHistogram latency(HttpServletRequest request, int status) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    var key = new RouteKey(request.getMethod(), pattern != null ? pattern.toString() : "unmatched", status / 100);
+    LatencyHistogram histogram = latencies.get(key);
+    if (histogram != null) return histogram;
+    return latencies.computeIfAbsent(key, k -> metrics.histogram("http_server_requests_seconds", Map.of(
+        "method", k.method(),
+        "route", k.route(),
+        "status", k.statusClass() + "xx")));
+  }
+}
@@ -0,0 +1,99 @@
+package com.minicommerce.backend.web.interceptor;
+
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.support.AdaptiveConcurrencyLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admission control for order writes ({@code POST /orders/**}) with an
+ * {@link AdaptiveConcurrencyLimiter}.
+ *
+ * <p>Reads never pass through the limiter, and writes can hold at most {@code max-limit +
+ * max-queue} request threads, so a sale cannot starve {@code GET /products} of Tomcat threads.
+ * Writes over the limit wait up to {@code max-wait-ms} and are then shed with 503.
+ */
+@Slf4j
+@Component
+public class OrderAdmissionInterceptor implements HandlerInterceptor {
+  private static final String ADMITTED_AT_ATTRIBUTE = OrderAdmissionInterceptor.class.getName() + ".admittedAt";
+
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final boolean enabled;
+  private final long maxWaitNanos;
+  private final long retryAfterSeconds;
+  private final LongAdder admitted;
+  private final LongAdder shed;
+
+  public OrderAdmissionInterceptor(
+      MetricsRegistry metrics,
+      @Value("${app.order-admission.enabled:true}") boolean enabled,
+      @Value("${app.order-admission.initial-limit:20}") int initialLimit,
+      @Value("${app.order-admission.min-limit:2}") int minLimit,
+      @Value("${app.order-admission.max-limit:100}") int maxLimit,
+      @Value("${app.order-admission.max-queue:50}") int maxQueue,
+      @Value("${app.order-admission.max-wait-ms:50}") long maxWaitMs,
+      @Value("${app.order-admission.retry-after-seconds:1}") long retryAfterSeconds
+  ) {
+    this.enabled = enabled;
+    this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, maxQueue);
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+    this.retryAfterSeconds = retryAfterSeconds;
+    this.admitted = metrics.counter("order_admission_admitted_total");
+    this.shed = metrics.counter("order_admission_shed_total");
+    metrics.gauge("order_admission_limit", limiter::limit);
+    metrics.gauge("order_admission_in_flight", limiter::inFlight);
+    metrics.gauge("order_admission_queued", limiter::queued);
+    metrics.gauge("order_admission_min_rtt_us", () -> TimeUnit.NANOSECONDS.toMicros(limiter.minRttNanos()));
+  }
+
+  @Override
+  public boolean preHandle(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull Object handler
+  ) throws Exception {
+    if (!enabled || !"POST".equals(request.getMethod())) {
+      return true;
+    }
+    if (limiter.tryAcquire(maxWaitNanos)) {
+      admitted.increment();
+      request.setAttribute(ADMITTED_AT_ATTRIBUTE, System.nanoTime());
+      return true;
+    }
+
+    shed.increment();
+    log.debug("Shedding {} ({})", request.getRequestURI(), limiter);
+    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    response.setContentType("application/json");
+    response.getWriter().write(
+        "{\"type\":\"about:blank\"," +
+            "\"title\":\"Service Unavailable\"," +
+            "\"status\":503," +
+            "\"detail\":\"Too many orders in progress. Please retry shortly.\"}"
+    );
+    return false;
+  }
+
+  @Override
+  public void afterCompletion(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull Object handler,
+      Exception ex
+  ) {
+    if (request.getAttribute(ADMITTED_AT_ATTRIBUTE) instanceof Long admittedAt) {
+      limiter.release(System.nanoTime() - admittedAt);
+    }
+  }
+}
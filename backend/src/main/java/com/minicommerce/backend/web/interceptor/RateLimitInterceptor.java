@@ -1,12 +1,17 @@
 package com.minicommerce.backend.web.interceptor;
 
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.support.RateLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.time.Instant;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
@@ -14,29 +19,63 @@ import org.springframework.web.servlet.HandlerInterceptor;
 /**
  * Rate limiting interceptor using token bucket algorithm.
  * Limits requests per IP address to prevent abuse.
+ *
+ * <p>Each request costs 1 token unless {@code app.rate-limit.route-costs} assigns its
+ * {@code "METHOD /path"} a different weight, between 1 and {@code burst-size}; other costs fail
+ * startup.
  */
 @Slf4j
 @Component
+@ConfigurationProperties(prefix = "app.rate-limit")
 public class RateLimitInterceptor implements HandlerInterceptor {
 
-  @Value("${app.rate-limit.requests-per-minute:60}")
-  private int requestsPerMinute;
+  private int requestsPerMinute = 60;
 
-  @Value("${app.rate-limit.burst-size:10}")
-  private int burstSize;
+  private int burstSize = 10;
 
-  // Token bucket per IP: {IP -> {tokens: count, lastRefill: timestamp}}
-  private static class TokenBucket {
-    private int tokens;
-    private long lastRefillTime;
+  private long maxBuckets = 100_000;
 
-    TokenBucket(int initialTokens) {
-      this.tokens = initialTokens;
-      this.lastRefillTime = System.currentTimeMillis();
-    }
+  private Map<String, Integer> routeCosts = Map.of();
+
+  private final LongAdder admitted;
+  private final LongAdder rejected;
+  private final MetricsRegistry metrics;
+  private RateLimiter limiter;
+
+  public RateLimitInterceptor(MetricsRegistry metrics) {
+    this.metrics = metrics;
+    this.admitted = metrics.counter("rate_limit_admitted_total");
+    this.rejected = metrics.counter("rate_limit_rejected_total");
+  }
+
+  public void setRequestsPerMinute(int requestsPerMinute) {
+    this.requestsPerMinute = requestsPerMinute;
+  }
+
+  public void setBurstSize(int burstSize) {
+    this.burstSize = burstSize;
+  }
+
+  public void setMaxBuckets(long maxBuckets) {
+    this.maxBuckets = maxBuckets;
   }
 
-  private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+  public void setRouteCosts(Map<String, Integer> routeCosts) {
+    this.routeCosts = routeCosts;
+  }
+
+  @PostConstruct
+  void init() {
+    // A cost above the burst could never be admitted, even from a full bucket
+    routeCosts.forEach((route, cost) -> {
+      if (cost == null || cost < 1 || cost > burstSize) {
+        throw new IllegalArgumentException(
+            "app.rate-limit.route-costs[" + route + "] must be between 1 and burst-size (" + burstSize + "), got " + cost);
+      }
+    });
+    limiter = new RateLimiter(requestsPerMinute, burstSize, maxBuckets);
+    metrics.gauge("rate_limit_buckets", limiter::bucketCount);
+  }
 
   @Override
   public boolean preHandle(
@@ -44,6 +83,11 @@ public class RateLimitInterceptor implements HandlerInterceptor {
       HttpServletResponse response,
       Object handler
   ) throws Exception {
+    // A streamed response is dispatched again when it completes; it was charged on the way in
+    if (request.getDispatcherType() == DispatcherType.ASYNC) {
+      return true;
+    }
+
     // Skip rate limiting for excluded paths
     String path = request.getRequestURI();
     if (path.startsWith("/swagger-ui") ||
@@ -55,30 +99,18 @@ public class RateLimitInterceptor implements HandlerInterceptor {
     }
 
     String clientIp = getClientIp(request);
-    TokenBucket bucket = buckets.computeIfAbsent(
-        clientIp,
-        k -> new TokenBucket(burstSize)
-    );
-
-    // Refill tokens based on time elapsed
-    long now = System.currentTimeMillis();
-    long elapsed = now - bucket.lastRefillTime;
-    long tokensToAdd = (elapsed * requestsPerMinute) / 60000; // tokens per millisecond
-
-    if (tokensToAdd > 0) {
-      bucket.tokens = Math.min(burstSize, bucket.tokens + (int) tokensToAdd);
-      bucket.lastRefillTime = now;
-    }
-
-    // Check if request can be processed
-    if (bucket.tokens > 0) {
-      bucket.tokens--;
+    long waitNanos = limiter.tryAcquire(clientIp, cost(request.getMethod(), path));
+    if (waitNanos == 0) {
+      admitted.increment();
       return true;
     }
 
-    // Rate limit exceeded
-    log.warn("Rate limit exceeded for IP: {}, path: {}", clientIp, path);
+    // Rate limit exceeded; counted rather than logged at warn, which would flood under attack
+    rejected.increment();
+    log.debug("Rate limit exceeded for IP: {}, path: {}", clientIp, path);
     response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
     response.setContentType("application/json");
     response.getWriter().write(
         "{\"type\":\"about:blank\"," +
@@ -89,10 +121,16 @@ public class RateLimitInterceptor implements HandlerInterceptor {
     return false;
   }
 
+  private int cost(String method, String path) {
+    if (routeCosts.isEmpty()) return 1;
+    Integer cost = routeCosts.get(method + " " + path);
+    return cost != null ? cost : 1;
+  }
+
   /**
    * Get client IP address from request, considering proxy headers.
    */
-  private String getClientIp(HttpServletRequest request) {
+  static String getClientIp(HttpServletRequest request) {
     String ip = request.getHeader("X-Forwarded-For");
     if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
       ip = request.getHeader("X-Real-IP");
@@ -101,10 +139,10 @@ public class RateLimitInterceptor implements HandlerInterceptor {
       ip = request.getRemoteAddr();
     }
     // If multiple IPs, take the first one
-    if (ip != null && ip.contains(",")) {
-      ip = ip.split(",")[0].trim();
+    if (ip != null) {
+      int comma = ip.indexOf(',');
+      if (comma >= 0) ip = ip.substring(0, comma).trim();
     }
     return ip != null ? ip : "unknown";
   }
 }
-
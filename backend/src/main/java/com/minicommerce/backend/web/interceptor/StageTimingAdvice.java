@@ -0,0 +1,44 @@
+package com.minicommerce.backend.web.interceptor;
+
+import com.minicommerce.backend.metrics.StageTimer;
+import com.minicommerce.backend.metrics.StageTimer.Timeline;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Writes the stages recorded so far as a {@code Server-Timing} header. This is the last point
+ * before the response is committed, so serialization itself only reaches the histograms.
+ */
+@ControllerAdvice
+public class StageTimingAdvice implements ResponseBodyAdvice<Object> {
+
+  @Override
+  public boolean supports(
+      MethodParameter returnType,
+      Class<? extends HttpMessageConverter<?>> converterType
+  ) {
+    return StageTimer.isEnabled();
+  }
+
+  @Override
+  public Object beforeBodyWrite(
+      Object body,
+      MethodParameter returnType,
+      MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+      ServerHttpRequest request,
+      ServerHttpResponse response
+  ) {
+    Timeline timeline = StageTimer.current();
+    if (timeline != null) {
+      response.getHeaders().add("Server-Timing", timeline.serverTiming());
+      timeline.markBodyWrite();
+    }
+    return body;
+  }
+}
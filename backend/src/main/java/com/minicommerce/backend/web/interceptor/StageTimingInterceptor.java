@@ -0,0 +1,68 @@
+package com.minicommerce.backend.web.interceptor;
+
+import com.minicommerce.backend.metrics.LatencyHistogram;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.metrics.StageTimer;
+import com.minicommerce.backend.metrics.StageTimer.Timeline;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Opens a {@link StageTimer} timeline for order requests and, once the request completes, adds
+ * each stage to the {@code order_stage_seconds{stage}} histograms. The {@code Server-Timing}
+ * header itself is written by {@link StageTimingAdvice} just before the body.
+ *
+ * <p>Off unless {@code app.stage-timing.enabled=true}.
+ */
+@Component
+public class StageTimingInterceptor implements HandlerInterceptor {
+  private final MetricsRegistry metrics;
+  private final Map<String, LatencyHistogram> stages = new ConcurrentHashMap<>();
+
+  public StageTimingInterceptor(
+      MetricsRegistry metrics,
+      @Value("${app.stage-timing.enabled:false}") boolean enabled
+  ) {
+    this.metrics = metrics;
+    StageTimer.setEnabled(enabled);
+  }
+
+  @Override
+  public boolean preHandle(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull Object handler
+  ) {
+    StageTimer.begin();
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull Object handler,
+      Exception ex
+  ) {
+    Timeline timeline = StageTimer.end();
+    if (timeline == null) return;
+    if (timeline.bodyWriteAt() != 0) {
+      timeline.add("serialization", System.nanoTime() - timeline.bodyWriteAt());
+    }
+    for (int i = 0; i < timeline.size(); i++) {
+      histogram(timeline.stage(i)).record(timeline.nanos(i));
+    }
+  }
+
+  private LatencyHistogram histogram(String stage) {
+    LatencyHistogram histogram = stages.get(stage);
+    if (histogram != null) return histogram;
+    return stages.computeIfAbsent(stage, s -> metrics.histogram("order_stage_seconds", Map.of("stage", s)));
+  }
+}
@@ -0,0 +1,28 @@
+package com.minicommerce.backend.web.mapper;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.service.SalesAnalytics.ProductSales;
+import com.minicommerce.backend.service.SalesAnalytics.Sales;
+import com.minicommerce.backend.web.dto.ProductSalesResponse;
+import com.minicommerce.backend.web.dto.SalesResponse;
+import java.util.List;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface AnalyticsMapper {
+
+  default SalesResponse toResponse(String window, Sales sales) {
+    return new SalesResponse(window, sales.orders(), sales.units(), revenue(sales.revenueMinor()),
+        sales.ordersPerMinute());
+  }
+
+  default ProductSalesResponse toResponse(ProductSales sales) {
+    return new ProductSalesResponse(sales.productId(), sales.orders(), sales.units(), revenue(sales.revenueMinor()));
+  }
+
+  List<ProductSalesResponse> toResponseList(List<ProductSales> sales);
+
+  private static Money revenue(long minorUnits) {
+    return Money.ofMinor(minorUnits, Money.DEFAULT_CURRENCY);
+  }
+}
@@ -1,8 +1,15 @@
 package com.minicommerce.backend.web.mapper;
 
+import com.minicommerce.backend.domain.Money;
 import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.domain.OrderLine;
+import com.minicommerce.backend.web.dto.CreateBatchOrderResponse;
+import com.minicommerce.backend.web.dto.CreateOrderRequest;
+import com.minicommerce.backend.repository.OrderPage;
 import com.minicommerce.backend.web.dto.CreateOrderResponse;
+import com.minicommerce.backend.web.dto.OrderPageResponse;
 import com.minicommerce.backend.web.dto.OrderResponse;
+import java.util.List;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -10,8 +17,29 @@ import org.mapstruct.Mapping;
 public interface OrderMapper {
   OrderResponse toResponse(Order order);
 
+  List<OrderResponse> toResponseList(List<Order> orders);
+
+  default OrderPageResponse toPageResponse(OrderPage page) {
+    return new OrderPageResponse(toResponseList(page.orders()), page.nextAfter());
+  }
+
   @Mapping(source = "id", target = "orderId")
   CreateOrderResponse toCreateResponse(Order order);
-}
 
+  List<CreateOrderResponse> toCreateResponseList(List<Order> orders);
 
+  default OrderLine toLine(CreateOrderRequest req) {
+    return new OrderLine(req.getProductId(), req.getQuantity());
+  }
+
+  List<OrderLine> toLines(List<CreateOrderRequest> reqs);
+
+  default CreateBatchOrderResponse toCreateBatchResponse(List<Order> orders) {
+    // Cannot overflow: the service rejects checkouts whose total does not fit
+    Money total = orders.stream()
+        .map(Order::getTotalPrice)
+        .reduce(Money::plus)
+        .orElse(Money.zero(Money.DEFAULT_CURRENCY));
+    return new CreateBatchOrderResponse(toCreateResponseList(orders), total);
+  }
+}
@@ -1,6 +1,9 @@
 package com.minicommerce.backend.web.mapper;
 
 import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.repository.catalog.CatalogImportReport;
+import com.minicommerce.backend.service.CatalogReadModel.ProductView;
+import com.minicommerce.backend.web.dto.CatalogImportResponse;
 import com.minicommerce.backend.web.dto.ProductResponse;
 import java.util.List;
 import org.mapstruct.Mapper;
@@ -12,7 +15,9 @@ public interface ProductMapper {
   @Mapping(target = "stock", expression = "java(product.getStock())")
   ProductResponse toResponse(Product product);
 
-  List<ProductResponse> toResponseList(List<Product> products);
-}
+  ProductResponse toResponse(ProductView view);
 
+  List<ProductResponse> toResponseList(List<ProductView> views);
 
+  CatalogImportResponse toImportResponse(CatalogImportReport report);
+}
@@ -0,0 +1,487 @@
+package com.minicommerce.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.metrics.LatencyHistogram;
+import com.minicommerce.backend.repository.OrderRepository;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * End-to-end load test against the real application on a random local port.
+ *
+ * <p>Run with {@code mvn test -Dload=true -Dtest=ApplicationLoadTest}. Traffic is open-loop:
+ * requests are sent on a fixed schedule whether or not earlier ones have completed, and latency is
+ * measured from the scheduled send time, so a stalled server shows up in the percentiles instead
+ * of slowing the generator down. Tunables (system properties):
+ * <ul>
+ *   <li>{@code load.rps} (default 400) and {@code load.seconds} (default 10)
+ *   <li>{@code load.mix}: weights for {@code products}, {@code order}, {@code retry} (repeat a
+ *       recent Idempotency-Key) and {@code get}, default {@code products:50,order:30,retry:10,get:10}
+ *   <li>{@code load.clients} (default 1000): distinct client IPs sent as {@code X-Forwarded-For},
+ *       so the per-IP rate limit behaves as it would with real users
+ * </ul>
+ * Any {@code -Dapp.*} or {@code -Dspring.*} property is passed through to the application.
+ *
+ * <p>After the run the test checks that units sold, counted from distinct order ids, match the
+ * drop in stock and never exceed the seeded stock.
+ *
+ * <p>An overload test finds the write rate the server sustains, then sends {@code
+ * load.overload.factor} (default 10) times that many {@code POST /orders} alongside {@code GET
+ * /products}, and checks that order admission keeps admitted writes and reads fast and sheds the
+ * rest with 503 and {@code Retry-After}.
+ *
+ * <p>A further test seeds {@code load.export.orders} (default 2,000,000) orders straight into the
+ * repository and measures {@code GET /orders/export}: one full export, then one cut off halfway
+ * and resumed from its last complete line.
+ */
+class ApplicationLoadTest {
+  private static final String[] OPS = {"products", "order", "retry", "get"};
+  private static final ObjectMapper JSON = new ObjectMapper();
+
+  private final HttpClient client = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofSeconds(5))
+      .build();
+  private final Map<String, Op> ops = new HashMap<>();
+  /** Quantity per distinct order id acknowledged with 201. */
+  private final Map<Long, Integer> sold = new ConcurrentHashMap<>();
+  /** Recent successful orders, replayed by the {@code retry} operation. */
+  private final AtomicReferenceArray<PlacedOrder> recent = new AtomicReferenceArray<>(256);
+  private final AtomicInteger recentCursor = new AtomicInteger();
+  private String baseUrl;
+  private int clients;
+
+  private record PlacedOrder(String key, long productId, long orderId) {}
+
+  private static final class Op {
+    final LatencyHistogram latency = new LatencyHistogram();
+    final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    final LongAdder failures = new LongAdder();
+
+    void record(long latencyNanos, int status) {
+      latency.record(latencyNanos);
+      statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    long count(int status) {
+      LongAdder adder = statuses.get(status);
+      return adder == null ? 0 : adder.sum();
+    }
+  }
+
+  @Test
+  @EnabledIfSystemProperty(named = "load", matches = "true")
+  void load_mixedTrafficShouldNeverOversell() throws Exception {
+    int rps = Integer.getInteger("load.rps", 400);
+    int seconds = Integer.getInteger("load.seconds", 10);
+    clients = Integer.getInteger("load.clients", 1000);
+    int[] weights = parseMix(System.getProperty("load.mix", "products:50,order:30,retry:10,get:10"));
+    for (String op : OPS) ops.put(op, new Op());
+
+    try (ConfigurableApplicationContext app = start()) {
+      baseUrl = "http://127.0.0.1:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+      Map<Long, Integer> seeded = stock();
+
+      long total = (long) rps * seconds;
+      long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+      LongAdder inFlight = new LongAdder();
+      ExecutorService callbacks = Executors.newFixedThreadPool(4);
+      long begin = System.nanoTime();
+      for (long i = 0; i < total; i++) {
+        long scheduled = begin + i * intervalNanos;
+        long wait = scheduled - System.nanoTime();
+        if (wait > 0) LockSupport.parkNanos(wait);
+        inFlight.increment();
+        send(pick(weights), scheduled, inFlight, callbacks);
+      }
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+      while (inFlight.sum() > 0 && System.nanoTime() < deadline) Thread.sleep(10);
+      double elapsed = (System.nanoTime() - begin) / 1e9;
+      callbacks.shutdown();
+
+      report(total, elapsed, rps);
+      assertEquals(0, inFlight.sum(), "requests still in flight after 30 s");
+      for (Op op : ops.values()) {
+        assertEquals(0, op.count(500), "internal server errors");
+      }
+      verifyStock(seeded, stock());
+    }
+  }
+
+  /**
+   * Writes go to the journal store in sync mode, and the catalog holds enough stock that no write
+   * fails on it. The per-IP rate limit is lifted so that only order admission turns writes away.
+   * Tomcat closes the connection after every 503, so each shed write costs the client a reconnect;
+   * the generator shares the host and needs spare cores to offer a tenfold overload. Thresholds:
+   * {@code load.overload.writeP99Ms} (default 1000), {@code load.overload.shedP99Ms} (default 250)
+   * and {@code load.overload.readP99Ms} (default 250).
+   */
+  @Test
+  @EnabledIfSystemProperty(named = "load", matches = "true")
+  void overload_shouldShedExcessWritesAndKeepReadsFast() throws Exception {
+    int factor = Integer.getInteger("load.overload.factor", 10);
+    int seconds = Integer.getInteger("load.seconds", 10);
+    int readRps = Integer.getInteger("load.overload.readRps", 50);
+    Path data = Files.createTempDirectory("overload-test");
+    Path catalog = data.resolve("catalog.csv");
+    Files.writeString(catalog, "id,name,price,stock\n1,Serum,115.00,100000000\n2,Foundation,52.00,100000000\n");
+
+    try (ConfigurableApplicationContext app = start(Map.of(
+        "app.orders.store", "journal",
+        "app.orders.journal.directory", data.resolve("journal").toString(),
+        "app.orders.journal.durability", "sync",
+        "app.catalog.import-file", catalog.toString(),
+        "app.rate-limit.requests-per-minute", "100000000",
+        "app.rate-limit.burst-size", "100000000"))) {
+      baseUrl = "http://127.0.0.1:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+
+      double capacity = sustainedWriteRate(32, TimeUnit.SECONDS.toNanos(3));
+      int writeRps = (int) Math.max(1, capacity * factor);
+      Op admitted = new Op();
+      Op shed = new Op();
+      Op reads = new Op();
+      LongAdder missingRetryAfter = new LongAdder();
+      LongAdder inFlight = new LongAdder();
+      ExecutorService callbacks = Executors.newFixedThreadPool(4);
+
+      long total = (long) (writeRps + readRps) * seconds;
+      long intervalNanos = TimeUnit.SECONDS.toNanos(1) / (writeRps + readRps);
+      long begin = System.nanoTime();
+      for (long i = 0; i < total; i++) {
+        long scheduled = begin + i * intervalNanos;
+        long wait = scheduled - System.nanoTime();
+        if (wait > 0) LockSupport.parkNanos(wait);
+        boolean read = i % (writeRps + readRps) < readRps;
+        var request = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30)).header("X-Forwarded-For", "192.0.2.20");
+        if (read) {
+          request.uri(URI.create(baseUrl + "/products")).GET();
+        } else {
+          request.uri(URI.create(baseUrl + "/orders"))
+              .header("Content-Type", "application/json")
+              .header("Idempotency-Key", "overload-" + i)
+              .POST(HttpRequest.BodyPublishers.ofString("{\"productId\":" + (1 + i % 2) + ",\"quantity\":1}"));
+        }
+        inFlight.increment();
+        client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString())
+            .whenCompleteAsync((response, error) -> {
+              long latency = System.nanoTime() - scheduled;
+              Op op = read ? reads : response != null && response.statusCode() == 503 ? shed : admitted;
+              if (error != null) {
+                op.failures.increment();
+              } else {
+                op.record(latency, response.statusCode());
+                if (response.statusCode() == 503 && response.headers().firstValue("Retry-After").isEmpty()) {
+                  missingRetryAfter.increment();
+                }
+              }
+              inFlight.decrement();
+            }, callbacks);
+      }
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+      while (inFlight.sum() > 0 && System.nanoTime() < deadline) Thread.sleep(10);
+      double elapsed = (System.nanoTime() - begin) / 1e9;
+      callbacks.shutdown();
+
+      System.out.printf(Locale.ROOT, "%noverload: sustained %.0f writes/s, offered %d writes/s and %d reads/s for %.1f s%n",
+          capacity, writeRps, readRps, elapsed);
+      System.out.printf(Locale.ROOT, "%-9s %8s %9s %9s %9s %9s%n", "op", "count", "p50 ms", "p90 ms", "p99 ms", "failures");
+      for (var entry : Map.of("admitted", admitted, "shed", shed, "products", reads).entrySet()) {
+        Op op = entry.getValue();
+        System.out.printf(Locale.ROOT, "%-9s %8d %9.2f %9.2f %9.2f %9d%n", entry.getKey(), op.latency.count(),
+            millis(op.latency.valueAt(0.5)), millis(op.latency.valueAt(0.9)), millis(op.latency.valueAt(0.99)),
+            op.failures.sum());
+      }
+
+      assertEquals(0, inFlight.sum(), "requests still in flight after 60 s");
+      assertEquals(0, admitted.failures.sum() + shed.failures.sum() + reads.failures.sum(), "transport failures");
+      assertEquals(0, admitted.count(500) + reads.count(500), "internal server errors");
+      assertTrue(shed.latency.count() > 0, "an overload should shed some writes");
+      assertEquals(0, missingRetryAfter.sum(), "503 responses without Retry-After");
+      assertEquals(reads.latency.count(), reads.count(200), "every read should succeed");
+      assertBelow(admitted, "load.overload.writeP99Ms", 1000);
+      assertBelow(shed, "load.overload.shedP99Ms", 250);
+      assertBelow(reads, "load.overload.readP99Ms", 250);
+    }
+  }
+
+  /**
+   * Closed-loop {@code POST /orders} from {@code clients} threads.
+   *
+   * @return orders created per second
+   */
+  private double sustainedWriteRate(int clients, long nanos) throws InterruptedException {
+    LongAdder created = new LongAdder();
+    long end = System.nanoTime() + nanos;
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < clients; t++) {
+      int worker = t;
+      Thread thread = new Thread(() -> {
+        for (int n = 0; System.nanoTime() < end; n++) {
+          var request = HttpRequest.newBuilder(URI.create(baseUrl + "/orders"))
+              .header("X-Forwarded-For", "192.0.2.30")
+              .header("Content-Type", "application/json")
+              .header("Idempotency-Key", "calibrate-" + worker + "-" + n)
+              .POST(HttpRequest.BodyPublishers.ofString("{\"productId\":1,\"quantity\":1}"))
+              .build();
+          try {
+            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 201) created.increment();
+          } catch (IOException | InterruptedException e) {
+            return;
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) thread.join();
+    return created.sum() * 1e9 / nanos;
+  }
+
+  private static void assertBelow(Op op, String property, int defaultMillis) {
+    double p99 = millis(op.latency.valueAt(0.99));
+    int limit = Integer.getInteger(property, defaultMillis);
+    assertTrue(p99 <= limit, property + ": p99 " + p99 + " ms is above " + limit + " ms");
+  }
+
+  @Test
+  @EnabledIfSystemProperty(named = "load", matches = "true")
+  void export_shouldStreamEveryOrderAndResume() throws Exception {
+    int count = Integer.getInteger("load.export.orders", 2_000_000);
+
+    try (ConfigurableApplicationContext app = start()) {
+      baseUrl = "http://127.0.0.1:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+      OrderRepository orders = app.getBean(OrderRepository.class);
+      var price = Money.of("29.00");
+      List<Order> batch = new ArrayList<>(1000);
+      for (int i = 0; i < count; i++) {
+        batch.add(new Order(0L, 1 + i % 5, 1 + i % 3, price, price.times(1 + i % 3), Instant.now()));
+        if (batch.size() == 1000 || i == count - 1) {
+          orders.saveAll(batch);
+          batch.clear();
+        }
+      }
+
+      long started = System.nanoTime();
+      long[] full = readExport(0, Long.MAX_VALUE, "192.0.2.10");
+      double seconds = (System.nanoTime() - started) / 1e9;
+      System.out.printf(Locale.ROOT, "%nexport: %,d orders, %.1f MB in %.2f s: %,.0f orders/s, %.1f MB/s%n",
+          full[0], full[1] / 1e6, seconds, full[0] / seconds, full[1] / 1e6 / seconds);
+      assertEquals(count, full[0]);
+
+      long[] firstHalf = readExport(0, count / 2, "192.0.2.11");
+      long[] rest = readExport(firstHalf[2], Long.MAX_VALUE, "192.0.2.12");
+      assertEquals(count, firstHalf[0] + rest[0], "resumed export should cover every order exactly once");
+    }
+  }
+
+  /**
+   * Reads {@code GET /orders/export?after=} line by line, checking ids are consecutive, and hangs up
+   * after {@code maxLines}.
+   *
+   * @return lines, bytes and the id on the last line
+   */
+  private long[] readExport(long after, long maxLines, String clientIp) throws IOException, InterruptedException {
+    var request = HttpRequest.newBuilder(URI.create(baseUrl + "/orders/export?after=" + after))
+        .header("X-Forwarded-For", clientIp)
+        .build();
+    HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+    assertEquals(200, response.statusCode());
+    long lines = 0;
+    long bytes = 0;
+    long lastId = after;
+    try (var reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8), 1 << 16)) {
+      String line;
+      while (lines < maxLines && (line = reader.readLine()) != null) {
+        int start = line.indexOf("\"id\":") + 5;
+        int end = start;
+        while (Character.isDigit(line.charAt(end))) end++;
+        long id = Long.parseLong(line, start, end, 10);
+        assertEquals(lastId + 1, id, "ids should be consecutive");
+        lastId = id;
+        lines++;
+        bytes += line.length() + 1;
+      }
+    }
+    return new long[] {lines, bytes, lastId};
+  }
+
+  private ConfigurableApplicationContext start() {
+    return start(Map.of());
+  }
+
+  /**
+   * @param defaults application properties for this test; {@code -Dapp.*} and {@code -Dspring.*}
+   *     still override them
+   */
+  private ConfigurableApplicationContext start(Map<String, String> defaults) {
+    Map<String, String> properties = new HashMap<>(defaults);
+    properties.put("server.port", "0");
+    System.getProperties().stringPropertyNames().stream()
+        .filter(name -> name.startsWith("app.") || name.startsWith("spring."))
+        .forEach(name -> properties.put(name, System.getProperty(name)));
+    // Command-line arguments, unlike default properties, take precedence over application.yml
+    String[] args = properties.entrySet().stream()
+        .map(e -> "--" + e.getKey() + "=" + e.getValue())
+        .toArray(String[]::new);
+    return new SpringApplicationBuilder(Application.class).run(args);
+  }
+
+  private void send(String op, long scheduled, LongAdder inFlight, ExecutorService callbacks) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int clientId = random.nextInt(clients);
+    var request = HttpRequest.newBuilder()
+        .timeout(Duration.ofSeconds(10))
+        .header("X-Forwarded-For", "10." + (clientId >>> 16) + "." + (clientId >>> 8 & 255) + "." + (clientId & 255));
+    PlacedOrder replay = null;
+    long productId = 1 + random.nextInt(5);
+    String key = null;
+    switch (op) {
+      case "products" -> request.uri(URI.create(baseUrl + "/products")).GET();
+      case "get" -> {
+        PlacedOrder known = recent.get(random.nextInt(recent.length()));
+        request.uri(URI.create(baseUrl + "/orders/" + (known != null ? known.orderId() : 1))).GET();
+      }
+      default -> {
+        if (op.equals("retry")) replay = recent.get(random.nextInt(recent.length()));
+        if (replay != null) {
+          key = replay.key();
+          productId = replay.productId();
+        } else {
+          key = "load-" + random.nextLong();
+        }
+        request.uri(URI.create(baseUrl + "/orders"))
+            .header("Content-Type", "application/json")
+            .header("Idempotency-Key", key)
+            .POST(HttpRequest.BodyPublishers.ofString("{\"productId\":" + productId + ",\"quantity\":1}"));
+      }
+    }
+
+    Op stats = ops.get(op);
+    String orderKey = key;
+    long orderProduct = productId;
+    client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString())
+        .whenCompleteAsync((response, error) -> {
+          long latency = System.nanoTime() - scheduled;
+          try {
+            if (error != null) {
+              stats.failures.increment();
+              return;
+            }
+            stats.record(latency, response.statusCode());
+            if (orderKey != null && response.statusCode() == 201) {
+              long orderId = JSON.readTree(response.body()).get("orderId").asLong();
+              sold.putIfAbsent(orderId, 1);
+              recent.set(recentCursor.getAndIncrement() & (recent.length() - 1), new PlacedOrder(orderKey, orderProduct, orderId));
+            }
+          } catch (Exception e) {
+            stats.failures.increment();
+          } finally {
+            inFlight.decrement();
+          }
+        }, callbacks);
+  }
+
+  private Map<Long, Integer> stock() throws Exception {
+    var response = client.send(
+        HttpRequest.newBuilder(URI.create(baseUrl + "/products")).header("X-Forwarded-For", "192.0.2.1").build(),
+        HttpResponse.BodyHandlers.ofString());
+    assertEquals(200, response.statusCode(), response.body());
+    Map<Long, Integer> stock = new HashMap<>();
+    for (JsonNode product : JSON.readTree(response.body())) {
+      stock.put(product.get("id").asLong(), product.get("stock").asInt());
+    }
+    return stock;
+  }
+
+  private void verifyStock(Map<Long, Integer> seeded, Map<Long, Integer> remaining) {
+    long seededUnits = seeded.values().stream().mapToLong(Integer::longValue).sum();
+    long remainingUnits = remaining.values().stream().mapToLong(Integer::longValue).sum();
+    long soldUnits = sold.values().stream().mapToLong(Integer::longValue).sum();
+    System.out.printf("stock: seeded %d, sold %d (distinct orders), remaining %d%n", seededUnits, soldUnits, remainingUnits);
+    assertTrue(soldUnits <= seededUnits, "oversold: " + soldUnits + " > " + seededUnits);
+    assertEquals(seededUnits - remainingUnits, soldUnits, "units sold should match the drop in stock");
+    remaining.values().forEach(units -> assertTrue(units >= 0, "negative stock " + remaining));
+  }
+
+  private void report(long sent, double elapsedSeconds, int rps) {
+    System.out.printf(Locale.ROOT, "%nload: %d requests in %.1f s (target %d/s)%n", sent, elapsedSeconds, rps);
+    System.out.printf(Locale.ROOT, "%-9s %8s %9s %9s %9s %9s %9s %7s %7s %7s %7s%n",
+        "op", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "2xx%", "409%", "429%", "err%");
+    for (String name : OPS) {
+      Op op = ops.get(name);
+      long count = op.latency.count();
+      if (count == 0 && op.failures.sum() == 0) continue;
+      long ok = op.statuses.entrySet().stream()
+          .filter(e -> e.getKey() / 100 == 2).mapToLong(e -> e.getValue().sum()).sum();
+      long errors = op.failures.sum() + op.statuses.entrySet().stream()
+          .filter(e -> e.getKey() >= 500).mapToLong(e -> e.getValue().sum()).sum();
+      double all = Math.max(1, count + op.failures.sum());
+      System.out.printf(Locale.ROOT, "%-9s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %7.1f %7.1f %7.1f %7.1f%n",
+          name, count, count / elapsedSeconds,
+          millis(op.latency.valueAt(0.5)), millis(op.latency.valueAt(0.9)),
+          millis(op.latency.valueAt(0.99)), millis(op.latency.valueAt(0.999)),
+          100 * ok / all, 100 * op.count(409) / all, 100 * op.count(429) / all, 100 * errors / all);
+    }
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+
+  private static int[] parseMix(String mix) {
+    int[] weights = new int[OPS.length];
+    for (String part : mix.split(",")) {
+      String[] kv = part.trim().split(":");
+      int index = Arrays.asList(OPS).indexOf(kv[0]);
+      if (index < 0) throw new IllegalArgumentException("Unknown load.mix operation: " + kv[0]);
+      weights[index] = Integer.parseInt(kv[1]);
+    }
+    for (int i = 1; i < weights.length; i++) weights[i] += weights[i - 1];
+    return weights;
+  }
+
+  private static String pick(int[] cumulativeWeights) {
+    int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+    for (int i = 0; i < cumulativeWeights.length; i++) {
+      if (roll < cumulativeWeights[i]) return OPS[i];
+    }
+    return OPS[OPS.length - 1];
+  }
+}
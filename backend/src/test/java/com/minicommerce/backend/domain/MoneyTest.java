@@ -0,0 +1,44 @@
+package com.minicommerce.backend.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.util.Currency;
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+  @Test
+  void json_shouldMatchBigDecimalOfTheCurrencyScale() throws Exception {
+    var mapper = new ObjectMapper();
+    for (String amount : new String[] {"115.00", "0.05", "0.00", "-3.10", "92233720368547758.07"}) {
+      assertEquals(mapper.writeValueAsString(new BigDecimal(amount)), mapper.writeValueAsString(Money.of(amount)), amount);
+    }
+    var yen = Money.ofMinor(1500, Currency.getInstance("JPY"));
+    assertEquals("1500", mapper.writeValueAsString(yen));
+    assertEquals("-92233720368547758.08", Money.ofMinor(Long.MIN_VALUE, Money.DEFAULT_CURRENCY).toString());
+  }
+
+  @Test
+  void arithmetic_shouldThrowInsteadOfOverflowing() {
+    var price = Money.ofMinor(Long.MAX_VALUE / 2, Money.DEFAULT_CURRENCY);
+
+    assertEquals(Money.of("0.60"), Money.of("0.20").times(3));
+    assertSame(price, price.times(1));
+    assertThrows(ArithmeticException.class, () -> price.times(3));
+    assertThrows(ArithmeticException.class, () -> price.plus(price).plus(price));
+    assertThrows(IllegalArgumentException.class,
+        () -> Money.of("1.00").plus(Money.ofMinor(100, Currency.getInstance("EUR"))));
+  }
+
+  @Test
+  void of_shouldRejectAmountsTheCurrencyCannotHold() {
+    assertEquals(Money.of("12.50"), Money.of(new BigDecimal("12.5"), Money.DEFAULT_CURRENCY));
+    assertEquals(Money.of("12.50"), Money.ofUnscaled(125, 1, Money.DEFAULT_CURRENCY));
+    assertThrows(IllegalArgumentException.class, () -> Money.of("0.001"));
+    assertThrows(IllegalArgumentException.class, () -> Money.of("1e30"));
+  }
+}
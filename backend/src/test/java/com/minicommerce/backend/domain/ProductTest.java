@@ -0,0 +1,79 @@
+package com.minicommerce.backend.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ProductTest {
+
+  @Test
+  void stripedStock_shouldSellEveryUnitExactlyOnceUnderContention() throws Exception {
+    var product = new Product(1L, "Flash sale item", Money.of("9.99"), 10_000);
+    product.enableStriping(8, 16);
+    var sold = new AtomicInteger();
+    var start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 16; t++) {
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        while (product.tryDecreaseStock(3)) {
+          sold.addAndGet(3);
+        }
+        // Drain the remainder one unit at a time so no stock is left stranded in a stripe
+        while (product.tryDecreaseStock(1)) {
+          sold.incrementAndGet();
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(10_000, sold.get());
+    assertEquals(0, product.getStock());
+    assertFalse(product.tryDecreaseStock(1));
+  }
+
+  @Test
+  void stripedStock_shouldRoundStripesUpToAPowerOfTwo() {
+    assertEquals(1, new StripedStock(new AtomicInteger(100), 1, 16).stripes());
+    assertEquals(1, new StripedStock(new AtomicInteger(100), 0, 16).stripes());
+    assertEquals(4, new StripedStock(new AtomicInteger(100), 3, 16).stripes());
+    assertEquals(8, new StripedStock(new AtomicInteger(100), 8, 16).stripes());
+
+    var product = new Product(1L, "Flash sale item", Money.of("9.99"), 40);
+    product.enableStriping(1, 16);
+    for (int i = 0; i < 40; i++) {
+      assertTrue(product.tryDecreaseStock(1));
+    }
+    assertFalse(product.tryDecreaseStock(1));
+  }
+
+  @Test
+  void stripedStock_shouldResumeAfterRestock() {
+    var product = new Product(1L, "Flash sale item", Money.of("9.99"), 5);
+    product.enableStriping(4, 16);
+
+    assertFalse(product.tryDecreaseStock(6));
+    product.increaseStock(1_000);
+
+    assertEquals(1_005, product.getStock());
+    for (int i = 0; i < 1_005; i++) {
+      product.tryDecreaseStock(1);
+    }
+    assertEquals(0, product.getStock());
+  }
+}
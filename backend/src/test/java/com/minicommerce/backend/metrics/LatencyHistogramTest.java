@@ -0,0 +1,34 @@
+package com.minicommerce.backend.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void valueAt_shouldReportQuantilesWithinOneSubBucket() {
+    var histogram = new LatencyHistogram();
+    for (long micros = 1; micros <= 10_000; micros++) {
+      histogram.record(micros * 1_000);
+    }
+
+    assertEquals(10_000, histogram.count());
+    assertWithin(5_000_000, histogram.valueAt(0.5));
+    assertWithin(9_900_000, histogram.valueAt(0.99));
+    assertWithin(9_990_000, histogram.valueAt(0.999));
+  }
+
+  @Test
+  void bucket_shouldRoundTripThroughUpperBound() {
+    for (long value : new long[] {0, 1, 15, 16, 17, 1_000, 123_456_789, 1L << 40}) {
+      long upper = LatencyHistogram.upperBound(LatencyHistogram.bucket(value));
+      assertTrue(upper >= value && upper <= value + value / 16 + 1, value + " -> " + upper);
+    }
+  }
+
+  private static void assertWithin(long expected, long actual) {
+    assertTrue(Math.abs(actual - expected) <= expected / 16, "expected ~" + expected + " but was " + actual);
+  }
+}
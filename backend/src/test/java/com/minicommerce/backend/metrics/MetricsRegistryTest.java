@@ -0,0 +1,39 @@
+package com.minicommerce.backend.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class MetricsRegistryTest {
+
+  @Test
+  void prometheus_shouldRenderTypedLabeledSeries() {
+    var metrics = new MetricsRegistry();
+    metrics.counter("orders_total").add(3);
+    metrics.gauge("queue_depth", () -> 7);
+    metrics.histogram("http_server_requests_seconds", Map.of("route", "/orders/{id}", "status", "2xx"))
+        .record(2_000_000);
+    metrics.collector(sink -> sink.accept("product_stock", Map.of("product_id", "1"), 12));
+
+    String text = metrics.prometheus();
+
+    assertTrue(text.contains("# TYPE orders_total counter\norders_total 3\n"), text);
+    assertTrue(text.contains("# TYPE queue_depth gauge\nqueue_depth 7\n"), text);
+    assertTrue(text.contains("# TYPE http_server_requests_seconds summary\n"), text);
+    assertTrue(text.contains("http_server_requests_seconds_count{route=\"/orders/{id}\",status=\"2xx\"} 1\n"), text);
+    assertTrue(text.contains("http_server_requests_seconds{quantile=\"0.99\",route=\"/orders/{id}\",status=\"2xx\"} 0.00"), text);
+    assertTrue(text.contains("product_stock{product_id=\"1\"} 12\n"), text);
+  }
+
+  @Test
+  void labelsOf_shouldInvertSeriesIdIncludingEscapes() {
+    var labels = Map.of("a", "x\"y", "b", "back\\slash");
+
+    String id = MetricsRegistry.seriesId("m", labels);
+
+    assertEquals("m{a=\"x\\\"y\",b=\"back\\\\slash\"}", id);
+    assertEquals(labels, MetricsRegistry.labelsOf(id));
+  }
+}
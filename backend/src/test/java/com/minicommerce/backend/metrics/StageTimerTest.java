@@ -0,0 +1,55 @@
+package com.minicommerce.backend.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class StageTimerTest {
+
+  @AfterEach
+  void tearDown() {
+    StageTimer.end();
+    StageTimer.setEnabled(false);
+  }
+
+  @Test
+  void serverTiming_shouldSumRepeatedStagesInMilliseconds() {
+    var timeline = new StageTimer.Timeline(0);
+    timeline.add("stock", 1_500_000);
+    timeline.add("save", 250_000);
+    timeline.add("stock", 500_000);
+
+    assertEquals("stock;dur=2.000, save;dur=0.250", timeline.serverTiming());
+  }
+
+  @Test
+  void stopExclusive_shouldSubtractNestedStages() throws Exception {
+    StageTimer.setEnabled(true);
+    StageTimer.begin();
+
+    long outer = StageTimer.start();
+    long nested = StageTimer.recorded();
+    long inner = StageTimer.start();
+    Thread.sleep(20);
+    StageTimer.stop("stock", inner);
+    StageTimer.stopExclusive("idempotency", outer, nested);
+
+    var timeline = StageTimer.end();
+    assertEquals("stock", timeline.stage(0));
+    assertEquals("idempotency", timeline.stage(1));
+    assertTrue(timeline.nanos(0) >= 20_000_000);
+    assertTrue(timeline.nanos(1) < timeline.nanos(0), timeline.serverTiming());
+  }
+
+  @Test
+  void start_shouldBeNoOpWhenDisabled() {
+    StageTimer.begin();
+
+    assertEquals(0, StageTimer.start());
+    StageTimer.stop("stock", StageTimer.start());
+    assertNull(StageTimer.end());
+  }
+}
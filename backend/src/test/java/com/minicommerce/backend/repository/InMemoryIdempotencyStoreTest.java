@@ -0,0 +1,147 @@
+package com.minicommerce.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.web.error.IdempotencyKeyConflictException;
+import com.minicommerce.backend.web.error.InsufficientStockException;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class InMemoryIdempotencyStoreTest {
+
+  @Test
+  void getOrCreate_shouldResolveStoredOrderIdOnRetry() {
+    var orderRepo = new InMemoryOrderRepository();
+    var store = new InMemoryIdempotencyStore(orderRepo, new MetricsRegistry(), 3600, 1000);
+    var calls = new AtomicInteger();
+
+    var first = store.getOrCreate("k", 1L, 2, () -> {
+      calls.incrementAndGet();
+      return orderRepo.save(order(1L, 2));
+    });
+    var retry = store.getOrCreate("k", 1L, 2, () -> {
+      calls.incrementAndGet();
+      return orderRepo.save(order(1L, 2));
+    });
+
+    assertEquals(1, calls.get());
+    assertEquals(first, retry);
+    assertThrows(IdempotencyKeyConflictException.class, () ->
+        store.getOrCreate("k", 1L, 3, () -> orderRepo.save(order(1L, 3))));
+  }
+
+  @Test
+  void getOrCreate_shouldNotBlockOtherKeysAndShareResultWithDuplicates() throws Exception {
+    var orderRepo = new InMemoryOrderRepository();
+    var store = new InMemoryIdempotencyStore(orderRepo, new MetricsRegistry(), 3600, 1000);
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var calls = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      Future<Order> slow = pool.submit(() -> store.getOrCreate("slow", 1L, 1, () -> {
+        calls.incrementAndGet();
+        started.countDown();
+        await(release);
+        return orderRepo.save(order(1L, 1));
+      }));
+      started.await();
+      Future<Order> duplicate = pool.submit(() -> store.getOrCreate("slow", 1L, 1, () -> {
+        calls.incrementAndGet();
+        return orderRepo.save(order(1L, 1));
+      }));
+
+      // An unrelated key completes while the slow creation is still running
+      var other = store.getOrCreate("other", 2L, 1, () -> orderRepo.save(order(2L, 1)));
+      assertEquals(2L, other.getProductId());
+      assertFalse(slow.isDone());
+
+      release.countDown();
+      assertEquals(slow.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+      assertEquals(1, calls.get());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void getOrCreate_shouldNotCacheFailedCreation() {
+    var orderRepo = new InMemoryOrderRepository();
+    var store = new InMemoryIdempotencyStore(orderRepo, new MetricsRegistry(), 3600, 1000);
+
+    assertThrows(InsufficientStockException.class, () -> store.getOrCreate("k", 1L, 1, () -> {
+      throw new InsufficientStockException("sold out");
+    }));
+    var retried = store.getOrCreate("k", 1L, 1, () -> orderRepo.save(order(1L, 1)));
+
+    assertEquals(1L, retried.getId());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Run with {@code -Dsoak=true}: pushes millions of distinct keys through a bounded store and
+   * checks that retained heap stops growing once the bound is reached.
+   */
+  @Test
+  @EnabledIfSystemProperty(named = "soak", matches = "true")
+  void soak_heapShouldStayFlatOverMillionsOfKeys() {
+    var metrics = new MetricsRegistry();
+    var store = new InMemoryIdempotencyStore(new InMemoryOrderRepository(), metrics, 3600, 100_000);
+    var template = order(1L, 1);
+
+    long heapAtBound = 0;
+    for (int i = 1; i <= 3_000_000; i++) {
+      long id = i;
+      store.getOrCreate("soak-key-" + i, 1L, 1, () -> withId(template, id));
+      if (i == 500_000) heapAtBound = usedHeapAfterGc();
+    }
+    long heapAtEnd = usedHeapAfterGc();
+
+    System.out.printf("idempotency soak: heap at 500k keys %d MB, at 3M keys %d MB, metrics %s%n",
+        heapAtBound >> 20, heapAtEnd >> 20, metrics.snapshot());
+    assertTrue((long) metrics.snapshot().get("idempotency_entries") <= 110_000);
+    assertTrue(heapAtEnd < heapAtBound + (16L << 20), "heap grew after the store reached its bound");
+  }
+
+  private static long usedHeapAfterGc() {
+    Runtime rt = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return rt.totalMemory() - rt.freeMemory();
+  }
+
+  private static Order withId(Order o, long id) {
+    return new Order(id, o.getProductId(), o.getQuantity(), o.getUnitPrice(), o.getTotalPrice(), o.getCreatedAt());
+  }
+
+  private static Order order(long productId, int quantity) {
+    var price = Money.of("10.00");
+    return new Order(0L, productId, quantity, price, price.times(quantity), Instant.now());
+  }
+}
@@ -0,0 +1,110 @@
+package com.minicommerce.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class InMemoryOrderRepositoryTest {
+  private static final Instant T0 = Instant.parse("2024-05-01T10:00:00Z");
+
+  private final InMemoryOrderRepository repo = new InMemoryOrderRepository();
+
+  @Test
+  void findPage_shouldWalkOneProductWithCursor() {
+    for (int i = 0; i < 10; i++) {
+      repo.save(order(i % 2 == 0 ? 1L : 2L, T0.plusSeconds(i)));
+    }
+
+    var first = repo.findPage(new OrderQuery(1L, null, null, 0L, 3));
+    assertEquals(List.of(1L, 3L, 5L), ids(first));
+    assertEquals(Long.valueOf(5), first.nextAfter());
+    var second = repo.findPage(new OrderQuery(1L, null, null, first.nextAfter(), 3));
+    assertEquals(List.of(7L, 9L), ids(second));
+    assertNull(second.nextAfter());
+    assertTrue(repo.findPage(new OrderQuery(42L, null, null, 0L, 3)).orders().isEmpty());
+  }
+
+  @Test
+  void findPage_shouldFilterByHalfOpenTimeRange() {
+    for (int i = 0; i < 10; i++) {
+      repo.save(order(i % 2 == 0 ? 1L : 2L, T0.plusSeconds(i)));
+    }
+
+    var all = repo.findPage(new OrderQuery(null, T0.plusSeconds(3), T0.plusSeconds(7), 0L, 10));
+    assertEquals(List.of(4L, 5L, 6L, 7L), ids(all));
+    var product = repo.findPage(new OrderQuery(2L, T0.plusSeconds(3), T0.plusSeconds(7), 0L, 10));
+    assertEquals(List.of(4L, 6L), ids(product));
+    assertTrue(repo.findPage(new OrderQuery(null, T0.plusSeconds(60), null, 0L, 10)).orders().isEmpty());
+  }
+
+  @Test
+  void findPage_shouldFindOrdersSavedWithEarlierTimesByTheirOwnTime() {
+    repo.save(order(1L, T0.plusSeconds(5)));
+    var late = repo.save(order(1L, T0));
+    repo.save(order(1L, T0.plusSeconds(6)));
+    repo.save(order(1L, T0.plusSeconds(1)));
+
+    assertEquals(T0, late.getCreatedAt());
+    assertEquals(List.of(1L, 3L), ids(repo.findPage(new OrderQuery(null, T0.plusSeconds(5), null, 0L, 10))));
+    assertEquals(List.of(2L, 4L), ids(repo.findPage(new OrderQuery(null, null, T0.plusSeconds(2), 0L, 10))));
+    assertEquals(List.of(2L), ids(repo.findPage(new OrderQuery(1L, T0, T0.plusSeconds(1), 0L, 10))));
+
+    var first = repo.findPage(new OrderQuery(1L, null, T0.plusSeconds(2), 0L, 1));
+    assertEquals(List.of(2L), ids(first));
+    assertEquals(List.of(4L), ids(repo.findPage(new OrderQuery(1L, null, T0.plusSeconds(2), first.nextAfter(), 1))));
+  }
+
+  @Test
+  void findPage_pagingDuringInsertsShouldSeeEveryOrderOnceInOrder() throws Exception {
+    int writers = 4;
+    int perWriter = 5_000;
+    ExecutorService pool = Executors.newFixedThreadPool(writers);
+    var start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int w = 0; w < writers; w++) {
+      futures.add(pool.submit(() -> {
+        start.await();
+        for (int i = 0; i < perWriter; i++) {
+          repo.save(order(1L + i % 3, Instant.now()));
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+
+    List<Long> seen = new ArrayList<>();
+    long after = 0;
+    while (seen.size() < writers * perWriter) {
+      var page = repo.findPage(new OrderQuery(null, null, null, after, 97));
+      for (Order o : page.orders()) {
+        assertEquals(after + 1, o.getId(), "gap or repeat after " + after);
+        after = o.getId();
+        seen.add(after);
+      }
+    }
+    for (Future<?> f : futures) f.get(10, TimeUnit.SECONDS);
+    pool.shutdown();
+    assertEquals(writers * perWriter, seen.size());
+  }
+
+  private static Order order(long productId, Instant createdAt) {
+    var price = Money.of("3.00");
+    return new Order(0L, productId, 1, price, price, createdAt);
+  }
+
+  private static List<Long> ids(OrderPage page) {
+    return page.orders().stream().map(Order::getId).toList();
+  }
+}
@@ -0,0 +1,140 @@
+package com.minicommerce.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.journal.DurabilityMode;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JournaledOrderRepositoryTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void reopen_shouldRestoreOrdersIdSequenceAndStock() {
+    var productRepo = new InMemoryProductRepository();
+    var repo = open(productRepo, DurabilityMode.SYNC);
+    productRepo.findById(1L).orElseThrow().tryDecreaseStock(2);
+    var first = repo.save(order(1L, 2));
+    productRepo.findById(4L).orElseThrow().tryDecreaseStock(1);
+    productRepo.findById(5L).orElseThrow().tryDecreaseStock(3);
+    repo.saveAll(List.of(order(4L, 1), order(5L, 3)));
+    repo.close();
+
+    var restartedProducts = new InMemoryProductRepository();
+    var seed1 = restartedProducts.findById(1L).orElseThrow().getStock();
+    var seed5 = restartedProducts.findById(5L).orElseThrow().getStock();
+    var restarted = open(restartedProducts, DurabilityMode.SYNC);
+
+    assertEquals(first, restarted.findById(1L).orElseThrow());
+    assertEquals(5L, restarted.findById(3L).orElseThrow().getProductId());
+    assertEquals(seed1 - 2, restartedProducts.findById(1L).orElseThrow().getStock());
+    assertEquals(seed5 - 3, restartedProducts.findById(5L).orElseThrow().getStock());
+    assertEquals(4L, restarted.save(order(2L, 1)).getId());
+    restarted.close();
+  }
+
+  @Test
+  void reopen_shouldDropTornBatchAtTail() throws IOException {
+    var repo = open(new InMemoryProductRepository(), DurabilityMode.NONE);
+    repo.save(order(1L, 1));
+    repo.saveAll(List.of(order(2L, 1), order(3L, 1)));
+    repo.close();
+
+    // Corrupt the last record (stock delta that closes the second batch)
+    try (FileChannel ch = FileChannel.open(onlySegment(), StandardOpenOption.WRITE)) {
+      ch.write(ByteBuffer.wrap(new byte[] {42}), 5 * 64 + 10);
+    }
+
+    var productRepo = new InMemoryProductRepository();
+    var seed2 = productRepo.findById(2L).orElseThrow().getStock();
+    var restarted = open(productRepo, DurabilityMode.NONE);
+
+    assertTrue(restarted.findById(1L).isPresent());
+    assertTrue(restarted.findById(2L).isEmpty());
+    assertEquals(seed2, productRepo.findById(2L).orElseThrow().getStock());
+    assertEquals(2L, restarted.save(order(3L, 1)).getId());
+    restarted.close();
+  }
+
+  @Test
+  void save_shouldRotateSegmentsAndReplayAcrossThem() throws IOException {
+    var repo = open(new InMemoryProductRepository(), DurabilityMode.INTERVAL);
+    for (int i = 0; i < 10_000; i++) {
+      repo.save(new Order(0L, 99L, 1, Money.of("1.00"), Money.of("1.00"), Instant.now()));
+    }
+    repo.close();
+
+    try (Stream<Path> files = Files.list(dir)) {
+      assertEquals(2, files.count());
+    }
+    var restarted = open(new InMemoryProductRepository(), DurabilityMode.INTERVAL);
+    assertTrue(restarted.findById(10_000L).isPresent());
+    restarted.close();
+  }
+
+  @Test
+  void reopen_shouldLoadSnapshotAndReplayOnlyTheJournalAfterIt() {
+    var productRepo = new InMemoryProductRepository();
+    var repo = open(productRepo, DurabilityMode.NONE);
+    for (int i = 0; i < 100; i++) {
+      productRepo.findById(4L).orElseThrow().increaseStock(1);
+      repo.save(order(4L, 1));
+    }
+    assertTrue(repo.snapshot());
+    productRepo.findById(1L).orElseThrow().tryDecreaseStock(3);
+    repo.save(order(1L, 3));
+    repo.close();
+
+    var restartedProducts = new InMemoryProductRepository();
+    var seed1 = restartedProducts.findById(1L).orElseThrow().getStock();
+    var seed4 = restartedProducts.findById(4L).orElseThrow().getStock();
+    var metrics = new MetricsRegistry();
+    var restarted = new JournaledOrderRepository(
+        restartedProducts, metrics, dir.toString(), 1, DurabilityMode.NONE, 10, 0, 2);
+
+    assertEquals(100L, restarted.findById(100L).orElseThrow().getId());
+    assertEquals(1L, restarted.findById(101L).orElseThrow().getProductId());
+    // 100 units added before each order of 1 unit: net zero
+    assertEquals(seed4, restartedProducts.findById(4L).orElseThrow().getStock());
+    assertEquals(seed1 - 3, restartedProducts.findById(1L).orElseThrow().getStock());
+    assertEquals(2L, metrics.snapshot().get("order_store_recovery_replayed_records"));
+    // Indexes are rebuilt from the snapshot and the journal
+    var page = restarted.findPage(new OrderQuery(4L, null, null, 90L, 50));
+    assertEquals(10, page.orders().size());
+    assertEquals(100L, page.orders().get(9).getId());
+    assertEquals(List.of(101L), restarted.findPage(new OrderQuery(1L, null, null, 0L, 50)).orders().stream()
+        .map(Order::getId).toList());
+    assertEquals(102L, restarted.save(order(2L, 1)).getId());
+    restarted.close();
+  }
+
+  private JournaledOrderRepository open(ProductRepository products, DurabilityMode durability) {
+    return new JournaledOrderRepository(products, new MetricsRegistry(), dir.toString(), 1, durability, 10, 0, 2);
+  }
+
+  private Path onlySegment() throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.filter(p -> p.toString().endsWith(".journal")).findFirst().orElseThrow();
+    }
+  }
+
+  private static Order order(long productId, int quantity) {
+    var price = Money.of("12.50");
+    return new Order(0L, productId, quantity, price, price.times(quantity), Instant.now());
+  }
+}
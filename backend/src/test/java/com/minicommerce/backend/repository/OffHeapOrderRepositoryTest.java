@@ -0,0 +1,90 @@
+package com.minicommerce.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class OffHeapOrderRepositoryTest {
+  private static final Instant T0 = Instant.parse("2024-05-01T10:00:00.123456789Z");
+
+  private final MetricsRegistry metrics = new MetricsRegistry();
+  // Four records per chunk, so a handful of orders spans several chunks
+  private final OffHeapOrderRepository repo = new OffHeapOrderRepository(metrics, 4);
+
+  @Test
+  void findById_shouldReadBackEveryFieldAcrossChunks() {
+    var yen = Money.ofMinor(1500, Currency.getInstance("JPY"));
+    List<Order> saved = repo.saveAll(List.of(
+        order(1L, 2, Money.of("12.50"), T0),
+        order(7L, 1, yen, T0.plusNanos(1)),
+        order(3L, 30, Money.of("0.99"), T0.plusSeconds(1))));
+    for (int i = 0; i < 6; i++) repo.save(order(9L, 1, Money.of("5.00"), T0.plusSeconds(2)));
+
+    assertEquals(List.of(1L, 2L, 3L), saved.stream().map(Order::getId).toList());
+    for (Order o : saved) assertEquals(o, repo.findById(o.getId()).orElseThrow());
+    assertEquals(yen, repo.findById(2L).orElseThrow().getUnitPrice());
+    assertEquals(9L, repo.findById(9L).orElseThrow().getProductId());
+    assertTrue(repo.findById(10L).isEmpty());
+    assertTrue(repo.findById(0L).isEmpty());
+    assertEquals(3L * 4 * OffHeapOrderRepository.RECORD_BYTES, metrics.snapshot().get("order_store_offheap_bytes"));
+  }
+
+  @Test
+  void findPage_shouldMaterializeOnlyTheRequestedPage() {
+    for (int i = 0; i < 10; i++) repo.save(order(i % 2 == 0 ? 1L : 2L, 1, Money.of("1.00"), T0.plusSeconds(i)));
+
+    var page = repo.findPage(new OrderQuery(2L, T0.plusSeconds(2), null, 0L, 2));
+    assertEquals(List.of(4L, 6L), page.orders().stream().map(Order::getId).toList());
+    assertEquals(Long.valueOf(6), page.nextAfter());
+  }
+
+  @Test
+  void save_shouldRejectMixedCurrencies() {
+    var order = new Order(0L, 1L, 1, Money.of("1.00"), Money.ofMinor(100, Currency.getInstance("EUR")), T0);
+    assertThrows(IllegalArgumentException.class, () -> repo.save(order));
+    assertTrue(repo.findById(1L).isEmpty());
+  }
+
+  @Test
+  void saveAll_shouldStoreNothingWhenAnyOrderIsRejected() {
+    repo.save(order(1L, 1, Money.of("1.00"), T0));
+    var mixed = new Order(0L, 2L, 1, Money.of("1.00"), Money.ofMinor(100, Currency.getInstance("EUR")), T0);
+    var batch = List.of(
+        order(2L, 1, Money.of("2.00"), T0.plusSeconds(1)),
+        order(2L, 1, Money.of("2.00"), T0.plusSeconds(2)),
+        order(2L, 1, Money.of("2.00"), T0.plusSeconds(3)),
+        order(2L, 1, Money.of("2.00"), T0.plusSeconds(4)),
+        mixed);
+
+    assertThrows(IllegalArgumentException.class, () -> repo.saveAll(batch));
+
+    assertTrue(repo.findById(2L).isEmpty());
+    assertEquals(1L, metrics.snapshot().get("order_store_orders").longValue());
+    assertTrue(repo.findPage(new OrderQuery(2L, null, null, 0L, 10)).orders().isEmpty());
+    assertEquals(List.of(1L), repo.findPage(new OrderQuery(null, null, null, 0L, 10)).orders().stream()
+        .map(Order::getId).toList());
+    assertEquals(2L, repo.save(order(2L, 1, Money.of("2.00"), T0)).getId());
+  }
+
+  @Test
+  void constructor_shouldRejectChunksThatRoundUpPastTheLargestBuffer() {
+    int max = OffHeapOrderRepository.MAX_CHUNK_RECORDS;
+    assertTrue((long) max * OffHeapOrderRepository.RECORD_BYTES <= Integer.MAX_VALUE);
+    new OffHeapOrderRepository(metrics, max);
+    // Would round up to 1 << 26 records, 2.5 GiB in one buffer
+    assertThrows(IllegalArgumentException.class, () -> new OffHeapOrderRepository(metrics, max + 1));
+    assertThrows(IllegalArgumentException.class, () -> new OffHeapOrderRepository(metrics, 0));
+  }
+
+  private static Order order(long productId, int quantity, Money unitPrice, Instant createdAt) {
+    return new Order(0L, productId, quantity, unitPrice, unitPrice.times(quantity), createdAt);
+  }
+}
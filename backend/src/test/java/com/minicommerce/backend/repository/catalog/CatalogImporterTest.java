@@ -0,0 +1,137 @@
+package com.minicommerce.backend.repository.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.repository.catalog.CatalogImportReport.RowError;
+import com.minicommerce.backend.repository.catalog.CatalogImporter.CatalogImport;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CatalogImporterTest {
+
+  @Test
+  void csv_shouldParseQuotedNamesAndReportBadRows() throws IOException {
+    CatalogImport result = read(CatalogFormat.CSV, """
+        id,name,price,stock
+        2,"Serum, ""Night"" (50ml)",115.00,12
+        1,Gentle Cleanser,29,0
+
+        3,,10.00,1
+        4,Toner,-1.00,5
+        5,Mask,abc,5
+        6,Balm,1.234,5
+        7,Oil,5.00
+        8,"Mist,4.00,1
+        0,Primer,5.00,1
+        """);
+
+    CatalogImportReport report = result.report();
+    assertEquals(9, report.rows());
+    assertEquals(2, report.imported());
+    assertEquals(7, report.rejected());
+    assertEquals(List.of(1L, 2L), result.products().stream().map(Product::getId).toList());
+    Product serum = result.products().get(1);
+    assertEquals("Serum, \"Night\" (50ml)", serum.getName());
+    assertEquals(Money.of("115.00"), serum.getPrice());
+    assertEquals(12, serum.getStock());
+
+    List<Long> lines = report.errors().stream().map(RowError::line).toList();
+    assertEquals(List.of(5L, 6L, 7L, 8L, 9L, 10L, 11L), lines);
+    assertEquals("name must not be blank", report.errors().get(0).reason());
+    assertEquals("price must be >= 0", report.errors().get(1).reason());
+    assertEquals("price is not a number", report.errors().get(2).reason());
+    assertEquals("expected 4 fields, got 3", report.errors().get(4).reason());
+    assertEquals("unterminated quote", report.errors().get(5).reason());
+    assertEquals("id must be > 0", report.errors().get(6).reason());
+    assertEquals("7,Oil,5.00", report.errors().get(4).row());
+  }
+
+  @Test
+  void ndjson_shouldAcceptPricesAsNumbersOrTextAndIgnoreUnknownFields() throws IOException {
+    CatalogImport result = read(CatalogFormat.NDJSON, """
+        {"id":1,"name":"Serum","price":12.50,"stock":3,"tags":["a",{"b":1}]}
+        {"stock":0,"price":"7","name":"Balm","id":"2"}
+        {"id":3,"name":{"en":"Oil"},"price":"1.00","stock":1}
+        {"id":4,"name":"Mask","stock":1}
+        {"id":5,"name":"Toner","price":"1.00","stock":1} trailing
+        not json
+        """);
+
+    assertEquals(6, result.report().rows());
+    assertEquals(List.of(1L, 2L), result.products().stream().map(Product::getId).toList());
+    assertEquals(Money.of("12.50"), result.products().get(0).getPrice());
+    assertEquals(Money.of("7.00"), result.products().get(1).getPrice());
+    assertEquals(List.of("name must be a string or number", "price is missing", "malformed JSON", "malformed JSON"),
+        result.report().errors().stream().map(RowError::reason).toList());
+  }
+
+  @Test
+  void read_shouldSortAcrossChunksAndKeepTheFirstRowOfARepeatedId() throws IOException {
+    // Several chunks, ids shuffled, every tenth id repeated later in the file
+    List<Long> ids = new ArrayList<>();
+    for (long id = 1; id <= 20_000; id++) ids.add(id);
+    Collections.shuffle(ids, new Random(7));
+    var csv = new StringBuilder();
+    for (long id : ids) csv.append(id).append(",First ").append(id).append(",1.00,1\n");
+    for (long id = 10; id <= 20_000; id += 10) csv.append(id).append(",Second ").append(id).append(",2.00,2\n");
+
+    CatalogImport result = new CatalogImporter(3).read(
+        new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), CatalogFormat.CSV);
+
+    assertEquals(22_000, result.report().rows());
+    assertEquals(20_000, result.report().imported());
+    assertEquals(2_000, result.report().rejected());
+    for (int i = 0; i < 20_000; i++) {
+      Product product = result.products().get(i);
+      assertEquals(i + 1, product.getId());
+      assertEquals("First " + (i + 1), product.getName());
+    }
+    assertEquals(CatalogImporter.MAX_REPORTED_ERRORS, result.report().errors().size());
+    RowError firstRepeat = result.report().errors().get(0);
+    assertEquals(20_001, firstRepeat.line());
+    assertTrue(firstRepeat.reason().startsWith("duplicate id 10 (first on line "));
+    assertNull(firstRepeat.row());
+  }
+
+  @Test
+  void read_shouldReportOnlyTheFirstBadRowsOfAFileWithManySpreadOverChunks() throws IOException {
+    // Every fifth row is bad: 4000 bad rows across five chunks
+    var csv = new StringBuilder();
+    List<Long> badLines = new ArrayList<>();
+    for (int line = 1; line <= 20_000; line++) {
+      if (line % 5 == 0) {
+        csv.append(line).append(",Bad ").append(line).append(",not a price,1\n");
+        badLines.add((long) line);
+      } else {
+        csv.append(line).append(",Good ").append(line).append(",1.00,1\n");
+      }
+    }
+    // A repeated id past the reported range is counted but not listed
+    csv.append("1,Again,1.00,1\n");
+
+    CatalogImport result = new CatalogImporter(4).read(
+        new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), CatalogFormat.CSV);
+
+    CatalogImportReport report = result.report();
+    assertEquals(20_001, report.rows());
+    assertEquals(16_000, report.imported());
+    assertEquals(4_001, report.rejected());
+    assertEquals(badLines.subList(0, CatalogImporter.MAX_REPORTED_ERRORS),
+        report.errors().stream().map(RowError::line).toList());
+    assertEquals("price is not a number", report.errors().get(999).reason());
+  }
+
+  private static CatalogImport read(CatalogFormat format, String text) throws IOException {
+    return new CatalogImporter(2).read(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), format);
+  }
+}
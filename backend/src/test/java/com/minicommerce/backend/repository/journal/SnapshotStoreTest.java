@@ -0,0 +1,65 @@
+package com.minicommerce.backend.repository.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.repository.journal.SnapshotStore.ProductState;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnapshotStoreTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void loadLatest_shouldApplyNothingFromASnapshotThatFailsToDecode() throws IOException {
+    var store = new SnapshotStore(dir, 2);
+    var products = List.of(new ProductState(1L, "Serum", Money.of("10.00"), 5));
+    List<Order> orders = List.of(order(1L), order(2L));
+    store.write(100, 1, products, id -> orders.get((int) id - 1));
+    store.write(200, 2, products, id -> orders.get((int) id - 1));
+
+    // The newest file's last currency code becomes unknown, with a checksum that still matches
+    Path newest = dir.resolve(String.format("%020d.snapshot", 200));
+    byte[] bytes = Files.readAllBytes(newest);
+    int body = bytes.length - Integer.BYTES;
+    int last = new String(bytes, 0, body, StandardCharsets.ISO_8859_1).lastIndexOf("USD");
+    System.arraycopy("ZZZ".getBytes(StandardCharsets.US_ASCII), 0, bytes, last, 3);
+    CRC32C crc = new CRC32C();
+    crc.update(bytes, 0, body);
+    ByteBuffer.wrap(bytes).putInt(body, (int) crc.getValue());
+    Files.write(newest, bytes);
+
+    List<Object> visited = new ArrayList<>();
+    var position = store.loadLatest(new SnapshotStore.Visitor() {
+      @Override
+      public void onProduct(ProductState product) {
+        visited.add(product);
+      }
+
+      @Override
+      public void onOrder(Order order) {
+        visited.add(order.getId());
+      }
+    });
+
+    assertEquals(100L, position.orElseThrow());
+    assertEquals(List.of(products.get(0), 1L), visited);
+  }
+
+  private static Order order(long id) {
+    var price = Money.of("12.50");
+    return new Order(id, 1L, 1, price, price, Instant.ofEpochSecond(1_700_000_000L + id));
+  }
+}
@@ -0,0 +1,91 @@
+package com.minicommerce.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.minicommerce.backend.config.InventoryConfig;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.InMemoryProductRepository;
+import com.minicommerce.backend.repository.catalog.CatalogFormat;
+import com.minicommerce.backend.repository.catalog.CatalogImportReport;
+import com.minicommerce.backend.service.CatalogReadModel.ProductView;
+import com.minicommerce.backend.service.ProductQuery.Sort;
+import com.minicommerce.backend.web.error.CatalogImportConflictException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CatalogImportServiceTest {
+
+  @Test
+  void importCatalog_shouldSwapRepositoryAndReadModel() throws IOException {
+    var productRepo = new InMemoryProductRepository();
+    var metrics = new MetricsRegistry();
+    var model = new CatalogReadModel(productRepo, metrics);
+    long before = model.version();
+    var service = new CatalogImportService(productRepo, model, new InventoryConfig(productRepo), metrics, 2, "memory");
+
+    CatalogImportReport report = service.importCatalog(csv("""
+        10,Hydrating Mist,8.00,4
+        11,Night Balm,12.00,0
+        12,,1.00,1
+        """), CatalogFormat.CSV);
+
+    assertEquals(2, report.imported());
+    assertEquals(1, report.rejected());
+    assertTrue(productRepo.findById(1L).isEmpty());
+    assertEquals(4, productRepo.findById(10L).orElseThrow().getStock());
+    assertTrue(model.version() > before);
+    assertEquals(List.of(10L, 11L), model.list().stream().map(ProductView::id).toList());
+    var page = model.search(new ProductQuery("night", null, null, false, Sort.ID, null, 10));
+    assertEquals(List.of(11L), page.products().stream().map(ProductView::id).toList());
+    assertEquals(2L, metrics.snapshot().get("catalog_products").longValue());
+    assertEquals(1L, metrics.snapshot().get("catalog_import_rejected_total").longValue());
+  }
+
+  @Test
+  void importCatalog_shouldLeaveCatalogWhenNothingIsValidOrStoreIsJournaled() throws IOException {
+    var productRepo = new InMemoryProductRepository();
+    var model = new CatalogReadModel(productRepo, new MetricsRegistry());
+    var inventory = new InventoryConfig(productRepo);
+    var service = new CatalogImportService(productRepo, model, inventory, new MetricsRegistry(), 1, "memory");
+
+    var ex = assertThrows(IllegalArgumentException.class,
+        () -> service.importCatalog(csv("1,Serum,oops,1\n"), CatalogFormat.CSV));
+    assertTrue(ex.getMessage().contains("line 1: price is not a number"));
+    assertEquals(5, productRepo.findAll().size());
+
+    var journaled = new CatalogImportService(productRepo, model, inventory, new MetricsRegistry(), 1, "journal");
+    assertThrows(CatalogImportConflictException.class,
+        () -> journaled.importCatalog(csv("9,Serum,1.00,1\n"), CatalogFormat.CSV));
+    assertEquals(5, model.list().size());
+  }
+
+  @Test
+  void importCatalog_shouldStripeTheConfiguredProductsOfTheNewCatalog() throws IOException {
+    var productRepo = new InMemoryProductRepository();
+    var model = new CatalogReadModel(productRepo, new MetricsRegistry());
+    var inventory = new InventoryConfig(productRepo);
+    inventory.setProductIds(List.of(1L));
+    inventory.setStripes(4);
+    inventory.enableStriping(productRepo.findAll());
+    assertTrue(productRepo.findById(1L).orElseThrow().isStriped());
+    var service = new CatalogImportService(productRepo, model, inventory, new MetricsRegistry(), 1, "memory");
+
+    service.importCatalog(csv("1,Serum,115.00,100\n2,Foundation,52.00,10\n"), CatalogFormat.CSV);
+
+    var serum = productRepo.findById(1L).orElseThrow();
+    assertTrue(serum.isStriped());
+    assertEquals(100, serum.getStock());
+    assertFalse(productRepo.findById(2L).orElseThrow().isStriped());
+  }
+
+  private static InputStream csv(String text) {
+    return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,202 @@
+package com.minicommerce.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Product;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.InMemoryProductRepository;
+import com.minicommerce.backend.repository.ProductRepository;
+import com.minicommerce.backend.service.CatalogReadModel.ProductView;
+import com.minicommerce.backend.service.ProductQuery.Sort;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+
+class CatalogReadModelTest {
+
+  @Test
+  void applyStockChange_shouldRefreshOnlyTouchedProductWithoutRebuild() {
+    var productRepo = new InMemoryProductRepository();
+    var metrics = new MetricsRegistry();
+    var model = new CatalogReadModel(productRepo, metrics);
+    var before = model.list();
+
+    productRepo.findById(1L).orElseThrow().tryDecreaseStock(3);
+    model.applyStockChange(1L);
+    var after = model.list();
+
+    assertEquals(before.get(0).stock() - 3, after.get(0).stock());
+    assertEquals(before.get(1), after.get(1));
+    assertEquals(1L, metrics.snapshot().get("catalog_rebuilds_total").longValue());
+  }
+
+  @Test
+  void snapshot_shouldNeverCarryAVersionNewerThanItsEntries() throws InterruptedException {
+    var productRepo = new InMemoryProductRepository();
+    var model = new CatalogReadModel(productRepo, new MetricsRegistry());
+    Product product = productRepo.findById(1L).orElseThrow();
+    product.increaseStock(1_000_000);
+    // Product 1's stock once each version was published; stock only goes down
+    var stockAt = new ConcurrentHashMap<Long, Integer>();
+    stockAt.put(model.version(), product.getStock());
+
+    var rebuilder = new Thread(() -> {
+      for (int i = 0; i < 2_000; i++) {
+        product.tryDecreaseStock(1);
+        int stock = product.getStock();
+        model.rebuild();
+        stockAt.put(model.version(), stock);
+      }
+    });
+    rebuilder.start();
+    List<long[]> seen = new ArrayList<>();
+    while (rebuilder.isAlive()) {
+      var snapshot = model.snapshot();
+      seen.add(new long[] {snapshot.version(), snapshot.products().get(0).stock()});
+    }
+    rebuilder.join();
+
+    for (long[] s : seen) {
+      assertTrue(s[1] <= stockAt.get(s[0]), "version " + s[0] + " served stock " + s[1]);
+    }
+  }
+
+  @Test
+  void changedSince_shouldReturnOnlyProductsChangedAfterVersion() {
+    var productRepo = new InMemoryProductRepository();
+    var model = new CatalogReadModel(productRepo, new MetricsRegistry());
+    long start = model.version();
+
+    productRepo.findById(2L).orElseThrow().tryDecreaseStock(1);
+    model.applyStockChange(2L);
+    var snapshot = model.snapshot();
+
+    assertTrue(snapshot.version() > start);
+    var changed = snapshot.changedSince(start);
+    assertEquals(1, changed.size());
+    assertEquals(2L, changed.get(0).id());
+    assertTrue(snapshot.changedSince(snapshot.version()).isEmpty());
+  }
+
+  @Test
+  void search_shouldMatchEveryWordByPrefix() {
+    var model = new CatalogReadModel(new InMemoryProductRepository(), new MetricsRegistry());
+
+    assertEquals(List.of(1L, 3L), ids(model.search(query("50", Sort.ID, null, 10))));
+    assertEquals(List.of(2L, 4L), ids(model.search(query("FO", Sort.ID, null, 10))));
+    assertEquals(List.of(4L), ids(model.search(query("gen foa", Sort.ID, null, 10))));
+    assertTrue(model.search(query("serum lip", Sort.ID, null, 10)).products().isEmpty());
+  }
+
+  @Test
+  void search_shouldPageByPriceInBothDirections() {
+    var model = new CatalogReadModel(new InMemoryProductRepository(), new MetricsRegistry());
+
+    var first = model.search(query(null, Sort.PRICE_ASC, null, 2));
+    assertEquals(List.of(4L, 5L), ids(first));
+    var second = model.search(query(null, Sort.PRICE_ASC, first.nextCursor(), 2));
+    assertEquals(List.of(2L, 3L), ids(second));
+    var last = model.search(query(null, Sort.PRICE_ASC, second.nextCursor(), 2));
+    assertEquals(List.of(1L), ids(last));
+    assertEquals(null, last.nextCursor());
+
+    var desc = model.search(query(null, Sort.PRICE_DESC, null, 3));
+    assertEquals(List.of(1L, 3L, 2L), ids(desc));
+    assertEquals(List.of(5L, 4L), ids(model.search(query(null, Sort.PRICE_DESC, desc.nextCursor(), 3))));
+  }
+
+  @Test
+  void search_inStockShouldFollowStockChanges() {
+    var productRepo = new InMemoryProductRepository();
+    var model = new CatalogReadModel(productRepo, new MetricsRegistry());
+    var inStock = new ProductQuery(null, Money.of("30.00"), Money.of("105.00"), true, Sort.ID, null, 10);
+    assertEquals(List.of(2L, 3L, 5L), ids(model.search(inStock)));
+
+    productRepo.findById(5L).orElseThrow().tryDecreaseStock(6);
+    model.applyStockChange(5L);
+    assertEquals(List.of(2L, 3L), ids(model.search(inStock)));
+
+    productRepo.findById(5L).orElseThrow().increaseStock(1);
+    model.applyStockChange(5L);
+    assertEquals(List.of(2L, 3L, 5L), ids(model.search(inStock)));
+  }
+
+  @Test
+  void search_pagedResultsShouldMatchBruteForce() {
+    String[] vocabulary = {"rose", "rosehip", "serum", "cream", "night", "day", "oil", "mask", "matte", "mist"};
+    var random = new Random(7);
+    List<Product> products = new ArrayList<>();
+    for (long id = 1; id <= 10_000; id++) {
+      String name = vocabulary[random.nextInt(10)] + " " + vocabulary[random.nextInt(10)] + " " + id;
+      products.add(new Product(id * 3, name, Money.ofMinor(100 + random.nextInt(50) * 100, Money.DEFAULT_CURRENCY),
+          random.nextInt(3)));
+    }
+    var model = new CatalogReadModel(listRepository(products), new MetricsRegistry());
+    List<ProductView> all = model.list();
+
+    // Word names match thousands of products, id prefixes only a few: both ways of intersecting run
+    String[] queries = {null, "ros", "rose", "m", "night ros", "123", "123 rose", "12 m", "12 1", "ros 12"};
+    for (String q : queries) {
+      for (Sort sort : Sort.values()) {
+        for (boolean inStock : new boolean[] {false, true}) {
+          var query = new ProductQuery(q, Money.of("5.00"), Money.of("40.00"), inStock, sort, null, 97);
+          Comparator<ProductView> order = switch (sort) {
+            case ID -> Comparator.comparingLong(ProductView::id);
+            case PRICE_ASC -> Comparator.comparing(ProductView::price).thenComparingLong(ProductView::id);
+            case PRICE_DESC -> Comparator.comparing(ProductView::price).thenComparingLong(ProductView::id).reversed();
+          };
+          List<Long> expected = all.stream()
+              .filter(v -> q == null || List.of(q.split(" ")).stream().allMatch(
+                  w -> ProductSearchIndex.tokens(v.name()).stream().anyMatch(t -> t.startsWith(w))))
+              .filter(v -> v.price().minorUnits() >= 500 && v.price().minorUnits() <= 4000)
+              .filter(v -> !inStock || v.stock() > 0)
+              .sorted(order)
+              .map(ProductView::id)
+              .toList();
+
+          List<Long> actual = new ArrayList<>();
+          String cursor = null;
+          do {
+            var page = model.search(new ProductQuery(q, query.minPrice(), query.maxPrice(), inStock, sort, cursor, 97));
+            actual.addAll(ids(page));
+            cursor = page.nextCursor();
+          } while (cursor != null);
+          assertEquals(expected, actual, "q=" + q + " sort=" + sort + " inStock=" + inStock);
+        }
+      }
+    }
+  }
+
+  private static ProductQuery query(String q, Sort sort, String cursor, int limit) {
+    return new ProductQuery(q, null, null, false, sort, cursor, limit);
+  }
+
+  private static List<Long> ids(ProductSearchPage page) {
+    return page.products().stream().map(ProductView::id).toList();
+  }
+
+  private static ProductRepository listRepository(List<Product> products) {
+    return new ProductRepository() {
+      @Override
+      public List<Product> findAll() {
+        return products;
+      }
+
+      @Override
+      public Optional<Product> findById(long id) {
+        return products.stream().filter(p -> p.getId() == id).findFirst();
+      }
+
+      @Override
+      public void replaceAll(List<Product> replacement) {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+}
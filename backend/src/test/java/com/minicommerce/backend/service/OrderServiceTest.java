@@ -3,13 +3,17 @@ package com.minicommerce.backend.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.minicommerce.backend.domain.OrderLine;
+import com.minicommerce.backend.metrics.MetricsRegistry;
 import com.minicommerce.backend.repository.InMemoryIdempotencyStore;
 import com.minicommerce.backend.repository.InMemoryOrderRepository;
 import com.minicommerce.backend.repository.InMemoryProductRepository;
 import com.minicommerce.backend.web.error.InsufficientStockException;
 import com.minicommerce.backend.web.error.IdempotencyKeyConflictException;
 import com.minicommerce.backend.web.error.NotFoundException;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 class OrderServiceTest {
@@ -18,8 +22,9 @@ class OrderServiceTest {
   void createOrder_shouldDecreaseStockAndReturnOrder() {
     var productRepo = new InMemoryProductRepository();
     var orderRepo = new InMemoryOrderRepository();
-    var idempotency = new InMemoryIdempotencyStore();
-    var service = new OrderService(productRepo, orderRepo, idempotency);
+    var idempotency = new InMemoryIdempotencyStore(orderRepo, new MetricsRegistry(), 3600, 1000);
+    var service = new OrderService(productRepo, orderRepo, idempotency, new CatalogReadModel(productRepo, new MetricsRegistry()), new DirectOrderIntake(productRepo, orderRepo),
+        new SalesAnalytics(true, new MetricsRegistry()));
 
     var before = productRepo.findById(1L).orElseThrow().getStock();
     var order = service.createOrderIdempotent("k-1", 1L, 2);
@@ -37,8 +42,9 @@ class OrderServiceTest {
   void createOrder_shouldThrowWhenInsufficientStock() {
     var productRepo = new InMemoryProductRepository();
     var orderRepo = new InMemoryOrderRepository();
-    var idempotency = new InMemoryIdempotencyStore();
-    var service = new OrderService(productRepo, orderRepo, idempotency);
+    var idempotency = new InMemoryIdempotencyStore(orderRepo, new MetricsRegistry(), 3600, 1000);
+    var service = new OrderService(productRepo, orderRepo, idempotency, new CatalogReadModel(productRepo, new MetricsRegistry()), new DirectOrderIntake(productRepo, orderRepo),
+        new SalesAnalytics(true, new MetricsRegistry()));
 
     assertThrows(InsufficientStockException.class, () -> service.createOrderIdempotent("k-2", 3L, 999));
   }
@@ -47,8 +53,9 @@ class OrderServiceTest {
   void createOrder_shouldThrowWhenProductNotFound() {
     var productRepo = new InMemoryProductRepository();
     var orderRepo = new InMemoryOrderRepository();
-    var idempotency = new InMemoryIdempotencyStore();
-    var service = new OrderService(productRepo, orderRepo, idempotency);
+    var idempotency = new InMemoryIdempotencyStore(orderRepo, new MetricsRegistry(), 3600, 1000);
+    var service = new OrderService(productRepo, orderRepo, idempotency, new CatalogReadModel(productRepo, new MetricsRegistry()), new DirectOrderIntake(productRepo, orderRepo),
+        new SalesAnalytics(true, new MetricsRegistry()));
 
     assertThrows(NotFoundException.class, () -> service.createOrderIdempotent("k-3", 999L, 1));
   }
@@ -57,8 +64,9 @@ class OrderServiceTest {
   void createOrderIdempotent_shouldNotDoubleDecreaseStockForSameKey() {
     var productRepo = new InMemoryProductRepository();
     var orderRepo = new InMemoryOrderRepository();
-    var idempotency = new InMemoryIdempotencyStore();
-    var service = new OrderService(productRepo, orderRepo, idempotency);
+    var idempotency = new InMemoryIdempotencyStore(orderRepo, new MetricsRegistry(), 3600, 1000);
+    var service = new OrderService(productRepo, orderRepo, idempotency, new CatalogReadModel(productRepo, new MetricsRegistry()), new DirectOrderIntake(productRepo, orderRepo),
+        new SalesAnalytics(true, new MetricsRegistry()));
 
     var before = productRepo.findById(2L).orElseThrow().getStock();
 
@@ -73,14 +81,74 @@ class OrderServiceTest {
   void createOrderIdempotent_shouldConflictWhenSameKeyUsedForDifferentPayload() {
     var productRepo = new InMemoryProductRepository();
     var orderRepo = new InMemoryOrderRepository();
-    var idempotency = new InMemoryIdempotencyStore();
-    var service = new OrderService(productRepo, orderRepo, idempotency);
+    var idempotency = new InMemoryIdempotencyStore(orderRepo, new MetricsRegistry(), 3600, 1000);
+    var service = new OrderService(productRepo, orderRepo, idempotency, new CatalogReadModel(productRepo, new MetricsRegistry()), new DirectOrderIntake(productRepo, orderRepo),
+        new SalesAnalytics(true, new MetricsRegistry()));
 
     service.createOrderIdempotent("key-abc", 2L, 1);
 
     assertThrows(IdempotencyKeyConflictException.class, () ->
         service.createOrderIdempotent("key-abc", 2L, 2));
   }
-}
 
+  @Test
+  void createOrdersIdempotent_shouldReserveStockForAllLines() {
+    var productRepo = new InMemoryProductRepository();
+    var orderRepo = new InMemoryOrderRepository();
+    var idempotency = new InMemoryIdempotencyStore(orderRepo, new MetricsRegistry(), 3600, 1000);
+    var service = new OrderService(productRepo, orderRepo, idempotency, new CatalogReadModel(productRepo, new MetricsRegistry()), new DirectOrderIntake(productRepo, orderRepo),
+        new SalesAnalytics(true, new MetricsRegistry()));
+
+    var before1 = productRepo.findById(1L).orElseThrow().getStock();
+    var before4 = productRepo.findById(4L).orElseThrow().getStock();
+
+    var orders = service.createOrdersIdempotent("cart-1", List.of(new OrderLine(1L, 2), new OrderLine(4L, 3)));
+
+    assertEquals(2, orders.size());
+    assertEquals(1L, orders.get(0).getProductId());
+    assertEquals(4L, orders.get(1).getProductId());
+    assertEquals(before1 - 2, productRepo.findById(1L).orElseThrow().getStock());
+    assertEquals(before4 - 3, productRepo.findById(4L).orElseThrow().getStock());
+  }
+
+  @Test
+  void createOrdersIdempotent_shouldRollBackReservedLinesWhenOneLineFails() {
+    var productRepo = new InMemoryProductRepository();
+    var orderRepo = new InMemoryOrderRepository();
+    var idempotency = new InMemoryIdempotencyStore(orderRepo, new MetricsRegistry(), 3600, 1000);
+    var service = new OrderService(productRepo, orderRepo, idempotency, new CatalogReadModel(productRepo, new MetricsRegistry()), new DirectOrderIntake(productRepo, orderRepo),
+        new SalesAnalytics(true, new MetricsRegistry()));
+
+    var before1 = productRepo.findById(1L).orElseThrow().getStock();
+    var before2 = productRepo.findById(2L).orElseThrow().getStock();
 
+    assertThrows(InsufficientStockException.class, () -> service.createOrdersIdempotent(
+        "cart-2",
+        List.of(new OrderLine(1L, 1), new OrderLine(2L, 1), new OrderLine(3L, 999))));
+
+    assertEquals(before1, productRepo.findById(1L).orElseThrow().getStock());
+    assertEquals(before2, productRepo.findById(2L).orElseThrow().getStock());
+    assertTrue(orderRepo.findById(1L).isEmpty());
+  }
+
+  @Test
+  void createOrdersIdempotent_shouldReturnSameOrdersForSameKey() {
+    var productRepo = new InMemoryProductRepository();
+    var orderRepo = new InMemoryOrderRepository();
+    var idempotency = new InMemoryIdempotencyStore(orderRepo, new MetricsRegistry(), 3600, 1000);
+    var service = new OrderService(productRepo, orderRepo, idempotency, new CatalogReadModel(productRepo, new MetricsRegistry()), new DirectOrderIntake(productRepo, orderRepo),
+        new SalesAnalytics(true, new MetricsRegistry()));
+
+    var lines = List.of(new OrderLine(1L, 1), new OrderLine(5L, 1));
+    var before5 = productRepo.findById(5L).orElseThrow().getStock();
+
+    var first = service.createOrdersIdempotent("cart-3", lines);
+    var second = service.createOrdersIdempotent("cart-3", lines);
+
+    assertEquals(first.get(0).getId(), second.get(0).getId());
+    assertEquals(first.get(1).getId(), second.get(1).getId());
+    assertEquals(before5 - 1, productRepo.findById(5L).orElseThrow().getStock());
+    assertThrows(IdempotencyKeyConflictException.class, () ->
+        service.createOrdersIdempotent("cart-3", List.of(new OrderLine(1L, 1))));
+  }
+}
@@ -0,0 +1,62 @@
+package com.minicommerce.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.service.SalesAnalytics.Rank;
+import com.minicommerce.backend.service.SalesAnalytics.Sales;
+import com.minicommerce.backend.service.SalesAnalytics.Window;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class SalesAnalyticsTest {
+
+  @Test
+  void sales_shouldDropOrdersOnceTheyLeaveTheWindow() {
+    var clock = new AtomicLong(1_000_000_000L);
+    var analytics = new SalesAnalytics(true, clock::get);
+
+    analytics.record(order(1L, 2, "10.00"));
+    clock.addAndGet(90_000);
+    analytics.record(List.of(order(1L, 1, "10.00"), order(2L, 3, "4.50")));
+
+    Sales lastMinute = analytics.sales(Window.ONE_MINUTE, null);
+    assertEquals(2, lastMinute.orders());
+    assertEquals(4, lastMinute.units());
+    assertEquals(2350, lastMinute.revenueMinor());
+    assertEquals(3, analytics.sales(Window.FIVE_MINUTES, null).orders());
+    assertEquals(3, analytics.sales(Window.FIVE_MINUTES, 1L).units());
+    assertEquals(3, analytics.sinceStartup(null).orders());
+
+    clock.addAndGet(3_600_000);
+    assertEquals(0, analytics.sales(Window.ONE_HOUR, null).orders());
+    assertEquals(0, analytics.sales(Window.FIVE_MINUTES, 1L).orders());
+    assertEquals(3, analytics.sinceStartup(1L).units());
+  }
+
+  @Test
+  void top_shouldRankByUnitsOrRevenue() {
+    var clock = new AtomicLong(1_000_000_000L);
+    var analytics = new SalesAnalytics(true, clock::get);
+    analytics.record(order(1L, 5, "1.00"));
+    analytics.record(order(2L, 1, "50.00"));
+    analytics.record(order(3L, 5, "2.00"));
+    analytics.record(order(2L, 1, "50.00"));
+
+    var byUnits = analytics.top(Window.FIVE_MINUTES, Rank.UNITS, 2);
+    assertEquals(List.of(1L, 3L), byUnits.stream().map(SalesAnalytics.ProductSales::productId).toList());
+    var byRevenue = analytics.top(Window.ONE_HOUR, Rank.REVENUE, 10);
+    assertEquals(List.of(2L, 3L, 1L), byRevenue.stream().map(SalesAnalytics.ProductSales::productId).toList());
+    assertEquals(2, byRevenue.get(0).orders());
+    assertThrows(IllegalArgumentException.class, () -> analytics.top(Window.ONE_MINUTE, Rank.UNITS, 0));
+  }
+
+  private static Order order(long productId, int quantity, String unitPrice) {
+    Money price = Money.of(unitPrice);
+    return new Order(0L, productId, quantity, price, price.times(quantity), Instant.EPOCH);
+  }
+}
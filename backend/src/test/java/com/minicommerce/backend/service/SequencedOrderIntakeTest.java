@@ -0,0 +1,116 @@
+package com.minicommerce.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.InMemoryOrderRepository;
+import com.minicommerce.backend.repository.InMemoryProductRepository;
+import com.minicommerce.backend.web.error.InsufficientStockException;
+import com.minicommerce.backend.web.error.NotFoundException;
+import com.minicommerce.backend.web.error.ServiceOverloadedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SequencedOrderIntakeTest {
+
+  @Test
+  void place_shouldSellExactlyTheAvailableStockUnderConcurrency() throws Exception {
+    var productRepo = new InMemoryProductRepository();
+    var orderRepo = new InMemoryOrderRepository();
+    var intake = new SequencedOrderIntake(productRepo, orderRepo, new MetricsRegistry(), 2, 64, 16, 5000);
+    int stock = productRepo.findById(1L).orElseThrow().getStock();
+    var placed = new AtomicInteger();
+    var rejected = new AtomicInteger();
+    List<Thread> threads = new ArrayList<>();
+    try {
+      for (int t = 0; t < 8; t++) {
+        Thread thread = new Thread(() -> {
+          for (int i = 0; i < 5; i++) {
+            try {
+              intake.place(1L, 1);
+              placed.incrementAndGet();
+            } catch (InsufficientStockException e) {
+              rejected.incrementAndGet();
+            }
+          }
+        });
+        thread.start();
+        threads.add(thread);
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+    } finally {
+      intake.close();
+    }
+
+    assertEquals(stock, placed.get());
+    assertEquals(40 - stock, rejected.get());
+    assertEquals(0, productRepo.findById(1L).orElseThrow().getStock());
+    assertEquals(stock, orderRepo.findById(stock).orElseThrow().getId());
+  }
+
+  @Test
+  void place_shouldRejectUnknownProductOnCallerThread() throws Exception {
+    var productRepo = new InMemoryProductRepository();
+    var intake = new SequencedOrderIntake(productRepo, new InMemoryOrderRepository(), new MetricsRegistry(), 1, 8, 4, 5000);
+    try {
+      assertThrows(NotFoundException.class, () -> intake.place(999L, 1));
+    } finally {
+      intake.close();
+    }
+  }
+
+  @Test
+  void place_shouldGiveUpWith503WhenTheWriterDoesNotTakeTheOrderInTime() throws Exception {
+    var productRepo = new InMemoryProductRepository();
+    var saving = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var orderRepo = new InMemoryOrderRepository() {
+      @Override
+      public List<Order> saveAll(List<Order> orders) {
+        saving.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return super.saveAll(orders);
+      }
+    };
+    int stock = productRepo.findById(1L).orElseThrow().getStock();
+    var intake = new SequencedOrderIntake(productRepo, orderRepo, new MetricsRegistry(), 1, 8, 4, 50);
+    try {
+      Thread first = new Thread(() -> intake.place(1L, 1));
+      first.start();
+      saving.await();
+
+      // The writer is stuck saving the first order, so the second is never taken
+      assertThrows(ServiceOverloadedException.class, () -> intake.place(1L, 1));
+      release.countDown();
+      first.join();
+    } finally {
+      intake.close();
+    }
+
+    assertEquals(stock - 1, productRepo.findById(1L).orElseThrow().getStock());
+  }
+
+  @Test
+  void constructor_shouldRejectSizesBelowOne() {
+    var productRepo = new InMemoryProductRepository();
+    var orderRepo = new InMemoryOrderRepository();
+    var metrics = new MetricsRegistry();
+    assertThrows(IllegalArgumentException.class,
+        () -> new SequencedOrderIntake(productRepo, orderRepo, metrics, 1, 0, 4, 5000));
+    assertThrows(IllegalArgumentException.class,
+        () -> new SequencedOrderIntake(productRepo, orderRepo, metrics, 1, 8, 0, 5000));
+    assertThrows(IllegalArgumentException.class,
+        () -> new SequencedOrderIntake(productRepo, orderRepo, metrics, 1, 8, 4, 0));
+  }
+}
@@ -0,0 +1,120 @@
+package com.minicommerce.backend.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  @Test
+  void tryAcquire_shouldShedOnceLimitAndQueueAreFull() {
+    var limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0);
+
+    assertTrue(limiter.tryAcquire(0));
+    assertTrue(limiter.tryAcquire(0));
+    assertFalse(limiter.tryAcquire(TimeUnit.MILLISECONDS.toNanos(10)));
+
+    limiter.release(1_000);
+    assertTrue(limiter.tryAcquire(0));
+  }
+
+  @Test
+  void release_shouldShrinkLimitWhenLatencyClimbs() {
+    var limiter = new AdaptiveConcurrencyLimiter(50, 1, 100, 0);
+    limiter.tryAcquire(0);
+    limiter.release(TimeUnit.MILLISECONDS.toNanos(1));
+
+    for (int i = 0; i < 20; i++) {
+      limiter.tryAcquire(0);
+      limiter.release(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    assertTrue(limiter.limit() < 50, "limit should drop, was " + limiter.limit());
+    assertEquals(0, limiter.inFlight());
+  }
+
+  /**
+   * Run with {@code -Dload=true}: 40 closed-loop clients (10x overload) against a service that
+   * can run 4 requests at a time, each taking 2 ms. Without admission control every request
+   * queues behind the others; with it, admitted requests keep a bounded p99 and the rest are
+   * shed immediately.
+   */
+  @Test
+  @EnabledIfSystemProperty(named = "load", matches = "true")
+  void load_p99ShouldStayBoundedUnderTenfoldOverload() throws Exception {
+    long unlimitedP99 = runLoad(null);
+    var limiter = new AdaptiveConcurrencyLimiter(20, 1, 100, 8);
+    long limitedP99 = runLoad(limiter);
+
+    System.out.printf("overload p99: without limiter %d ms, with limiter %d ms (%s)%n",
+        unlimitedP99 / 1_000_000, limitedP99 / 1_000_000, limiter);
+    assertTrue(limitedP99 * 3 < unlimitedP99, "limiter should keep p99 well below the unlimited case");
+  }
+
+  private static long runLoad(AdaptiveConcurrencyLimiter limiter) throws Exception {
+    var capacity = new Semaphore(4, true);
+    var shed = new LongAdder();
+    long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+    List<long[]> perThread = new ArrayList<>();
+    int[] counts = new int[40];
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < counts.length; t++) {
+      int worker = t;
+      long[] latencies = new long[100_000];
+      perThread.add(latencies);
+      Thread thread = new Thread(() -> {
+        int n = 0;
+        while (System.nanoTime() < end && n < latencies.length) {
+          long start = System.nanoTime();
+          if (limiter != null && !limiter.tryAcquire(TimeUnit.MILLISECONDS.toNanos(5))) {
+            shed.increment();
+            sleepMillis(2);
+            continue;
+          }
+          long admitted = System.nanoTime();
+          try {
+            capacity.acquireUninterruptibly();
+            try {
+              sleepMillis(2);
+            } finally {
+              capacity.release();
+            }
+          } finally {
+            if (limiter != null) limiter.release(System.nanoTime() - admitted);
+          }
+          latencies[n++] = System.nanoTime() - start;
+        }
+        counts[worker] = n;
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    long[] all = IntStream.range(0, counts.length)
+        .mapToObj(t -> Arrays.stream(perThread.get(t), 0, counts[t]))
+        .flatMapToLong(latencies -> latencies)
+        .sorted()
+        .toArray();
+    return all[(int) (all.length * 0.99)];
+  }
+
+  private static void sleepMillis(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
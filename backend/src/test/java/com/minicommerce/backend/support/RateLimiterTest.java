@@ -0,0 +1,62 @@
+package com.minicommerce.backend.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+  @Test
+  void tryAcquire_shouldAdmitBurstThenRefillAtConfiguredRate() {
+    var clock = new AtomicLong();
+    var limiter = new RateLimiter(60, 3, 100, clock::get);
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(0, limiter.tryAcquire("1.2.3.4", 1));
+    }
+    long wait = limiter.tryAcquire("1.2.3.4", 1);
+    assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+    assertEquals(0, limiter.tryAcquire("5.6.7.8", 1));
+
+    clock.addAndGet(wait);
+    assertEquals(0, limiter.tryAcquire("1.2.3.4", 1));
+    assertTrue(limiter.tryAcquire("1.2.3.4", 1) > 0);
+  }
+
+  @Test
+  void tryAcquire_shouldChargeRouteCost() {
+    var clock = new AtomicLong();
+    var limiter = new RateLimiter(60, 5, 100, clock::get);
+
+    assertEquals(0, limiter.tryAcquire("ip", 3));
+    assertTrue(limiter.tryAcquire("ip", 3) > 0);
+    assertEquals(0, limiter.tryAcquire("ip", 2));
+  }
+
+  @Test
+  void tryAcquire_shouldNeverOverAdmitUnderConcurrency() throws Exception {
+    var limiter = new RateLimiter(1, 50, 100, () -> 0L);
+    var admitted = new AtomicInteger();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < 1_000; i++) {
+          if (limiter.tryAcquire("hot", 1) == 0) admitted.incrementAndGet();
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(50, admitted.get());
+  }
+}
@@ -0,0 +1,134 @@
+package com.minicommerce.backend.web.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.InMemoryProductRepository;
+import com.minicommerce.backend.service.CatalogReadModel;
+import com.minicommerce.backend.service.CatalogService;
+import com.minicommerce.backend.web.cache.CatalogPayloadCache;
+import com.minicommerce.backend.web.dto.ProductDeltaResponse;
+import com.minicommerce.backend.web.dto.ProductResponse;
+import com.minicommerce.backend.web.mapper.ProductMapper;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+class ProductControllerTest {
+  private InMemoryProductRepository products;
+  private CatalogReadModel model;
+  private ProductController controller;
+
+  @BeforeEach
+  void setUp() {
+    products = new InMemoryProductRepository();
+    boot(new CatalogReadModel(products, new MetricsRegistry()));
+  }
+
+  @Test
+  void listProducts_matchingEtagShouldGet304() {
+    String etag = get(null, null).getHeaders().getETag();
+
+    var response = get(null, etag);
+
+    assertEquals(304, response.getStatusCode().value());
+    assertEquals(etag, response.getHeaders().getETag());
+  }
+
+  @Test
+  void listProducts_staleEtagShouldGetTheNewList() {
+    String etag = get(null, null).getHeaders().getETag();
+    changeStock(1L);
+
+    var response = get(null, etag);
+
+    assertEquals(200, response.getStatusCode().value());
+    assertNotEquals(etag, response.getHeaders().getETag());
+  }
+
+  @Test
+  void listProducts_sinceVersionShouldReturnOnlyChangedProducts() {
+    long since = model.version();
+    changeStock(2L);
+
+    var delta = delta(since);
+
+    assertFalse(delta.isFull());
+    assertEquals(model.version(), delta.getVersion());
+    assertEquals(List.of(2L), ids(delta));
+  }
+
+  @Test
+  void listProducts_sinceVersionBeforeRebuildShouldReturnFullList() {
+    long since = model.version();
+    model.rebuild();
+
+    var delta = delta(since);
+
+    assertTrue(delta.isFull());
+    assertEquals(products.findAll().size(), delta.getProducts().size());
+  }
+
+  @Test
+  void listProducts_sinceVersionAheadOfCatalogShouldReturnFullList() {
+    var delta = delta(model.version() + 1_000);
+
+    assertTrue(delta.isFull());
+    assertEquals(products.findAll().size(), delta.getProducts().size());
+  }
+
+  @Test
+  void listProducts_versionsFromBeforeRestartShouldNotMatch() {
+    boot(new CatalogReadModel(products, new MetricsRegistry(), System.currentTimeMillis() - 60_000));
+    for (int i = 0; i < 5; i++) changeStock(1L);
+    String etag = get(null, null).getHeaders().getETag();
+    long since = model.version();
+
+    boot(new CatalogReadModel(products, new MetricsRegistry()));
+
+    assertEquals(200, get(null, etag).getStatusCode().value());
+    var delta = delta(since);
+    assertTrue(delta.isFull());
+    assertEquals(products.findAll().size(), delta.getProducts().size());
+  }
+
+  private void boot(CatalogReadModel readModel) {
+    model = readModel;
+    var catalogService = new CatalogService(model);
+    ProductMapper mapper = Mappers.getMapper(ProductMapper.class);
+    controller = new ProductController(catalogService,
+        new CatalogPayloadCache(catalogService, mapper, new ObjectMapper(), new MetricsRegistry()), mapper);
+  }
+
+  private void changeStock(long productId) {
+    products.findById(productId).orElseThrow().tryDecreaseStock(1);
+    model.applyStockChange(productId);
+  }
+
+  private ResponseEntity<?> get(Long sinceVersion, String ifNoneMatch) {
+    var request = new MockHttpServletRequest("GET", "/products");
+    if (ifNoneMatch != null) request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+    return controller.listProducts(sinceVersion, null, null, null, null, null, null, null,
+        new ServletWebRequest(request, new MockHttpServletResponse()));
+  }
+
+  private ProductDeltaResponse delta(long sinceVersion) {
+    var response = get(sinceVersion, null);
+    assertEquals(200, response.getStatusCode().value());
+    return (ProductDeltaResponse) response.getBody();
+  }
+
+  private static List<Long> ids(ProductDeltaResponse delta) {
+    return delta.getProducts().stream().map(ProductResponse::getId).toList();
+  }
+}
@@ -0,0 +1,103 @@
+package com.minicommerce.backend.web.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.minicommerce.backend.domain.Money;
+import com.minicommerce.backend.domain.Order;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import com.minicommerce.backend.repository.InMemoryIdempotencyStore;
+import com.minicommerce.backend.repository.InMemoryOrderRepository;
+import com.minicommerce.backend.repository.InMemoryProductRepository;
+import com.minicommerce.backend.service.CatalogReadModel;
+import com.minicommerce.backend.service.DirectOrderIntake;
+import com.minicommerce.backend.service.OrderService;
+import com.minicommerce.backend.service.SalesAnalytics;
+import com.minicommerce.backend.web.mapper.OrderMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+class OrderExportWriterTest {
+  private static final ObjectMapper JSON = new ObjectMapper()
+      .registerModule(new JavaTimeModule())
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+  private final MetricsRegistry metrics = new MetricsRegistry();
+  private OrderExportWriter writer;
+
+  @BeforeEach
+  void setUp() {
+    var products = new InMemoryProductRepository();
+    var orders = new InMemoryOrderRepository();
+    var service = new OrderService(products, orders, new InMemoryIdempotencyStore(orders, metrics, 3600, 1000),
+        new CatalogReadModel(products, metrics), new DirectOrderIntake(products, orders),
+        new SalesAnalytics(true, metrics));
+    var price = Money.of("12.50");
+    for (int i = 0; i < 1200; i++) {
+      orders.save(new Order(0L, 1 + i % 3, 1, price, price, Instant.parse("2024-05-01T10:00:00Z").plusSeconds(i)));
+    }
+    writer = new OrderExportWriter(service, Mappers.getMapper(OrderMapper.class), JSON, metrics);
+  }
+
+  @Test
+  void export_shouldWriteEveryOrderAsOneLineAcrossPages() throws Exception {
+    List<String> lines = export(0L);
+
+    assertEquals(1200, lines.size());
+    for (int i = 0; i < lines.size(); i++) {
+      assertTrue(lines.get(i).startsWith("{"), lines.get(i));
+      assertEquals(i + 1, JSON.readTree(lines.get(i)).get("id").asLong());
+    }
+    assertTrue(lines.get(0).contains("\"unitPrice\":12.50"), lines.get(0));
+    assertEquals(1200L, metrics.snapshot().get("order_export_orders_total"));
+  }
+
+  @Test
+  void export_shouldResumeAfterCursor() throws Exception {
+    List<String> lines = export(700L);
+
+    assertEquals(500, lines.size());
+    assertEquals(701L, JSON.readTree(lines.get(0)).get("id").asLong());
+  }
+
+  @Test
+  void export_clientGoingAwayShouldEndQuietly() throws Exception {
+    var failing = new OutputStream() {
+      private int written;
+
+      @Override
+      public void write(int b) throws IOException {
+        if (++written > 10_000) throw new IOException("Broken pipe");
+      }
+    };
+
+    writer.prepare(null, null, null, 0L).writeTo(failing);
+    assertEquals(1L, metrics.snapshot().get("order_export_aborted_total"));
+    assertEquals(0L, metrics.snapshot().get("order_export_active"));
+  }
+
+  @Test
+  void prepare_shouldRejectInvalidFilterBeforeStreaming() {
+    var from = Instant.parse("2024-06-01T00:00:00Z");
+    assertThrows(IllegalArgumentException.class, () -> writer.prepare(null, from, from.minusSeconds(1), 0L));
+  }
+
+  private List<String> export(long after) throws IOException {
+    var out = new ByteArrayOutputStream();
+    writer.prepare(null, null, null, after).writeTo(out);
+    String body = out.toString(StandardCharsets.UTF_8);
+    assertTrue(body.endsWith("\n"));
+    return body.lines().toList();
+  }
+}
@@ -0,0 +1,24 @@
+package com.minicommerce.backend.web.interceptor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+class AccessLogWriterTest {
+
+  @Test
+  void offer_shouldWriteEveryAcceptedRecordAndCountDrops() throws Exception {
+    var metrics = new MetricsRegistry();
+    var writer = new AccessLogWriter(metrics, 64, 16);
+    int accepted = 0;
+    for (int i = 0; i < 500; i++) {
+      if (writer.offer("GET", "/products", System.currentTimeMillis(), 1_000_000, 200)) accepted++;
+    }
+    writer.close();
+
+    var snapshot = metrics.snapshot();
+    assertEquals(accepted, snapshot.get("access_log_written_total").intValue());
+    assertEquals(500 - accepted, snapshot.get("access_log_dropped_total").intValue());
+  }
+}
@@ -0,0 +1,87 @@
+package com.minicommerce.backend.web.interceptor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.minicommerce.backend.config.WebMvcConfig;
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+class OrderAdmissionInterceptorTest {
+  private static final Object HANDLER = new Object();
+
+  @Test
+  void shedOrder_shouldBeRecordedUnderOrders5xxAndAccessLogged() throws Exception {
+    var metrics = new MetricsRegistry();
+    var accessLog = new AccessLogWriter(metrics, 64, 16);
+    var admission = new OrderAdmissionInterceptor(metrics, true, 1, 1, 1, 0, 0, 1);
+    var rateLimit = new RateLimitInterceptor(metrics);
+    rateLimit.init();
+    var registry = new Registry();
+    new WebMvcConfig(new ApiLoggingInterceptor(accessLog, metrics, 1.0), rateLimit, admission,
+        new StageTimingInterceptor(metrics, false)).addInterceptors(registry);
+    // Hold the only slot so the next order is shed
+    assertTrue(admission.preHandle(post("10.0.0.1"), new MockHttpServletResponse(), HANDLER));
+
+    var request = post("10.0.0.2");
+    var response = new MockHttpServletResponse();
+    dispatch(registry.chain(request), request, response);
+    accessLog.close();
+
+    assertEquals(503, response.getStatus());
+    var snapshot = metrics.snapshot();
+    assertEquals(1L, snapshot.get("order_admission_shed_total").longValue());
+    assertEquals(1L, snapshot.get(
+        "http_server_requests_seconds_count{method=\"POST\",route=\"/orders\",status=\"5xx\"}").longValue());
+    assertEquals(1L, snapshot.get("access_log_written_total").longValue());
+  }
+
+  private static MockHttpServletRequest post(String clientIp) {
+    var request = new MockHttpServletRequest("POST", "/orders");
+    request.setRemoteAddr(clientIp);
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/orders");
+    ServletRequestPathUtils.parseAndCache(request);
+    return request;
+  }
+
+  /**
+   * Runs the chain the way DispatcherServlet does: afterCompletion only on interceptors whose
+   * preHandle returned true, in reverse.
+   */
+  private static void dispatch(
+      List<HandlerInterceptor> chain,
+      MockHttpServletRequest request,
+      MockHttpServletResponse response
+  ) throws Exception {
+    int passed = 0;
+    while (passed < chain.size() && chain.get(passed).preHandle(request, response, HANDLER)) passed++;
+    if (passed == chain.size()) response.setStatus(201);
+    for (int i = passed - 1; i >= 0; i--) {
+      chain.get(i).afterCompletion(request, response, HANDLER, null);
+    }
+  }
+
+  private static final class Registry extends InterceptorRegistry {
+    List<HandlerInterceptor> chain(HttpServletRequest request) {
+      List<HandlerInterceptor> chain = new ArrayList<>();
+      for (Object interceptor : getInterceptors()) {
+        if (interceptor instanceof MappedInterceptor mapped) {
+          if (mapped.matches(request)) chain.add(mapped.getInterceptor());
+        } else {
+          chain.add((HandlerInterceptor) interceptor);
+        }
+      }
+      return chain;
+    }
+  }
+}
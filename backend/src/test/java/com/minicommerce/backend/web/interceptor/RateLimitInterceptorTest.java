@@ -0,0 +1,54 @@
+package com.minicommerce.backend.web.interceptor;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.minicommerce.backend.metrics.MetricsRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RateLimitInterceptorTest {
+
+  @Test
+  void preHandle_shouldChargeConfiguredRouteCosts() throws Exception {
+    var interceptor = interceptor(10, Map.of("POST /orders/batch", 5, "GET /orders/export", 10));
+
+    assertEquals(200, handle(interceptor, "GET", "/orders/export").getStatus());
+    var rejected = handle(interceptor, "GET", "/orders/export");
+    assertEquals(429, rejected.getStatus());
+    assertEquals("10", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+
+    var other = interceptor(10, Map.of("POST /orders/batch", 5));
+    assertEquals(200, handle(other, "POST", "/orders/batch").getStatus());
+    assertEquals(200, handle(other, "POST", "/orders/batch").getStatus());
+    assertEquals(429, handle(other, "POST", "/orders/batch").getStatus());
+  }
+
+  @Test
+  void init_shouldRejectCostsOutsideOneToBurstSize() {
+    assertThrows(IllegalArgumentException.class, () -> interceptor(5, Map.of("GET /orders/export", 10)));
+    assertThrows(IllegalArgumentException.class, () -> interceptor(10, Map.of("POST /orders", 0)));
+    assertDoesNotThrow(() -> interceptor(10, Map.of("GET /orders/export", 10)));
+  }
+
+  private static RateLimitInterceptor interceptor(int burstSize, Map<String, Integer> routeCosts) {
+    var interceptor = new RateLimitInterceptor(new MetricsRegistry());
+    interceptor.setBurstSize(burstSize);
+    interceptor.setRouteCosts(routeCosts);
+    interceptor.init();
+    return interceptor;
+  }
+
+  private static MockHttpServletResponse handle(RateLimitInterceptor interceptor, String method, String path)
+      throws Exception {
+    var request = new MockHttpServletRequest(method, path);
+    request.setRemoteAddr("10.0.0.1");
+    var response = new MockHttpServletResponse();
+    interceptor.preHandle(request, response, new Object());
+    return response;
+  }
+}